@@ -0,0 +1,107 @@
+package havis.test.suite;
+
+import havis.test.suite.common.messaging.XMLMessage;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the input data of the benchmarks
+ */
+class BenchmarkData {
+
+	static final String NAMESPACE = "http://www.HARTING.com/RFID/TestAutomat";
+
+	/**
+	 * Creates the XML of a test case with a list of step modules. Each module
+	 * has properties and a verification.
+	 * 
+	 * @param steps
+	 *            count of steps
+	 * @param objectId
+	 * @return
+	 */
+	static String createTestCaseXml(int steps, String objectId) {
+		StringBuilder ret = new StringBuilder();
+		ret.append("<testCase xmlns=\"").append(NAMESPACE).append("\">");
+		ret.append("<steps>");
+		for (int i = 0; i < steps; i++) {
+			ret.append("<step name=\"s").append(i).append("\">");
+			ret.append("<module>");
+			ret.append("<object objectId=\"").append(objectId).append("\">");
+			ret.append("<properties>");
+			ret.append("<property name=\"p1\" value=\"v").append(i)
+					.append("\" />");
+			ret.append("</properties>");
+			ret.append("</object>");
+			ret.append("<verifications>");
+			ret.append("<verification name=\"ver").append(i).append("\">");
+			ret.append("<expected><result><![CDATA[ <result /> ]]></result></expected>");
+			ret.append("</verification>");
+			ret.append("</verifications>");
+			ret.append("</module>");
+			ret.append("</step>");
+		}
+		ret.append("</steps>");
+		ret.append("</testCase>");
+		return ret.toString();
+	}
+
+	/**
+	 * Parses the XML of a test case
+	 * 
+	 * @param xml
+	 * @return
+	 * @throws Exception
+	 */
+	static TestCaseType parseTestCase(String xml) throws Exception {
+		return (TestCaseType) new XMLMessage(xml, TestCaseType.class)
+				.getDeserializedObject();
+	}
+
+	/**
+	 * Creates a XML document with a list of elements
+	 * 
+	 * @param elements
+	 *            count of elements
+	 * @return
+	 */
+	static String createResultXml(int elements) {
+		StringBuilder ret = new StringBuilder("<result>");
+		for (int i = 0; i < elements; i++) {
+			ret.append("<tag id=\"").append(i).append("\"><epc>")
+					.append(String.format("%024X", i))
+					.append("</epc></tag>");
+		}
+		ret.append("</result>");
+		return ret.toString();
+	}
+
+	/**
+	 * Creates nested dictionaries. Each dictionary contains a value, a list and
+	 * (up to the given depth) embedded dictionaries.
+	 * 
+	 * @param depth
+	 * @param width
+	 *            count of entries per dictionary
+	 * @return
+	 */
+	static Map<String, Object> createDictionary(int depth, int width) {
+		Map<String, Object> ret = new LinkedHashMap<>();
+		ret.put("value", "v" + depth);
+		List<Object> list = new ArrayList<>();
+		for (int i = 0; i < width; i++) {
+			list.add("l" + i);
+		}
+		ret.put("list", list);
+		if (depth > 0) {
+			for (int i = 0; i < width; i++) {
+				ret.put("d" + i, createDictionary(depth - 1, width));
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,97 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.common.ndi.MapNDIProvider;
+import havis.test.suite.common.ndi.SynchronizedNDIContext;
+import havis.test.suite.dto.TestAutomatDTO;
+import havis.test.suite.dto.TestCaseDTO;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Measures the execution of a step module without any logic (loading of the
+ * step, conversion of the properties, verification and report creation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleBenchmark {
+
+	private static final String OBJECT_ID = "noop";
+
+	/**
+	 * Pool size of the step modules (0: no pool)
+	 */
+	@Param({ "0", "1" })
+	public int stepPoolSize;
+
+	private TestAutomatDTO testAutomatDTO;
+	private TestCaseDTO testCaseDTO;
+	private ModuleType module;
+
+	@Setup
+	public void setUp() throws Exception {
+		GenericApplicationContext objContext = new GenericApplicationContext();
+		RootBeanDefinition definition = new RootBeanDefinition(NoOpStep.class);
+		definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		objContext.registerBeanDefinition(OBJECT_ID, definition);
+		objContext.refresh();
+		NDIContext context = new SynchronizedNDIContext();
+		context.setProvider(new MapNDIProvider());
+		Map<String, String> objectIdFiles = new HashMap<String, String>();
+		objectIdFiles.put(OBJECT_ID, "bench/beans.xml");
+		NoOpUI ui = new NoOpUI();
+		ui.start(context, "bench", null, new String[0]);
+
+		testAutomatDTO = new TestAutomatDTO();
+		testAutomatDTO.setGlobalContext(context);
+		testAutomatDTO.setObjContext(objContext);
+		testAutomatDTO.setObjectIdFiles(objectIdFiles);
+		testAutomatDTO.setUi(ui);
+		if (stepPoolSize > 0) {
+			testAutomatDTO.setStepPool(new StepPool(stepPoolSize));
+		}
+
+		testCaseDTO = new TestCaseDTO();
+		testCaseDTO.setId("benchmark");
+		testCaseDTO.setName("ModuleBenchmark");
+		testCaseDTO.setHome("bench");
+		testCaseDTO.setResources(new ResourceCache(objContext));
+		testCaseDTO.setClock(new TestCaseClock());
+
+		TestCaseType testCase = BenchmarkData.parseTestCase(BenchmarkData
+				.createTestCaseXml(1, OBJECT_ID));
+		module = testCase.getSteps().getStep().get(0).getModule();
+	}
+
+	@Benchmark
+	public ModuleType run() throws Throwable {
+		// do not accumulate the reports of all invocations
+		module.setReports(new ModuleReportsType());
+		new Module(testAutomatDTO, testCaseDTO, "stepId", module).run(1);
+		return module;
+	}
+}
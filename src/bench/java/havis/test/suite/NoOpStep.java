@@ -0,0 +1,30 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.api.Step;
+import havis.test.suite.api.dto.TestCaseInfo;
+
+import java.util.Map;
+
+/**
+ * Step module without any logic. It is used to measure the overhead of the
+ * execution engine.
+ */
+public class NoOpStep implements Step {
+
+	@Override
+	public Map<String, Object> prepare(NDIContext context, String moduleHome,
+			TestCaseInfo testCaseInfo, String stepId,
+			Map<String, Object> stepProperties) throws Exception {
+		return stepProperties;
+	}
+
+	@Override
+	public String run() throws Exception {
+		return "<result />";
+	}
+
+	@Override
+	public void finish() throws Exception {
+	}
+}
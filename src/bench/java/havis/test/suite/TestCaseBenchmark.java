@@ -0,0 +1,56 @@
+package havis.test.suite;
+
+import havis.test.suite.common.messaging.XMLMessage;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing and the serialization of a test case definition
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestCaseBenchmark {
+
+	/**
+	 * Count of steps of the test case
+	 */
+	@Param({ "10", "1000" })
+	public int steps;
+
+	private String xml;
+	private TestCaseType testCase;
+
+	@Setup
+	public void setUp() throws Exception {
+		xml = BenchmarkData.createTestCaseXml(steps, "noop");
+		testCase = BenchmarkData.parseTestCase(xml);
+	}
+
+	@Benchmark
+	public TestCaseType parse() throws Exception {
+		return BenchmarkData.parseTestCase(xml);
+	}
+
+	@Benchmark
+	public String serialize() throws Exception {
+		return new XMLMessage(testCase).getSerializationString("testCase",
+				BenchmarkData.NAMESPACE);
+	}
+}
@@ -0,0 +1,84 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.ThreadGroupType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the copying of the step definitions of a thread group for a thread
+ * and the merging of the reports of the thread into the thread group
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadGroupsBenchmark {
+
+	/**
+	 * Count of steps of the thread group
+	 */
+	@Param({ "10", "1000" })
+	public int steps;
+
+	private ThreadGroupType threadGroup;
+
+	@Setup
+	public void setUp() throws Exception {
+		threadGroup = new ThreadGroupType();
+		threadGroup.setCount(1);
+		threadGroup.setSteps(BenchmarkData.parseTestCase(
+				BenchmarkData.createTestCaseXml(steps, "noop")).getSteps());
+	}
+
+	@Benchmark
+	public ThreadGroupType copy() {
+		return DefinitionCopier.copyThreadGroup(threadGroup);
+	}
+
+	@Benchmark
+	public ThreadGroupType copyAndMerge() {
+		// the destination is a copy without reports, so the reports do not
+		// accumulate over the invocations
+		ThreadGroupType dest = DefinitionCopier.copyThreadGroup(threadGroup);
+		ThreadGroupType thread = DefinitionCopier.copyThreadGroup(dest);
+		addReports(thread.getSteps().getStep());
+		ThreadGroups.moveReports(thread.getSteps().getStep(), dest.getSteps()
+				.getStep());
+		return dest;
+	}
+
+	/**
+	 * Adds a report to each module like an execution of the steps
+	 * 
+	 * @param steps
+	 */
+	private static void addReports(List<StepType> steps) {
+		for (StepType step : steps) {
+			if (step.getModule() != null) {
+				ModuleReportType report = new ModuleReportType();
+				report.setPassNo(1);
+				ModuleReportsType reports = new ModuleReportsType();
+				reports.getReport().add(report);
+				step.getModule().setReports(reports);
+			}
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.ExpectedType;
+import havis.test.suite.testcase.ReportVerificationType;
+import havis.test.suite.testcase.VerificationType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the verification of a result (filtering, normalization and diff)
+ * with a small and a large XML document
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifierBenchmark {
+
+	/**
+	 * Count of elements in the result
+	 */
+	@Param({ "10", "10000" })
+	public int elements;
+
+	private Verifier verifier;
+	private String actualResult;
+	private List<VerificationType> matching;
+	private List<VerificationType> differing;
+
+	@Setup
+	public void setUp() {
+		verifier = new Verifier(new ResourceCache(null), "bench");
+		actualResult = BenchmarkData.createResultXml(elements);
+		matching = createVerifications(actualResult);
+		// the last element differs
+		differing = createVerifications(BenchmarkData.createResultXml(
+				elements - 1).replace("</result>",
+				"<tag id=\"" + elements + "\" /></result>"));
+	}
+
+	private static List<VerificationType> createVerifications(
+			String expectedResult) {
+		ExpectedType expected = new ExpectedType();
+		expected.setResult(expectedResult);
+		VerificationType verification = new VerificationType();
+		verification.setName("benchmark");
+		verification.setExpected(expected);
+		return Collections.singletonList(verification);
+	}
+
+	@Benchmark
+	public List<ReportVerificationType> verifyMatching() throws Exception {
+		return verifier.verify(actualResult, matching, null);
+	}
+
+	@Benchmark
+	public List<ReportVerificationType> verifyDiffering() throws Exception {
+		return verifier.verify(actualResult, differing, null);
+	}
+}
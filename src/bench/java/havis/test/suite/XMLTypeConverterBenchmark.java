@@ -0,0 +1,77 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.common.ndi.MapNDIProvider;
+import havis.test.suite.common.ndi.SynchronizedNDIContext;
+import havis.test.suite.testcase.EntryType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of nested dictionaries between the XML types and
+ * maps
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLTypeConverterBenchmark {
+
+	/**
+	 * Nesting depth of the dictionaries
+	 */
+	@Param({ "1", "4" })
+	public int depth;
+
+	/**
+	 * Count of embedded dictionaries per dictionary
+	 */
+	@Param({ "4" })
+	public int width;
+
+	private final XMLTypeConverter converter = new XMLTypeConverter();
+	private NDIContext globalContext;
+	private Map<String, Object> dictionary;
+	private List<EntryType> entries;
+	private PropertiesCache cache;
+
+	@Setup
+	public void setUp() {
+		globalContext = new SynchronizedNDIContext();
+		globalContext.setProvider(new MapNDIProvider());
+		dictionary = BenchmarkData.createDictionary(depth, width);
+		entries = converter.convert(dictionary);
+		cache = new PropertiesCache();
+	}
+
+	@Benchmark
+	public List<EntryType> convertToEntries() {
+		return converter.convert(dictionary);
+	}
+
+	@Benchmark
+	public Map<String, Object> convertToMap() {
+		return converter.convert(entries, globalContext);
+	}
+
+	@Benchmark
+	public Map<String, Object> convertToMapCached() {
+		return converter.convert(entries, globalContext, cache);
+	}
+}
@@ -0,0 +1,329 @@
+package havis.test.suite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts arrivals with a constant rate for a duration (open model). An arrival
+ * is handed over to an idle worker. If no worker is idle then a new worker is
+ * created until the max. count of running workers is reached. Arrivals which
+ * cannot be handed over to a worker are missed. A worker whose execution fails
+ * is finished and frees its place for a new worker.
+ * <p>
+ * If the pool has less threads than the max. count of workers then a new
+ * worker may wait for a thread. An arrival whose execution starts one arrival
+ * interval or more after its planned time is counted as starved instead of
+ * completed.
+ * </p>
+ */
+public class ArrivalRateScheduler {
+
+	/**
+	 * Executes arrivals
+	 */
+	public interface Worker {
+		/**
+		 * Executes an arrival
+		 *
+		 * @return whether the worker can execute further arrivals
+		 */
+		boolean execute();
+	}
+
+	/**
+	 * Creates workers on demand
+	 */
+	public interface WorkerFactory {
+		/**
+		 *
+		 * @param workerIndex
+		 * @return
+		 */
+		Worker create(int workerIndex);
+	}
+
+	/**
+	 * Source of the time
+	 */
+	public interface Ticker {
+		/**
+		 * Returns the current time in nanoseconds (see
+		 * {@link System#nanoTime()})
+		 *
+		 * @return
+		 */
+		long nanoTime();
+
+		/**
+		 * Waits until a time has been reached
+		 *
+		 * @param time
+		 *            time in nanoseconds
+		 * @throws InterruptedException
+		 */
+		void sleepUntil(long time) throws InterruptedException;
+	}
+
+	/**
+	 * Ticker of the system
+	 */
+	public static final Ticker SYSTEM = new Ticker() {
+
+		@Override
+		public long nanoTime() {
+			return System.nanoTime();
+		}
+
+		@Override
+		public void sleepUntil(long time) throws InterruptedException {
+			long remaining;
+			while ((remaining = time - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		}
+	};
+
+	// tells an idle worker to finish
+	private static final Arrival STOP = new Arrival(0);
+
+	private final double rate;
+	private final long duration;
+	private final long interval;
+	private final int maxWorkers;
+	private final WorkerFactory workerFactory;
+	private final Ticker ticker;
+	// arrivals for the idle workers
+	private final BlockingQueue<Arrival> arrivalQueue = new LinkedBlockingQueue<>();
+	private final List<Worker> workers = new ArrayList<>();
+	private final List<Future<?>> futures = new ArrayList<>();
+	private final AtomicLong completedArrivals = new AtomicLong();
+	private final AtomicLong starvedArrivals = new AtomicLong();
+	private final AtomicLong failedArrivals = new AtomicLong();
+	// workers which are running or waiting for a thread of the pool
+	private int activeWorkers;
+	// workers which are waiting for an arrival
+	private int idleWorkers;
+	private boolean stopped;
+	private long arrivals;
+	private long missedArrivals;
+	private long maxLag;
+
+	/**
+	 *
+	 * @param rate
+	 *            arrivals per second
+	 * @param duration
+	 *            duration in milliseconds
+	 * @param maxWorkers
+	 * @param workerFactory
+	 */
+	public ArrivalRateScheduler(double rate, long duration, int maxWorkers,
+			WorkerFactory workerFactory) {
+		this(rate, duration, maxWorkers, workerFactory, SYSTEM);
+	}
+
+	/**
+	 *
+	 * @param rate
+	 *            arrivals per second
+	 * @param duration
+	 *            duration in milliseconds
+	 * @param maxWorkers
+	 * @param workerFactory
+	 * @param ticker
+	 */
+	public ArrivalRateScheduler(double rate, long duration, int maxWorkers,
+			WorkerFactory workerFactory, Ticker ticker) {
+		if (rate <= 0) {
+			throw new IllegalArgumentException(
+					"Arrival rate must be greater than 0");
+		}
+		this.rate = rate;
+		this.duration = duration * 1000000;
+		interval = (long) (1000000000d / rate);
+		this.maxWorkers = Math.max(1, maxWorkers);
+		this.workerFactory = workerFactory;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Starts the arrivals and waits until all workers are finished
+	 *
+	 * @param pool
+	 *            executes the workers
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public void run(ExecutorService pool) throws InterruptedException,
+			ExecutionException {
+		long start = ticker.nanoTime();
+		long end = start + duration;
+		for (long i = 0;; i++) {
+			long planned = start + (long) (i * 1000000000d / rate);
+			if (planned - end >= 0) {
+				break;
+			}
+			// wait for the arrival
+			ticker.sleepUntil(planned);
+			arrivals++;
+			maxLag = Math.max(maxLag, ticker.nanoTime() - planned);
+			// hand over the arrival to an idle worker or a new worker
+			synchronized (this) {
+				if (idleWorkers > 0) {
+					idleWorkers--;
+					arrivalQueue.add(new Arrival(planned));
+				} else if (activeWorkers < maxWorkers) {
+					activeWorkers++;
+					Worker worker = workerFactory.create(workers.size());
+					workers.add(worker);
+					futures.add(pool.submit(new WorkerRunner(worker, planned)));
+				} else {
+					missedArrivals++;
+				}
+			}
+		}
+		// finish the idle workers
+		synchronized (this) {
+			stopped = true;
+			for (; idleWorkers > 0; idleWorkers--) {
+				arrivalQueue.add(STOP);
+			}
+		}
+		// wait for the end of all workers
+		for (Future<?> future : futures) {
+			future.get();
+		}
+	}
+
+	/**
+	 * Gets the created workers in the order of their creation
+	 *
+	 * @return
+	 */
+	public List<Worker> getWorkers() {
+		return workers;
+	}
+
+	public long getArrivals() {
+		return arrivals;
+	}
+
+	public long getCompletedArrivals() {
+		return completedArrivals.get();
+	}
+
+	/**
+	 * Gets the count of arrivals which have been executed one arrival interval
+	 * or more after their planned time
+	 *
+	 * @return
+	 */
+	public long getStarvedArrivals() {
+		return starvedArrivals.get();
+	}
+
+	/**
+	 * Gets the count of arrivals whose execution has failed
+	 *
+	 * @return
+	 */
+	public long getFailedArrivals() {
+		return failedArrivals.get();
+	}
+
+	public long getMissedArrivals() {
+		return missedArrivals;
+	}
+
+	/**
+	 * Gets the max. delay of an arrival in nanoseconds
+	 *
+	 * @return
+	 */
+	public long getMaxLag() {
+		return maxLag;
+	}
+
+	/**
+	 * Gets the count of workers which are waiting for an arrival
+	 *
+	 * @return
+	 */
+	synchronized int getIdleWorkers() {
+		return idleWorkers;
+	}
+
+	/**
+	 * Gets the count of workers which are running or waiting for a thread of
+	 * the pool
+	 *
+	 * @return
+	 */
+	synchronized int getActiveWorkers() {
+		return activeWorkers;
+	}
+
+	private static final class Arrival {
+		// planned time in nanoseconds
+		private final long planned;
+
+		Arrival(long planned) {
+			this.planned = planned;
+		}
+	}
+
+	private class WorkerRunner implements Runnable {
+		private final Worker worker;
+		private final long firstArrival;
+
+		WorkerRunner(Worker worker, long firstArrival) {
+			this.worker = worker;
+			this.firstArrival = firstArrival;
+		}
+
+		@Override
+		public void run() {
+			try {
+				// execute the first arrival and wait for further arrivals
+				// until the end of the duration
+				long planned = firstArrival;
+				while (true) {
+					boolean starved = ticker.nanoTime() - planned >= interval;
+					if (!worker.execute()) {
+						failedArrivals.incrementAndGet();
+						break;
+					}
+					(starved ? starvedArrivals : completedArrivals)
+							.incrementAndGet();
+					synchronized (ArrivalRateScheduler.this) {
+						if (stopped) {
+							break;
+						}
+						idleWorkers++;
+					}
+					Arrival arrival = arrivalQueue.take();
+					if (arrival == STOP) {
+						break;
+					}
+					planned = arrival.planned;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				synchronized (ArrivalRateScheduler.this) {
+					activeWorkers--;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,466 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.api.Reporter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends reports to a reporter module asynchronously. The reports are queued
+ * and sent by a dedicated thread, so a slow reporter does not delay the
+ * execution of the test cases. The thread takes up to a batch of reports from
+ * the queue at once; an intermediate report of a test case is skipped if a
+ * newer full report created from the same test case is part of the batch.
+ * 
+ * The queued reports are sent before the reporter module is cleaned up or
+ * stopped. Exceptions of the reporter module are thrown by
+ * {@link #flush()}, {@link #cleanup()} and {@link #stop()}. If the thread has
+ * died, a report which has to wait for space in the queue is not queued and
+ * the exception of the thread is thrown.
+ */
+public class AsyncReporter implements Reporter, DeltaReporter, ReportSink {
+	private static final Logger log = LoggerFactory
+			.getLogger(AsyncReporter.class);
+	// interval for checking the thread while waiting for space in the queue
+	// (in milliseconds)
+	private static final long PUT_INTERVAL = 100;
+
+	private final Reporter reporter;
+	private final String name;
+	private final int batchSize;
+	private final ReportOverflowPolicy overflowPolicy;
+	private final BlockingQueue<Dispatch> queue;
+	/**
+	 * files with spilled reports in the order of the reports
+	 */
+	private final Queue<File> spilledFiles = new ArrayDeque<>();
+	private final Object lock = new Object();
+	private File spillDir;
+	private long spillCount;
+	// count of reports which have been queued but not sent yet
+	private long pending;
+	private long dropped;
+	private Exception exception;
+	private Thread worker;
+
+	/**
+	 * 
+	 * @param reporter
+	 *            the reporter module
+	 * @param name
+	 *            name of the reporter module (used for logging)
+	 * @param queueSize
+	 *            max. count of queued reports
+	 * @param batchSize
+	 *            max. count of reports which are taken from the queue at once
+	 * @param overflowPolicy
+	 */
+	public AsyncReporter(Reporter reporter, String name, int queueSize,
+			int batchSize, ReportOverflowPolicy overflowPolicy) {
+		if (queueSize < 1 || batchSize < 1) {
+			throw new IllegalArgumentException(
+					"Queue size and batch size must be greater than 0");
+		}
+		this.reporter = reporter;
+		this.name = name;
+		this.batchSize = batchSize;
+		this.overflowPolicy = overflowPolicy;
+		queue = new ArrayBlockingQueue<>(queueSize);
+	}
+
+	public Reporter getReporter() {
+		return reporter;
+	}
+
+	/**
+	 * Returns the count of reports which have been queued but not sent yet
+	 * 
+	 * @return
+	 */
+	public long getPending() {
+		synchronized (lock) {
+			return pending;
+		}
+	}
+
+	/**
+	 * Starts the reporter module and the thread for sending the reports
+	 */
+	@Override
+	public void start(NDIContext context, String moduleHome, String outputDir)
+			throws Exception {
+		reporter.start(context, moduleHome, outputDir);
+		worker = new Thread(new Worker(), "reporter-" + name);
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * Sends the queued reports, stops the thread for sending the reports and
+	 * the reporter module
+	 */
+	@Override
+	public void stop() throws Exception {
+		try {
+			flush();
+		} finally {
+			if (worker != null) {
+				worker.interrupt();
+				worker.join();
+				worker = null;
+			}
+			deleteSpillDir();
+			reporter.stop();
+		}
+	}
+
+	/**
+	 * Sends the queued reports and cleans up the reporter module
+	 */
+	@Override
+	public void cleanup() throws Exception {
+		flush();
+		reporter.cleanup();
+	}
+
+	/**
+	 * Queues a final report
+	 */
+	@Override
+	public void report(String report) throws Exception {
+		report(null, report, false, false);
+	}
+
+	/**
+	 * Queues a report
+	 * 
+	 * @param source
+	 *            the test case the report has been created from (null if
+	 *            unknown)
+	 * @param report
+	 * @param intermediate
+	 *            whether the report is an intermediate report
+	 * @param delta
+	 *            whether the report is a delta report
+	 * @throws Exception
+	 */
+	public void report(Object source, String report, boolean intermediate,
+			boolean delta) throws Exception {
+		enqueue(new Dispatch(source, report, intermediate, delta, null));
+	}
+
+	@Override
+	public void report(ReportRecord record) throws Exception {
+		if (reporter instanceof ReportSink) {
+			enqueue(new Dispatch(null, null, false, false, record));
+		}
+	}
+
+	@Override
+	public boolean isDeltaReport() {
+		return reporter instanceof DeltaReporter
+				&& ((DeltaReporter) reporter).isDeltaReport();
+	}
+
+	/**
+	 * Waits until all queued reports have been sent. The first exception
+	 * thrown by the reporter module since the last call is thrown.
+	 * 
+	 * @throws Exception
+	 */
+	public void flush() throws Exception {
+		Exception e;
+		synchronized (lock) {
+			while (pending > 0 && worker != null && worker.isAlive()) {
+				lock.wait();
+			}
+			if (dropped > 0) {
+				log.warn("Dropped " + dropped
+						+ " intermediate reports for reporter module '" + name
+						+ "'");
+				dropped = 0;
+			}
+			e = exception;
+			exception = null;
+		}
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	private void enqueue(Dispatch dispatch) throws Exception {
+		synchronized (lock) {
+			pending++;
+		}
+		switch (overflowPolicy) {
+		case DROP_INTERMEDIATE:
+			// a delta report is only sent once => it must not be dropped
+			if (dispatch.isIntermediate() && !dispatch.isDelta()) {
+				if (!queue.offer(dispatch)) {
+					synchronized (lock) {
+						pending--;
+						dropped++;
+						lock.notifyAll();
+					}
+				}
+				break;
+			}
+			put(dispatch);
+			break;
+		case SPILL_TO_DISK:
+			synchronized (lock) {
+				// keep the order: once reports have been spilled, all further
+				// reports are spilled until the spilled reports have been sent
+				if (!spilledFiles.isEmpty() || !queue.offer(dispatch)) {
+					spill(dispatch);
+				}
+			}
+			break;
+		default:
+			put(dispatch);
+		}
+	}
+
+	/**
+	 * Waits for space in the queue and queues a report
+	 * 
+	 * @param dispatch
+	 * @throws Exception
+	 *             the exception of the thread for sending the reports, if the
+	 *             thread has died
+	 */
+	private void put(Dispatch dispatch) throws Exception {
+		while (!queue.offer(dispatch, PUT_INTERVAL, TimeUnit.MILLISECONDS)) {
+			synchronized (lock) {
+				if (worker == null || !worker.isAlive()) {
+					pending--;
+					lock.notifyAll();
+					if (exception != null) {
+						throw exception;
+					}
+					throw new IllegalStateException(
+							"Sending reports to reporter module '" + name
+									+ "' has been stopped");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes a report to a temporary file (the lock must be held)
+	 * 
+	 * @param dispatch
+	 * @throws IOException
+	 */
+	private void spill(Dispatch dispatch) throws IOException {
+		if (spillDir == null) {
+			spillDir = Files.createTempDirectory("reporter-" + name)
+					.toFile();
+			log.info("Spilling reports for reporter module '" + name
+					+ "' to " + spillDir.getAbsolutePath());
+		}
+		File file = new File(spillDir, (spillCount++) + ".report");
+		try (ObjectOutputStream out = new ObjectOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeObject(dispatch);
+		}
+		spilledFiles.add(file);
+	}
+
+	/**
+	 * Reads the oldest spilled report (the lock must be held)
+	 * 
+	 * @return null, if no spilled report exists
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private Dispatch readSpilled() throws IOException, ClassNotFoundException {
+		File file = spilledFiles.poll();
+		if (file == null) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			return (Dispatch) in.readObject();
+		} finally {
+			file.delete();
+		}
+	}
+
+	private void deleteSpillDir() {
+		synchronized (lock) {
+			if (spillDir != null) {
+				for (File file : spilledFiles) {
+					file.delete();
+				}
+				spilledFiles.clear();
+				spillDir.delete();
+				spillDir = null;
+			}
+		}
+	}
+
+	/**
+	 * Takes the next batch of reports. Queued reports are older than spilled
+	 * reports.
+	 * 
+	 * @return
+	 * @throws Exception
+	 */
+	private List<Dispatch> takeBatch() throws Exception {
+		List<Dispatch> batch = new ArrayList<>(batchSize);
+		queue.drainTo(batch, batchSize);
+		if (batch.isEmpty()) {
+			synchronized (lock) {
+				while (batch.size() < batchSize) {
+					Dispatch dispatch = readSpilled();
+					if (dispatch == null) {
+						break;
+					}
+					batch.add(dispatch);
+				}
+			}
+			if (batch.isEmpty()) {
+				// wait for further reports
+				batch.add(queue.take());
+				queue.drainTo(batch, batchSize - 1);
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Sends a batch of reports. An intermediate full report is skipped if a
+	 * newer full report created from the same test case is part of the batch.
+	 * 
+	 * @param batch
+	 */
+	private void send(List<Dispatch> batch) {
+		Set<Object> reportedTestCases = Collections
+				.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		List<Dispatch> reports = new ArrayList<>(batch.size());
+		// for each report from the newest to the oldest one
+		for (int i = batch.size() - 1; i >= 0; i--) {
+			Dispatch dispatch = batch.get(i);
+			if (dispatch.getReport() != null && !dispatch.isDelta()
+					&& dispatch.getSource() != null) {
+				if (!reportedTestCases.add(dispatch.getSource())
+						&& dispatch.isIntermediate()) {
+					// a newer full report exists
+					continue;
+				}
+			}
+			reports.add(0, dispatch);
+		}
+		for (Dispatch dispatch : reports) {
+			try {
+				if (dispatch.getRecord() != null) {
+					((ReportSink) reporter).report(dispatch.getRecord());
+				} else {
+					reporter.report(dispatch.getReport());
+				}
+			} catch (Exception e) {
+				log.warn("Sending report to reporter module '" + name
+						+ "' failed", e);
+				synchronized (lock) {
+					if (exception == null) {
+						exception = e;
+					}
+				}
+			}
+		}
+	}
+
+	private class Worker implements Runnable {
+		@Override
+		public void run() {
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					List<Dispatch> batch = takeBatch();
+					send(batch);
+					synchronized (lock) {
+						pending -= batch.size();
+						lock.notifyAll();
+					}
+				}
+			} catch (InterruptedException e) {
+				// stopped
+			} catch (Exception e) {
+				log.error("Sending reports to reporter module '" + name
+						+ "' failed", e);
+				synchronized (lock) {
+					if (exception == null) {
+						exception = e;
+					}
+				}
+			} finally {
+				synchronized (lock) {
+					// wake up threads waiting for the queue
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	private static class Dispatch implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		// not serialized: spilled reports are not skipped
+		private final transient Object source;
+		private final String report;
+		private final boolean intermediate;
+		private final boolean delta;
+		private final ReportRecord record;
+
+		Dispatch(Object source, String report, boolean intermediate,
+				boolean delta, ReportRecord record) {
+			this.source = source;
+			this.report = report;
+			this.intermediate = intermediate;
+			this.delta = delta;
+			this.record = record;
+		}
+
+		Object getSource() {
+			return source;
+		}
+
+		String getReport() {
+			return report;
+		}
+
+		boolean isIntermediate() {
+			return intermediate;
+		}
+
+		boolean isDelta() {
+			return delta;
+		}
+
+		ReportRecord getRecord() {
+			return record;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.LoopType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.StepsType;
+import havis.test.suite.testcase.TestCaseType;
+import havis.test.suite.testcase.ThreadGroupType;
+import havis.test.suite.testcase.ThreadsType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates copies of step definitions. Reports are not copied. Definition data
+ * which is not changed while executing the steps (objects with properties,
+ * verifications, imports) is shared with the original.
+ */
+public class DefinitionCopier {
+
+	/**
+	 * Copies a test case definition. The test case report is not copied.
+	 *
+	 * @param testCase
+	 * @return
+	 */
+	public static TestCaseType copyTestCase(TestCaseType testCase) {
+		TestCaseType ret = new TestCaseType();
+		ret.setSteps(createSteps(copySteps(testCase.getSteps().getStep())));
+		return ret;
+	}
+
+	/**
+	 * Copies a list of steps including embedded step lists
+	 *
+	 * @param steps
+	 * @return
+	 */
+	public static List<StepType> copySteps(List<StepType> steps) {
+		List<StepType> ret = new ArrayList<StepType>(steps.size());
+		for (StepType step : steps) {
+			ret.add(copyStep(step));
+		}
+		return ret;
+	}
+
+	/**
+	 * Copies a step including embedded step lists
+	 *
+	 * @param step
+	 * @return
+	 */
+	public static StepType copyStep(StepType step) {
+		StepType ret = new StepType();
+		ret.setName(step.getName());
+		ret.setComment(step.getComment());
+		ret.setThrowExceptions(step.isThrowExceptions());
+		ret.setThrowVerificationErrors(step.isThrowVerificationErrors());
+		if (step.getModule() != null) {
+			ret.setModule(copyModule(step.getModule()));
+		} else if (step.getImport() != null) {
+			// an import does not contain any reports
+			ret.setImport(step.getImport());
+		} else if (step.getLoop() != null) {
+			ret.setLoop(copyLoop(step.getLoop()));
+		} else if (step.getThreads() != null) {
+			ret.setThreads(copyThreads(step.getThreads()));
+		}
+		return ret;
+	}
+
+	/**
+	 * Copies a thread group including embedded step lists
+	 *
+	 * @param threadGroup
+	 * @return
+	 */
+	public static ThreadGroupType copyThreadGroup(ThreadGroupType threadGroup) {
+		ThreadGroupType ret = new ThreadGroupType();
+		ret.setCount(threadGroup.getCount());
+		ret.setRampUpPeriod(threadGroup.getRampUpPeriod());
+		ret.setSteps(createSteps(copySteps(threadGroup.getSteps().getStep())));
+		return ret;
+	}
+
+	/**
+	 * Creates a step list container for a list of steps
+	 *
+	 * @param steps
+	 * @return
+	 */
+	static StepsType createSteps(List<StepType> steps) {
+		StepsType ret = new StepsType();
+		ret.getStep().clear();
+		ret.getStep().addAll(steps);
+		return ret;
+	}
+
+	private static ModuleType copyModule(ModuleType module) {
+		ModuleType ret = new ModuleType();
+		ret.setObject(module.getObject());
+		ret.setVerifications(module.getVerifications());
+		return ret;
+	}
+
+	private static LoopType copyLoop(LoopType loop) {
+		LoopType ret = new LoopType();
+		ret.setCount(loop.getCount());
+		ret.setSteps(createSteps(copySteps(loop.getSteps().getStep())));
+		return ret;
+	}
+
+	private static ThreadsType copyThreads(ThreadsType threads) {
+		ThreadsType ret = new ThreadsType();
+		ret.getThreadGroup().clear();
+		for (ThreadGroupType threadGroup : threads.getThreadGroup()) {
+			ret.getThreadGroup().add(copyThreadGroup(threadGroup));
+		}
+		return ret;
+	}
+}
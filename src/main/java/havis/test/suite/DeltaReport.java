@@ -0,0 +1,286 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.LoopType;
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.ParametersType;
+import havis.test.suite.testcase.StepReportType;
+import havis.test.suite.testcase.StepReportsType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseReportType;
+import havis.test.suite.testcase.TestCaseType;
+import havis.test.suite.testcase.ThreadGroupType;
+import havis.test.suite.testcase.ThreadsType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates intermediate reports which only contain the reports added since the
+ * last intermediate report. The last sent report of each report list is
+ * remembered by its identity, so the pass numbers of reports may change (see
+ * {@link #moved(List, List)}). Reports are added to the end of a list and
+ * removed from its beginning (see {@link ReportStream#trim(List)}), so the
+ * new reports are found by searching the last sent report from the end of the
+ * list. The step definitions are always contained.
+ * 
+ * One instance is shared by the threads of a test case.
+ */
+public class DeltaReport {
+
+	/**
+	 * report list -> sent reports of the list
+	 */
+	private final Map<List<?>, Sent> sentReports = new IdentityHashMap<>();
+
+	/**
+	 * Creates a report with the new reports of a test case
+	 * 
+	 * @param testCase
+	 * @return
+	 */
+	public synchronized TestCaseType create(TestCaseType testCase) {
+		TestCaseType ret = new TestCaseType();
+		if (testCase.getReport() != null) {
+			ret.setReport(copyReport(testCase.getReport()));
+		}
+		ret.setSteps(DefinitionCopier.createSteps(copySteps(testCase
+				.getSteps().getStep())));
+		return ret;
+	}
+
+	/**
+	 * Must be called before the reports of a finished thread are moved from
+	 * the copy of the step list to the step list of its thread group (see
+	 * {@link ThreadGroups#moveReports(List, List)}). The sent reports are
+	 * remembered for the destination lists and the report lists of the copy
+	 * are released.
+	 * 
+	 * @param sourceSteps
+	 *            copy of the step list
+	 * @param destSteps
+	 *            step list of the thread group
+	 */
+	public synchronized void moved(List<StepType> sourceSteps,
+			List<StepType> destSteps) {
+		// for each source step
+		for (int i = 0; i < sourceSteps.size(); i++) {
+			StepType sourceStep = sourceSteps.get(i);
+			StepType destStep = destSteps.get(i);
+			if (sourceStep.getReports() != null) {
+				if (destStep.getReports() == null) {
+					destStep.setReports(new StepReportsType());
+				}
+				moveSent(sourceStep.getReports().getReport(), destStep
+						.getReports().getReport());
+			}
+			if (sourceStep.getModule() != null) {
+				ModuleType sourceModule = sourceStep.getModule();
+				if (sourceModule.getReports() != null) {
+					ModuleType destModule = destStep.getModule();
+					if (destModule.getReports() == null) {
+						destModule.setReports(new ModuleReportsType());
+					}
+					moveSent(sourceModule.getReports().getReport(), destModule
+							.getReports().getReport());
+				}
+			} else if (sourceStep.getLoop() != null) {
+				// recursive call
+				moved(sourceStep.getLoop().getSteps().getStep(), destStep
+						.getLoop().getSteps().getStep());
+			} else if (sourceStep.getThreads() != null) {
+				// for each thread group
+				for (int j = 0; j < sourceStep.getThreads().getThreadGroup()
+						.size(); j++) {
+					// recursive call
+					moved(sourceStep.getThreads().getThreadGroup().get(j)
+							.getSteps().getStep(), destStep.getThreads()
+							.getThreadGroup().get(j).getSteps().getStep());
+				}
+			}
+		}
+	}
+
+	private void moveSent(List<?> sourceReports, List<?> destReports) {
+		Sent sent = sentReports.remove(sourceReports);
+		if (sent == null) {
+			// the source reports are new reports at the end of the
+			// destination list
+			return;
+		}
+		// the new reports of the destination list are followed by the sent
+		// reports of the source list => remember them as pending reports
+		Sent destSent = sentReports.get(destReports);
+		List<Object> pending = new ArrayList<>();
+		int start = getLastSentIndex(destReports, destSent) + 1;
+		if (start > 0 && destSent.pending != null) {
+			pending.addAll(destSent.pending);
+		}
+		pending.addAll(destReports.subList(start, destReports.size()));
+		if (sent.pending != null) {
+			pending.addAll(sent.pending);
+		}
+		sentReports.put(destReports, new Sent(sent.last,
+				pending.isEmpty() ? null : pending));
+	}
+
+	/**
+	 * Copies the test case report and marks it as delta report
+	 * 
+	 * @param report
+	 * @return
+	 */
+	private static TestCaseReportType copyReport(TestCaseReportType report) {
+		TestCaseReportType ret = new TestCaseReportType();
+		ret.setName(report.getName());
+		ret.setParentStepId(report.getParentStepId());
+		ret.setStartTime(report.getStartTime());
+		ret.setEndTime(report.getEndTime());
+		ParametersType parameters = new ParametersType();
+		parameters.getParameter().clear();
+		if (report.getParameters() != null) {
+			parameters.getParameter().addAll(
+					report.getParameters().getParameter());
+		}
+		parameters.getParameter().add(
+				ReportProperties.createEntry("reportType", "delta"));
+		ret.setParameters(parameters);
+		return ret;
+	}
+
+	private List<StepType> copySteps(List<StepType> steps) {
+		List<StepType> ret = new ArrayList<StepType>(steps.size());
+		for (StepType step : steps) {
+			ret.add(copyStep(step));
+		}
+		return ret;
+	}
+
+	private StepType copyStep(StepType step) {
+		StepType ret = new StepType();
+		ret.setName(step.getName());
+		ret.setComment(step.getComment());
+		ret.setThrowExceptions(step.isThrowExceptions());
+		ret.setThrowVerificationErrors(step.isThrowVerificationErrors());
+		if (step.getReports() != null) {
+			List<StepReportType> reports = getNewReports(step.getReports()
+					.getReport());
+			if (reports.size() > 0) {
+				ret.setReports(new StepReportsType());
+				ret.getReports().getReport().addAll(reports);
+			}
+		}
+		if (step.getModule() != null) {
+			ModuleType module = step.getModule();
+			ModuleType moduleCopy = new ModuleType();
+			moduleCopy.setObject(module.getObject());
+			moduleCopy.setVerifications(module.getVerifications());
+			if (module.getReports() != null) {
+				List<ModuleReportType> reports = getNewReports(module
+						.getReports().getReport());
+				if (reports.size() > 0) {
+					moduleCopy.setReports(new ModuleReportsType());
+					moduleCopy.getReports().getReport().addAll(reports);
+				}
+			}
+			ret.setModule(moduleCopy);
+		} else if (step.getImport() != null) {
+			// an import does not contain any reports
+			ret.setImport(step.getImport());
+		} else if (step.getLoop() != null) {
+			LoopType loopCopy = new LoopType();
+			loopCopy.setCount(step.getLoop().getCount());
+			loopCopy.setSteps(DefinitionCopier.createSteps(copySteps(step
+					.getLoop().getSteps().getStep())));
+			ret.setLoop(loopCopy);
+		} else if (step.getThreads() != null) {
+			ThreadsType threadsCopy = new ThreadsType();
+			threadsCopy.getThreadGroup().clear();
+			for (ThreadGroupType threadGroup : step.getThreads()
+					.getThreadGroup()) {
+				ThreadGroupType threadGroupCopy = new ThreadGroupType();
+				threadGroupCopy.setCount(threadGroup.getCount());
+				threadGroupCopy.setRampUpPeriod(threadGroup.getRampUpPeriod());
+				threadGroupCopy.setSteps(DefinitionCopier
+						.createSteps(copySteps(threadGroup.getSteps()
+								.getStep())));
+				threadsCopy.getThreadGroup().add(threadGroupCopy);
+			}
+			ret.setThreads(threadsCopy);
+		}
+		return ret;
+	}
+
+	/**
+	 * Gets the reports of a list which have been added since the last call.
+	 * Removed reports are forgotten.
+	 * 
+	 * @param reports
+	 * @return
+	 */
+	private <T> List<T> getNewReports(List<T> reports) {
+		List<T> ret = new ArrayList<T>();
+		if (reports.isEmpty()) {
+			sentReports.remove(reports);
+			return ret;
+		}
+		Sent sent = sentReports.get(reports);
+		int start = getLastSentIndex(reports, sent) + 1;
+		if (start > 0 && sent.pending != null) {
+			// pending reports which are still part of the list (they are
+			// located before the last sent report)
+			int j = sent.pending.size() - 1;
+			for (int i = start - 2; i >= 0 && j >= 0; i--) {
+				if (reports.get(i) == sent.pending.get(j)) {
+					ret.add(reports.get(i));
+					j--;
+				}
+			}
+			Collections.reverse(ret);
+		}
+		ret.addAll(reports.subList(start, reports.size()));
+		// all reports of the list have been sent after this call
+		sentReports.put(reports, new Sent(reports.get(reports.size() - 1),
+				null));
+		return ret;
+	}
+
+	/**
+	 * Searches the last sent report of a list from the end of the list
+	 * 
+	 * @param reports
+	 * @param sent
+	 * @return index of the last sent report or -1, if no report of the list
+	 *         has been sent or the last sent report has been removed
+	 */
+	private static int getLastSentIndex(List<?> reports, Sent sent) {
+		if (sent == null) {
+			return -1;
+		}
+		int i = reports.size() - 1;
+		while (i >= 0 && reports.get(i) != sent.last) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * The sent reports of a list
+	 */
+	private static class Sent {
+		// last sent report
+		final Object last;
+		// reports before the last sent report which have not been sent (null
+		// if all reports before the last sent report have been sent)
+		final List<Object> pending;
+
+		Sent(Object last, List<Object> pending) {
+			this.last = last;
+			this.pending = pending;
+		}
+	}
+}
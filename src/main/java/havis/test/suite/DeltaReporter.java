@@ -0,0 +1,18 @@
+package havis.test.suite;
+
+/**
+ * Capability of a reporter module. A reporter which implements this interface
+ * can receive intermediate reports which only contain the reports added since
+ * the last intermediate report of the test case. The final report of a test
+ * case always contains all reports.
+ */
+public interface DeltaReporter {
+
+	/**
+	 * Returns whether the intermediate reports shall only contain the new
+	 * reports
+	 * 
+	 * @return
+	 */
+	boolean isDeltaReport();
+}
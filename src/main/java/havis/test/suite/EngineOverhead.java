@@ -0,0 +1,154 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.EntryType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sums up the phase durations of all step module executions of a test case.
+ * The execution is spent by the step module (see
+ * {@link EnginePhase#isModule()}). All other phases are counted as overhead of
+ * the test automat. The part of the overhead which is spent by the UI
+ * (preparation and finishing) is reported separately.
+ */
+public class EngineOverhead {
+
+	private final AtomicLongArray totals = new AtomicLongArray(
+			EnginePhase.values().length);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Adds the phase durations of a step module execution
+	 *
+	 * @param phases
+	 */
+	public void add(PhaseTimes phases) {
+		for (EnginePhase phase : EnginePhase.values()) {
+			totals.addAndGet(phase.ordinal(), phases.get(phase));
+		}
+		count.incrementAndGet();
+		if (phases.getFailed() != null) {
+			failures.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the count of added step module executions
+	 *
+	 * @return
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Returns the count of added step module executions with a failed phase
+	 *
+	 * @return
+	 */
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * Returns the total duration of a phase in ns
+	 *
+	 * @param phase
+	 * @return
+	 */
+	public long getTotal(EnginePhase phase) {
+		return totals.get(phase.ordinal());
+	}
+
+	/**
+	 * Returns the total duration of all phases of the test automat in ns
+	 *
+	 * @return
+	 */
+	public long getOverhead() {
+		return getTotal(false);
+	}
+
+	/**
+	 * Returns the total duration of all phases of the step modules in ns
+	 *
+	 * @return
+	 */
+	public long getModuleTime() {
+		return getTotal(true);
+	}
+
+	/**
+	 * Returns the total duration of the preparation and finishing by the UI
+	 * in ns. The duration is part of the overhead.
+	 *
+	 * @return
+	 */
+	public long getUiTime() {
+		return getTotal(EnginePhase.PREPARE) + getTotal(EnginePhase.FINISH);
+	}
+
+	private long getTotal(boolean module) {
+		long ret = 0;
+		for (EnginePhase phase : EnginePhase.values()) {
+			if (phase.isModule() == module) {
+				ret += getTotal(phase);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the share of the overhead in the total duration of all phases
+	 *
+	 * @return value between 0 and 1
+	 */
+	public double getOverheadShare() {
+		long overhead = getOverhead();
+		long total = overhead + getModuleTime();
+		return total == 0 ? 0 : (double) overhead / total;
+	}
+
+	/**
+	 * Creates report parameters with the summary
+	 * ("testautomat.overhead": count of executions, count of failed executions,
+	 * overhead, part of the overhead spent by the UI, time of the step modules
+	 * and share of the overhead) and the
+	 * total and mean duration of each phase
+	 * ("testautomat.overhead.&lt;phase&gt;"). The durations are given in ms.
+	 *
+	 * @return
+	 */
+	public List<EntryType> createEntries() {
+		List<EntryType> ret = new ArrayList<>();
+		long n = getCount();
+		ret.add(ReportProperties.createEntry(
+				"overhead",
+				"count="
+						+ n
+						+ ";failures="
+						+ getFailures()
+						+ ";overhead="
+						+ ReportProperties.formatMillis(getOverhead())
+						+ ";ui="
+						+ ReportProperties.formatMillis(getUiTime())
+						+ ";module="
+						+ ReportProperties.formatMillis(getModuleTime())
+						+ ";share="
+						+ String.format(Locale.ENGLISH, "%.3f",
+								getOverheadShare())));
+		for (EnginePhase phase : EnginePhase.values()) {
+			long total = getTotal(phase);
+			ret.add(ReportProperties.createEntry(
+					"overhead." + phase.getReportName(),
+					"total=" + ReportProperties.formatMillis(total) + ";mean="
+							+ ReportProperties.formatMillis(n == 0 ? 0 : total / n)));
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,63 @@
+package havis.test.suite;
+
+import java.util.Locale;
+
+/**
+ * Phases of the execution of a step module in the order of their execution
+ * (see {@link PhaseTimes})
+ */
+public enum EnginePhase {
+	/**
+	 * Lookup of the step module
+	 */
+	LOOKUP(false),
+	/**
+	 * Conversion of the step properties
+	 */
+	CONVERT(false),
+	/**
+	 * Preparation of the step module by the UI (UI.prepareExecute)
+	 */
+	PREPARE(false),
+	/**
+	 * Execution of the step module
+	 */
+	EXECUTE(true),
+	/**
+	 * Verification of the result
+	 */
+	VERIFY(false),
+	/**
+	 * Finishing of the step module by the UI (UI.finishExec)
+	 */
+	FINISH(false),
+	/**
+	 * Creation of the module report
+	 */
+	REPORT(false);
+
+	private final boolean module;
+
+	private EnginePhase(boolean module) {
+		this.module = module;
+	}
+
+	/**
+	 * Returns whether the time of the phase is spent by the step module
+	 * (execution) and not by the test automat
+	 *
+	 * @return
+	 */
+	public boolean isModule() {
+		return module;
+	}
+
+	/**
+	 * Returns the name which is used in reports
+	 *
+	 * @return
+	 */
+	public String getReportName() {
+		return name().toLowerCase(Locale.ENGLISH);
+	}
+}
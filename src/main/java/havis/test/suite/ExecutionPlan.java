@@ -0,0 +1,168 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.ThreadGroupType;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable execution plan of a step list. The plan is compiled once from the
+ * step definitions and contains all data which does not change while the
+ * steps are executed (kind of each step, log paths, resolved home directories
+ * of step modules, plans of embedded step lists). A plan can be used for all
+ * copies of the step list (see {@link DefinitionCopier}) because the steps are
+ * addressed by their index.
+ */
+public class ExecutionPlan {
+
+	/**
+	 * Kind of a step
+	 */
+	public enum Kind {
+		MODULE, IMPORT, LOOP, THREADS, NONE
+	}
+
+	/**
+	 * Plan of a single step
+	 */
+	public static class StepPlan {
+		private final Kind kind;
+		private final String logPath;
+		private final String moduleHome;
+		private final ExecutionPlan loopPlan;
+		private final List<ExecutionPlan> threadGroupPlans;
+
+		StepPlan(Kind kind, String logPath, String moduleHome,
+				ExecutionPlan loopPlan, List<ExecutionPlan> threadGroupPlans) {
+			this.kind = kind;
+			this.logPath = logPath;
+			this.moduleHome = moduleHome;
+			this.loopPlan = loopPlan;
+			this.threadGroupPlans = threadGroupPlans;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * Returns the path to the step (used for logging)
+		 *
+		 * @return
+		 */
+		public String getLogPath() {
+			return logPath;
+		}
+
+		/**
+		 * Returns the home directory of the step module (null if the step is
+		 * not a module or the objectId is unknown)
+		 *
+		 * @return
+		 */
+		public String getModuleHome() {
+			return moduleHome;
+		}
+
+		/**
+		 * Returns the plan of the step list of a loop
+		 *
+		 * @return
+		 */
+		public ExecutionPlan getLoopPlan() {
+			return loopPlan;
+		}
+
+		/**
+		 * Returns the plans of the step lists of thread groups
+		 *
+		 * @return
+		 */
+		public List<ExecutionPlan> getThreadGroupPlans() {
+			return threadGroupPlans;
+		}
+	}
+
+	private final List<StepPlan> steps;
+
+	private ExecutionPlan(List<StepPlan> steps) {
+		this.steps = Collections.unmodifiableList(steps);
+	}
+
+	/**
+	 * Compiles a step list including the embedded step lists of loops and
+	 * thread groups. Imported test cases are compiled when they are executed.
+	 *
+	 * @param steps
+	 * @param logBasePath
+	 *            base path to the step list (used for logging)
+	 * @param objectIdFiles
+	 *            objectId -&gt; deployment descriptor of the step module
+	 * @return
+	 */
+	public static ExecutionPlan compile(List<StepType> steps,
+			String logBasePath, Map<String, String> objectIdFiles) {
+		List<StepPlan> ret = new ArrayList<>(steps.size());
+		for (StepType step : steps) {
+			String logPath = logBasePath + "->" + step.getName();
+			if (step.getModule() != null) {
+				String fileName = objectIdFiles == null ? null : objectIdFiles
+						.get(step.getModule().getObject().getObjectId());
+				ret.add(new StepPlan(Kind.MODULE, logPath,
+						fileName == null ? null : Paths.get(fileName)
+								.getParent().toString(), null, null));
+			} else if (step.getImport() != null) {
+				ret.add(new StepPlan(Kind.IMPORT, logPath, null, null, null));
+			} else if (step.getLoop() != null) {
+				ret.add(new StepPlan(Kind.LOOP, logPath, null, compile(step
+						.getLoop().getSteps().getStep(), logPath,
+						objectIdFiles), null));
+			} else if (step.getThreads() != null) {
+				List<ExecutionPlan> threadGroupPlans = new ArrayList<>();
+				for (ThreadGroupType threadGroup : step.getThreads()
+						.getThreadGroup()) {
+					threadGroupPlans.add(compile(threadGroup.getSteps()
+							.getStep(), logPath, objectIdFiles));
+				}
+				ret.add(new StepPlan(Kind.THREADS, logPath, null, null,
+						Collections.unmodifiableList(threadGroupPlans)));
+			} else {
+				ret.add(new StepPlan(Kind.NONE, logPath, null, null, null));
+			}
+		}
+		return new ExecutionPlan(ret);
+	}
+
+	/**
+	 * Returns the count of steps
+	 *
+	 * @return
+	 */
+	public int size() {
+		return steps.size();
+	}
+
+	/**
+	 * Returns the plan of a step
+	 *
+	 * @param index
+	 * @return
+	 */
+	public StepPlan get(int index) {
+		return steps.get(index);
+	}
+
+	/**
+	 * Returns whether the plan can be used for a step list
+	 *
+	 * @param steps
+	 * @return
+	 */
+	public boolean matches(List<StepType> steps) {
+		return steps.size() == this.steps.size();
+	}
+}
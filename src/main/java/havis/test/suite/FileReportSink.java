@@ -0,0 +1,76 @@
+package havis.test.suite;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Writes report records to a file. The records are serialized one by one, so
+ * the memory usage does not depend on the count of records.
+ */
+public class FileReportSink implements ReportSink, Closeable {
+
+	private final File file;
+	private final ObjectOutputStream out;
+
+	/**
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public FileReportSink(File file) throws IOException {
+		this.file = file;
+		out = new ObjectOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	@Override
+	public synchronized void report(ReportRecord record) throws IOException {
+		out.writeObject(record);
+		// do not keep references to the written objects
+		out.reset();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Reads the report records from a file and rebuilds the test case with all
+	 * reports
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public static ReportReplay replay(File file) throws IOException,
+			ClassNotFoundException {
+		ReportReplay replay = new ReportReplay();
+		try (ObjectInputStream in = new ObjectInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			while (true) {
+				ReportRecord record;
+				try {
+					record = (ReportRecord) in.readObject();
+				} catch (EOFException e) {
+					break;
+				}
+				replay.add(record);
+			}
+		}
+		return replay;
+	}
+}
@@ -0,0 +1,124 @@
+package havis.test.suite;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies in nanoseconds. The values are counted in
+ * buckets with a relative width of at most 1/64, so a percentile is precise to
+ * about 1.6 %. Any count of threads can record values concurrently.
+ */
+public class LatencyHistogram {
+	// count of sub buckets per power of two
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// values below this limit are counted exactly
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+	private static final int BUCKETS = LINEAR_LIMIT
+			+ (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+	private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * Records the latency of an execution
+	 * 
+	 * @param startTime
+	 *            start time in ns (see {@link System#nanoTime()})
+	 * @param endTime
+	 *            end time in ns
+	 */
+	public void record(long startTime, long endTime) {
+		long latency = Math.max(0, endTime - startTime);
+		counts.incrementAndGet(getIndex(latency));
+		count.incrementAndGet();
+		long current;
+		while (latency > (current = max.get())
+				&& !max.compareAndSet(current, latency)) {
+		}
+		while (startTime < (current = firstStart.get())
+				&& !firstStart.compareAndSet(current, startTime)) {
+		}
+		while (endTime > (current = lastEnd.get())
+				&& !lastEnd.compareAndSet(current, endTime)) {
+		}
+	}
+
+	/**
+	 * Returns the count of recorded latencies
+	 * 
+	 * @return
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Returns the max. latency in ns
+	 * 
+	 * @return
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the latency in ns which is not exceeded by a percentage of the
+	 * recorded latencies. The result is the upper limit of the bucket
+	 * containing the percentile but not greater than the max. latency.
+	 * 
+	 * @param percentile
+	 *            0 - 100
+	 * @return
+	 */
+	public long getPercentile(double percentile) {
+		long total = count.get();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long cumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulated += counts.get(i);
+			if (cumulated >= rank) {
+				return Math.min(getUpperLimit(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Returns the count of executions per second between the first start and
+	 * the last end
+	 * 
+	 * @return
+	 */
+	public double getThroughput() {
+		long duration = lastEnd.get() - firstStart.get();
+		if (count.get() == 0 || duration <= 0) {
+			return 0;
+		}
+		return count.get() * 1e9 / duration;
+	}
+
+	static int getIndex(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS
+				+ (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	static long getUpperLimit(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
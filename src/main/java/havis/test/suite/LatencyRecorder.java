@@ -0,0 +1,109 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.EntryType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Records the latencies of the step modules of a test case. A histogram is
+ * kept per step and objectId; the executions of a step by all threads of a
+ * thread group and all passes of a loop are recorded in the same histogram.
+ */
+public class LatencyRecorder {
+
+	/**
+	 * run and thread index of a thread group in a path
+	 */
+	private static final Pattern THREAD = Pattern.compile("#\\d+\\.\\d+");
+
+	/**
+	 * step path + ' ' + objectId -> histogram
+	 */
+	private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the latency of a step module
+	 * 
+	 * @param stepPath
+	 *            path to the step without the run and thread indices of thread
+	 *            groups (see {@link #getStepPath(String)})
+	 * @param objectId
+	 * @param startTime
+	 *            start time in ns (see {@link TestCaseClock#nanoTime()})
+	 * @param endTime
+	 *            end time in ns
+	 */
+	public void record(String stepPath, String objectId, long startTime,
+			long endTime) {
+		String key = stepPath + " " + objectId;
+		LatencyHistogram histogram = histograms.get(key);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram existing = histograms.putIfAbsent(key, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		histogram.record(startTime, endTime);
+	}
+
+	/**
+	 * Returns the histograms
+	 * 
+	 * @return step path + ' ' + objectId -> histogram
+	 */
+	public Map<String, LatencyHistogram> getHistograms() {
+		return histograms;
+	}
+
+	/**
+	 * Creates report parameters with the percentiles, the max. latency and
+	 * the throughput of each step. The name of a parameter is
+	 * "testautomat.latency.&lt;objectId&gt;@&lt;step path&gt;", the latencies
+	 * are given in ms.
+	 * 
+	 * @return
+	 */
+	public List<EntryType> createEntries() {
+		List<EntryType> ret = new ArrayList<>();
+		for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(
+				histograms).entrySet()) {
+			String[] key = entry.getKey().split(" ", 2);
+			LatencyHistogram histogram = entry.getValue();
+			String value = "count=" + histogram.getCount() + ";p50="
+					+ ReportProperties.formatMillis(histogram.getPercentile(50))
+					+ ";p95="
+					+ ReportProperties.formatMillis(histogram.getPercentile(95))
+					+ ";p99="
+					+ ReportProperties.formatMillis(histogram.getPercentile(99))
+					+ ";max="
+					+ ReportProperties.formatMillis(histogram.getMax())
+					+ ";throughput="
+					+ String.format(Locale.ENGLISH, "%.3f",
+							histogram.getThroughput());
+			ret.add(ReportProperties.createEntry("latency." + key[1] + "@"
+					+ key[0], value));
+		}
+		return ret;
+	}
+
+	/**
+	 * Removes the run and thread indices of thread groups from a path, so
+	 * the executions of all threads of a thread group have the same path
+	 * 
+	 * @param path
+	 *            path to the step (see {@link ReportStream#getPath(String, int)})
+	 * @return
+	 */
+	public static String getStepPath(String path) {
+		return path.indexOf('#') < 0 ? path : THREAD.matcher(path)
+				.replaceAll("");
+	}
+}
@@ -25,6 +25,25 @@ public class Loop {
 	public void setReporters(List<Reporter> reporters) {
 		this.reporters = reporters;
 	}
+	private String path = "";
+	private ExecutionPlan plan;
+	public String getPath() {
+		return path;
+	}
+	/**
+	 * Sets the path to the loop step (used for streaming reports)
+	 * @param path
+	 */
+	public void setPath(String path) {
+		this.path = path;
+	}
+	/**
+	 * Sets the execution plan of the loop steps (compiled at the first pass if not set)
+	 * @param plan
+	 */
+	public void setPlan(ExecutionPlan plan) {
+		this.plan = plan;
+	}
 	
 	/**
 	 * 
@@ -51,6 +70,8 @@ public class Loop {
 		log.info("Executing loop (count="+ loop.getCount() +")");
 		Steps loopSteps = new Steps(testAutomatDTO, testCaseDTO, loop.getSteps().getStep(), logBasePath);
 		loopSteps.setReporters(reporters);
+		loopSteps.setPath(path);
+		loopSteps.setPlan(plan);
 		for (int i=0; i<loop.getCount(); i++)
 		{
 			loopSteps.run();
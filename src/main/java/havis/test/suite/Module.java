@@ -24,10 +24,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.datatype.DatatypeFactory;
-import javax.xml.datatype.XMLGregorianCalendar;
-
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +34,8 @@ public class Module {
 	private final TestCaseDTO testCaseDTO;
 	private final String stepId;
 	private final ModuleType module;
+	private String latencyPath = "";
+	private String moduleHome;
 
 	public Module(TestAutomatDTO testAutomatDTO, TestCaseDTO testCaseDTO,
 			String stepId, ModuleType module) {
@@ -47,6 +45,35 @@ public class Module {
 		this.module = module;
 	}
 
+	public String getLatencyPath() {
+		return latencyPath;
+	}
+
+	/**
+	 * Sets the path to the step which is used for recording the latencies
+	 * (see {@link LatencyRecorder#getStepPath(String)})
+	 * 
+	 * @param latencyPath
+	 */
+	public void setLatencyPath(String latencyPath) {
+		this.latencyPath = latencyPath;
+	}
+
+	public String getModuleHome() {
+		return moduleHome;
+	}
+
+	/**
+	 * Sets the home directory of the step module which has been resolved by
+	 * an {@link ExecutionPlan}. If it is not set then it is resolved from the
+	 * objectId.
+	 * 
+	 * @param moduleHome
+	 */
+	public void setModuleHome(String moduleHome) {
+		this.moduleHome = moduleHome;
+	}
+
 	/**
 	 * Executes a step module and returns the result
 	 * 
@@ -101,34 +128,56 @@ public class Module {
 	 */
 	public void run(int passNo) throws Throwable {
 		Map<String, Object> sourceProperties = new HashMap<String, Object>();
-		XMLGregorianCalendar startTime = null;
-		XMLGregorianCalendar endTime = null;
+		TestCaseClock clock = testCaseDTO.getClock();
+		// times of the execution (converted when the report is created)
+		Long startTime = null;
+		Long endTime = null;
 
 		String result = "";
 		List<ReportVerificationType> verificationReports = new ArrayList<ReportVerificationType>();
 		List<Throwable> exceptions = new ArrayList<>();
 		Throwable resultException = null;
+		StepPool stepPool = testAutomatDTO.getStepPool();
+		Step step = null;
+		// durations of the execution phases (null if not measured)
+		PhaseTimes phases = testCaseDTO.getOverhead() != null ? new PhaseTimes(
+				clock) : null;
 
 		try {
 			// load object
 			String objectId = module.getObject().getObjectId();
-			String fileName = null;
+			String moduleHome = this.moduleHome;
 
-			if (!testAutomatDTO.getObjectIdFiles().containsKey(objectId)) {
-				throw new Exception("The step module with objectId '"
-						+ objectId + "' cannot be found");
-			}
+			if (moduleHome == null) {
+				if (!testAutomatDTO.getObjectIdFiles().containsKey(objectId)) {
+					throw new Exception("The step module with objectId '"
+							+ objectId + "' cannot be found");
+				}
 
-			fileName = testAutomatDTO.getObjectIdFiles().get(objectId);
-			String moduleHome = Paths.get(fileName).getParent().toString();
-			Step step = (Step) testAutomatDTO.getObjContext().getBean(objectId);
+				String fileName = testAutomatDTO.getObjectIdFiles().get(
+						objectId);
+				moduleHome = Paths.get(fileName).getParent().toString();
+			}
+			if (stepPool != null) {
+				step = stepPool.borrow(testAutomatDTO.getObjContext(),
+						objectId);
+			} else {
+				step = (Step) testAutomatDTO.getObjContext().getBean(objectId);
+			}
+			if (phases != null) {
+				phases.end(EnginePhase.LOOKUP);
+			}
 
 			Map<String, Object> stepProperties = new HashMap<String, Object>();
 			// prepare step and get source properties
 			if (module.getObject().getProperties() != null) {
 				stepProperties = new XMLTypeConverter().convert(module
 						.getObject().getProperties().getProperty(),
-						testAutomatDTO.getGlobalContext());
+						testAutomatDTO.getGlobalContext(),
+						testCaseDTO.getPropertiesCache());
+			}
+			if (phases != null) {
+				phases.end(EnginePhase.CONVERT);
 			}
 			TestCaseInfo tci = new TestCaseInfo();
 			tci.setHome(testCaseDTO.getHome());
@@ -139,14 +188,25 @@ public class Module {
 
 			try {
 				// execute step module
-				startTime = DatatypeFactory.newInstance().newXMLGregorianCalendar(new DateTime().toGregorianCalendar());
+				startTime = clock.nanoTime();
+				if (phases != null) {
+					phases.end(EnginePhase.PREPARE, startTime);
+				}
 				result = execute(step, stepProperties);
-				endTime = DatatypeFactory.newInstance().newXMLGregorianCalendar(new DateTime().toGregorianCalendar());;
+				endTime = clock.nanoTime();
+				if (phases != null) {
+					phases.end(EnginePhase.EXECUTE, endTime);
+				}
 				try {
 					// verify result
-					Verifier verifier = new Verifier(
-							testAutomatDTO.getObjContext(),
-							testCaseDTO.getHome());
+					Verifier verifier;
+					if (testCaseDTO.getResources() != null) {
+						verifier = new Verifier(testCaseDTO.getResources(),
+								testCaseDTO.getHome());
+					} else {
+						verifier = new Verifier(testAutomatDTO.getObjContext(),
+								testCaseDTO.getHome());
+					}
 					List<VerificationType> lst = new ArrayList<VerificationType>();
 					if (module.getVerifications() != null) {
 						lst = module.getVerifications().getVerification();
@@ -159,7 +219,10 @@ public class Module {
 				}
 			} // result exception while execution
 			catch (Throwable t) {
-				endTime = DatatypeFactory.newInstance().newXMLGregorianCalendar(new DateTime().toGregorianCalendar());
+				endTime = clock.nanoTime();
+				if (phases != null) {
+					phases.end(EnginePhase.EXECUTE, endTime);
+				}
 				resultException = t;
 			}
 			// finish execution
@@ -171,12 +234,26 @@ public class Module {
 				reports = new XMLTypeConverter().convert(verificationReports,
 						module.getVerifications().getVerification());
 			}
+			if (phases != null) {
+				phases.end(EnginePhase.VERIFY);
+			}
 
 			testAutomatDTO.getUi().finishExec(step, stepProperties, reports);
+			if (phases != null) {
+				phases.end(EnginePhase.FINISH);
+			}
 
 		} catch (Throwable t)// preparation or finishing failed
 		{
+			if (phases != null) {
+				phases.fail();
+			}
 			exceptions.add(t);
+		} finally {
+			if (stepPool != null && step != null) {
+				stepPool.release(testAutomatDTO.getObjContext(), module
+						.getObject().getObjectId(), step);
+			}
 		}
 
 		// add report data to test case
@@ -194,13 +271,18 @@ public class Module {
 		List<ModuleReportType> modLst = module.getReports().getReport();
 		ModuleReportType modRep = new ModuleReportType();
 
+		if (startTime != null && endTime != null
+				&& testCaseDTO.getLatencies() != null) {
+			testCaseDTO.getLatencies().record(latencyPath,
+					module.getObject().getObjectId(), startTime, endTime);
+		}
 		if (startTime != null) {
-			modRep.setStartTime(startTime);
+			modRep.setStartTime(clock.toCalendar(startTime));
 		} else {
 			modRep.setStartTime(null);
 		}
 		if (endTime != null) {
-			modRep.setEndTime(endTime);
+			modRep.setEndTime(clock.toCalendar(endTime));
 		} else {
 			modRep.setEndTime(null);
 		}
@@ -233,6 +315,11 @@ public class Module {
 			modRep.setVerifications(repVerType);
 		}
 		modRep.setPassNo(passNo);
+		if (phases != null) {
+			phases.end(EnginePhase.REPORT);
+			ReportProperties.add(modRep, "phases", phases.format());
+			testCaseDTO.getOverhead().add(phases);
+		}
 		modLst.add(modRep);
 
 		// exceptions have a higher priority than verification errors => handle
@@ -260,6 +347,7 @@ public class Module {
 		// create exception from first verification error
 		Exception verificationException = createVerificationException(verificationReports);
 		if (verificationException != null) {
+			TestautomatMetrics.getInstance().verificationFailed();
 			throw verificationException;
 		}
 
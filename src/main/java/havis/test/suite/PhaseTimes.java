@@ -0,0 +1,102 @@
+package havis.test.suite;
+
+/**
+ * Measures the durations of the phases of one execution of a step module.
+ * The end of a phase is the start of the next phase. If the execution fails,
+ * the running phase is ended with {@link #fail()} and the following phases
+ * are skipped. An instance must not be used by multiple threads.
+ */
+public class PhaseTimes {
+
+	private final TestCaseClock clock;
+	private final long[] durations = new long[EnginePhase.values().length];
+	private long lastTime;
+	// last ended phase
+	private EnginePhase lastPhase;
+	// phase which has failed
+	private EnginePhase failed;
+
+	/**
+	 * Starts the measurement
+	 *
+	 * @param clock
+	 */
+	public PhaseTimes(TestCaseClock clock) {
+		this.clock = clock;
+		lastTime = clock.nanoTime();
+	}
+
+	/**
+	 * Ends a phase now
+	 *
+	 * @param phase
+	 */
+	public void end(EnginePhase phase) {
+		end(phase, clock.nanoTime());
+	}
+
+	/**
+	 * Ends a phase at a time which has already been measured
+	 *
+	 * @param phase
+	 * @param time
+	 *            time in ns (see {@link TestCaseClock#nanoTime()})
+	 */
+	public void end(EnginePhase phase, long time) {
+		durations[phase.ordinal()] += time - lastTime;
+		lastTime = time;
+		lastPhase = phase;
+	}
+
+	/**
+	 * Ends the running phase after a failure. The running phase is the phase
+	 * following the last ended phase.
+	 */
+	public void fail() {
+		EnginePhase[] phases = EnginePhase.values();
+		failed = lastPhase == null ? phases[0] : phases[Math.min(
+				lastPhase.ordinal() + 1, phases.length - 1)];
+		end(failed);
+	}
+
+	/**
+	 * Returns the phase which has failed
+	 *
+	 * @return the phase or null if no phase has failed
+	 */
+	public EnginePhase getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Returns the duration of a phase in ns
+	 *
+	 * @param phase
+	 * @return
+	 */
+	public long get(EnginePhase phase) {
+		return durations[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the durations of all phases in ms, e.g.
+	 * "lookup=0.012;convert=0.02;prepare=0.034;execute=5.1;verify=0.3;finish=0.01;report=0.02".
+	 * The failed phase is appended, e.g. ";failed=prepare".
+	 *
+	 * @return
+	 */
+	public String format() {
+		StringBuilder ret = new StringBuilder();
+		for (EnginePhase phase : EnginePhase.values()) {
+			if (ret.length() > 0) {
+				ret.append(';');
+			}
+			ret.append(phase.getReportName()).append('=')
+					.append(ReportProperties.formatMillis(get(phase)));
+		}
+		if (failed != null) {
+			ret.append(";failed=").append(failed.getReportName());
+		}
+		return ret.toString();
+	}
+}
@@ -0,0 +1,44 @@
+package havis.test.suite;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Caches the converted step properties of a test case (see
+ * {@link XMLTypeConverter#convert(java.util.List, havis.test.suite.api.NDIContext, PropertiesCache)}).
+ * The entries are keyed by the identity of the property definitions, because
+ * the hash code and equals of a definition list visit all of its elements. An
+ * instance must only be used while the definitions are not changed.
+ */
+public class PropertiesCache {
+
+	/**
+	 * property definition (entry list or list type) -> unmodifiable map or
+	 * list if the definition does not reference the global context,
+	 * otherwise a marker
+	 */
+	private final Map<Object, Object> values = Collections
+			.synchronizedMap(new IdentityHashMap<Object, Object>());
+
+	Object get(Object definition) {
+		return values.get(definition);
+	}
+
+	void put(Object definition, Object value) {
+		synchronized (values) {
+			if (!values.containsKey(definition)) {
+				values.put(definition, value);
+			}
+		}
+	}
+
+	/**
+	 * Returns the count of cached definitions
+	 *
+	 * @return
+	 */
+	public int getSize() {
+		return values.size();
+	}
+}
@@ -0,0 +1,75 @@
+package havis.test.suite;
+
+import java.util.Locale;
+
+/**
+ * Defines when the threads of a thread group are started within the ramp-up
+ * period
+ */
+public enum RampUpProfile {
+	/**
+	 * The threads are started in equal intervals
+	 */
+	LINEAR,
+	/**
+	 * The threads are started in equal sized batches in equal intervals
+	 */
+	STEPPED,
+	/**
+	 * The count of started threads grows exponentially
+	 */
+	EXPONENTIAL;
+
+	/**
+	 * Gets the planned start offset of a thread
+	 *
+	 * @param threadIndex
+	 * @param threadCount
+	 * @param rampUpPeriod
+	 *            ramp-up period in nanoseconds
+	 * @param steps
+	 *            count of batches for {@link #STEPPED}
+	 * @return offset in nanoseconds
+	 */
+	public long getOffset(int threadIndex, int threadCount, long rampUpPeriod,
+			int steps) {
+		if (threadCount <= 1 || rampUpPeriod <= 0) {
+			return 0;
+		}
+		switch (this) {
+		case STEPPED:
+			steps = Math.max(1, Math.min(steps, threadCount));
+			if (steps == 1) {
+				return 0;
+			}
+			long step = (long) threadIndex * steps / threadCount;
+			return scale(rampUpPeriod, step, steps - 1);
+		case EXPONENTIAL:
+			// the count of started threads at time t of ramp-up period T:
+			// threadCount ^ (t / T)
+			return (long) (rampUpPeriod * (Math.log(threadIndex + 1) / Math
+					.log(threadCount)));
+		default:
+			return scale(rampUpPeriod, threadIndex, threadCount - 1);
+		}
+	}
+
+	/**
+	 * Calculates value * numerator / denominator without truncating the
+	 * intermediate result
+	 */
+	private static long scale(long value, long numerator, long denominator) {
+		return value / denominator * numerator + value % denominator
+				* numerator / denominator;
+	}
+
+	/**
+	 * Returns the profile for a name (case insensitive)
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static RampUpProfile fromName(String name) {
+		return valueOf(name.toUpperCase(Locale.ENGLISH));
+	}
+}
@@ -0,0 +1,71 @@
+package havis.test.suite;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Releases the threads of a thread group on a timeline which is based on
+ * {@link System#nanoTime()}. The start times are calculated from the start of
+ * the timeline, so delays of single threads do not accumulate.
+ */
+public class RampUpScheduler {
+
+	private final RampUpProfile profile;
+	private final int threadCount;
+	private final long rampUpPeriod;
+	private final int steps;
+	private long start;
+
+	/**
+	 *
+	 * @param profile
+	 * @param threadCount
+	 * @param rampUpPeriod
+	 *            ramp-up period in milliseconds
+	 * @param steps
+	 *            count of batches for {@link RampUpProfile#STEPPED}
+	 */
+	public RampUpScheduler(RampUpProfile profile, int threadCount,
+			long rampUpPeriod, int steps) {
+		this.profile = profile;
+		this.threadCount = threadCount;
+		this.rampUpPeriod = rampUpPeriod * 1000000;
+		this.steps = steps;
+	}
+
+	/**
+	 * Starts the timeline
+	 */
+	public void start() {
+		start = System.nanoTime();
+	}
+
+	/**
+	 * Gets the planned start offset of a thread
+	 *
+	 * @param threadIndex
+	 * @return offset in nanoseconds
+	 */
+	public long getPlannedOffset(int threadIndex) {
+		return profile.getOffset(threadIndex, threadCount, rampUpPeriod, steps);
+	}
+
+	/**
+	 * Waits for the planned start of a thread
+	 *
+	 * @param threadIndex
+	 * @return the skew between the actual and the planned start in
+	 *         nanoseconds
+	 * @throws InterruptedException
+	 */
+	public long awaitStart(int threadIndex) throws InterruptedException {
+		long planned = start + getPlannedOffset(threadIndex);
+		long remaining;
+		while ((remaining = planned - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+		return -remaining;
+	}
+}
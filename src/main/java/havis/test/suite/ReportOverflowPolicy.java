@@ -0,0 +1,35 @@
+package havis.test.suite;
+
+import java.util.Locale;
+
+/**
+ * Defines how a report is handled if the queue of an asynchronous reporter is
+ * full
+ */
+public enum ReportOverflowPolicy {
+	/**
+	 * The executing thread waits until the queue has free space
+	 */
+	BLOCK,
+	/**
+	 * Full intermediate reports are dropped, all other reports (incl. delta
+	 * reports which are only sent once) are handled like {@link #BLOCK}
+	 */
+	DROP_INTERMEDIATE,
+	/**
+	 * The reports are written to temporary files until the queue has been
+	 * processed
+	 */
+	SPILL_TO_DISK;
+
+	/**
+	 * Returns the policy for a name (case insensitive, '-' may be used instead
+	 * of '_')
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static ReportOverflowPolicy fromName(String name) {
+		return valueOf(name.replace('-', '_').toUpperCase(Locale.ENGLISH));
+	}
+}
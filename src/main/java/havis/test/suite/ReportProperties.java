@@ -0,0 +1,72 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.EntryType;
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.PropertiesType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Adds data which is measured by the test automat to the properties of
+ * reports. The names of these properties start with "testautomat."
+ */
+public class ReportProperties {
+
+	public static final String PREFIX = "testautomat.";
+
+	/**
+	 * Adds a property to the source properties of a module report
+	 *
+	 * @param report
+	 * @param name
+	 *            name without prefix
+	 * @param value
+	 */
+	public static void add(ModuleReportType report, String name, String value) {
+		if (report.getSourceProperties() == null) {
+			report.setSourceProperties(new PropertiesType());
+		}
+		report.getSourceProperties().getProperty()
+				.add(createEntry(name, value));
+	}
+
+	/**
+	 * Adds properties to the source properties of a module report
+	 *
+	 * @param report
+	 * @param properties
+	 *            properties with prefix
+	 */
+	public static void add(ModuleReportType report, List<EntryType> properties) {
+		if (report.getSourceProperties() == null) {
+			report.setSourceProperties(new PropertiesType());
+		}
+		report.getSourceProperties().getProperty().addAll(properties);
+	}
+
+	/**
+	 * Creates an entry for a property
+	 *
+	 * @param name
+	 *            name without prefix
+	 * @param value
+	 * @return
+	 */
+	public static EntryType createEntry(String name, String value) {
+		EntryType entry = new EntryType();
+		entry.setName(PREFIX + name);
+		entry.setValue(value);
+		return entry;
+	}
+
+	/**
+	 * Formats a duration given in nanoseconds as milliseconds
+	 *
+	 * @param nanos
+	 * @return
+	 */
+	public static String formatMillis(long nanos) {
+		return BigDecimal.valueOf(nanos, 6).toPlainString();
+	}
+}
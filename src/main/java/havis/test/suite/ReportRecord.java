@@ -0,0 +1,55 @@
+package havis.test.suite;
+
+import java.io.Serializable;
+
+/**
+ * A report of a test case which is streamed to a {@link ReportSink}. The
+ * report is one of
+ * <ul>
+ * <li>the test case definition without reports (TestCaseType, no path)</li>
+ * <li>a step report (StepReportType) or a module report (ModuleReportType) of
+ * the step with the given path</li>
+ * <li>properties (PropertiesType) which have been added to the last module
+ * report of the thread with the given path (e.g. the start skew of the thread)
+ * </li>
+ * <li>no report: all reports of the thread with the given path have been
+ * moved to the step list of its thread group</li>
+ * <li>the test case report (TestCaseReportType, no path)</li>
+ * </ul>
+ * A path consists of step indices separated by '/'. A thread of a thread
+ * group is identified by the index of the thread group followed by
+ * "#&lt;run&gt;.&lt;thread index&gt;" (e.g. "2/1#0.3/0": first step of the
+ * 4th thread of the 2nd thread group of the threads step with index 2 in its
+ * first run). The steps of a loop are addressed via the path of the loop step.
+ */
+public class ReportRecord implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String testCaseId;
+	private final String path;
+	private final Serializable report;
+
+	/**
+	 * 
+	 * @param testCaseId
+	 * @param path
+	 * @param report
+	 */
+	public ReportRecord(String testCaseId, String path, Serializable report) {
+		this.testCaseId = testCaseId;
+		this.path = path;
+		this.report = report;
+	}
+
+	public String getTestCaseId() {
+		return testCaseId;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public Serializable getReport() {
+		return report;
+	}
+}
@@ -0,0 +1,130 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.PropertiesType;
+import havis.test.suite.testcase.StepReportType;
+import havis.test.suite.testcase.StepReportsType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseReportType;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds a test case with all reports from the records of a
+ * {@link ReportStream}
+ */
+public class ReportReplay {
+
+	private TestCaseType testCase;
+	/**
+	 * thread path -> step list of the thread
+	 */
+	private final Map<String, List<StepType>> threads = new HashMap<>();
+
+	/**
+	 * Adds a record
+	 * 
+	 * @param record
+	 */
+	public void add(ReportRecord record) {
+		Serializable report = record.getReport();
+		if (report instanceof TestCaseType) {
+			TestCaseType definition = (TestCaseType) report;
+			testCase = DefinitionCopier.copyTestCase(definition);
+			threads.clear();
+		} else if (report instanceof TestCaseReportType) {
+			getTestCase().setReport((TestCaseReportType) report);
+		} else if (report instanceof StepReportType) {
+			StepType step = getStep(record.getPath());
+			if (step.getReports() == null) {
+				step.setReports(new StepReportsType());
+			}
+			step.getReports().getReport().add((StepReportType) report);
+		} else if (report instanceof ModuleReportType) {
+			StepType step = getStep(record.getPath());
+			if (step.getModule().getReports() == null) {
+				step.getModule().setReports(new ModuleReportsType());
+			}
+			step.getModule().getReports().getReport()
+					.add((ModuleReportType) report);
+		} else if (report instanceof PropertiesType) {
+			ModuleReportType moduleReport = ThreadGroups
+					.getLastModuleReport(getThreadSteps(record.getPath()));
+			if (moduleReport != null) {
+				ReportProperties.add(moduleReport,
+						((PropertiesType) report).getProperty());
+			}
+		} else if (report == null) {
+			// move the reports of the thread to its thread group
+			List<StepType> steps = threads.remove(record.getPath());
+			if (steps != null) {
+				ThreadGroups.moveReports(steps,
+						getThreadGroupSteps(record.getPath()));
+			}
+		} else {
+			throw new IllegalArgumentException("Unknown report type "
+					+ report.getClass().getName());
+		}
+	}
+
+	/**
+	 * Gets the test case with all reports which have been added so far
+	 * 
+	 * @return
+	 */
+	public TestCaseType getTestCase() {
+		if (testCase == null) {
+			throw new IllegalStateException(
+					"The definition of the test case is missing");
+		}
+		return testCase;
+	}
+
+	private StepType getStep(String path) {
+		int threadEnd = path.lastIndexOf('#');
+		List<StepType> steps;
+		String stepsPath;
+		if (threadEnd < 0) {
+			steps = getTestCase().getSteps().getStep();
+			stepsPath = path;
+		} else {
+			int pathStart = path.indexOf('/', threadEnd);
+			steps = getThreadSteps(path.substring(0, pathStart));
+			stepsPath = path.substring(pathStart + 1);
+		}
+		StepType step = null;
+		for (String index : stepsPath.split("/")) {
+			if (step != null) {
+				steps = step.getLoop().getSteps().getStep();
+			}
+			step = steps.get(Integer.parseInt(index));
+		}
+		return step;
+	}
+
+	private List<StepType> getThreadSteps(String threadPath) {
+		List<StepType> steps = threads.get(threadPath);
+		if (steps == null) {
+			// the thread starts with a copy of the step definitions
+			steps = DefinitionCopier.copySteps(getThreadGroupSteps(threadPath));
+			threads.put(threadPath, steps);
+		}
+		return steps;
+	}
+
+	private List<StepType> getThreadGroupSteps(String threadPath) {
+		String threadGroupPath = threadPath.substring(0,
+				threadPath.lastIndexOf('#'));
+		int separator = threadGroupPath.lastIndexOf('/');
+		StepType threadsStep = getStep(threadGroupPath.substring(0, separator));
+		int threadGroupIndex = Integer.parseInt(threadGroupPath
+				.substring(separator + 1));
+		return threadsStep.getThreads().getThreadGroup().get(threadGroupIndex)
+				.getSteps().getStep();
+	}
+}
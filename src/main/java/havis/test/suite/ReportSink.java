@@ -0,0 +1,27 @@
+package havis.test.suite;
+
+/**
+ * Receives the reports of test cases incrementally while the test cases are
+ * executed. A reporter module which implements this interface gets each report
+ * record as soon as it is available in addition to the final report of a test
+ * case.
+ * 
+ * The records of a test case are delivered in this order:
+ * <ol>
+ * <li>the test case definition without reports</li>
+ * <li>step and module reports, properties of threads and markers for finished
+ * threads of thread groups (see {@link ReportRecord})</li>
+ * <li>the test case report</li>
+ * </ol>
+ * The records of threads of thread groups may be delivered concurrently.
+ */
+public interface ReportSink {
+
+	/**
+	 * Receives a report record. The report of the record must not be modified.
+	 * 
+	 * @param record
+	 * @throws Exception
+	 */
+	void report(ReportRecord record) throws Exception;
+}
@@ -0,0 +1,238 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.EntryType;
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.PropertiesType;
+import havis.test.suite.testcase.StepReportType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseReportType;
+import havis.test.suite.testcase.TestCaseType;
+import havis.test.suite.testcase.ThreadGroupType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the reports of a test case to report sinks while the test case is
+ * executed. After a step has been executed its new reports are sent to the
+ * sinks and only the last reports of the step are kept in the test case.
+ * 
+ * The sinks get copies of the reports. Changes of the reports in the test case
+ * after they have been sent (e.g. the shift of pass numbers while the reports
+ * of threads are moved) do not affect the records.
+ */
+public class ReportStream {
+
+	private final String testCaseId;
+	private final int retention;
+	private final List<ReportSink> sinks;
+	private final AtomicLong runs = new AtomicLong();
+
+	/**
+	 * 
+	 * @param testCaseId
+	 * @param retention
+	 *            max. count of reports which are kept per step (at least 1)
+	 * @param sinks
+	 */
+	public ReportStream(String testCaseId, int retention, List<ReportSink> sinks) {
+		if (retention < 1) {
+			throw new IllegalArgumentException(
+					"Retention must be greater than 0");
+		}
+		this.testCaseId = testCaseId;
+		this.retention = retention;
+		this.sinks = new ArrayList<ReportSink>(sinks);
+	}
+
+	public int getRetention() {
+		return retention;
+	}
+
+	/**
+	 * Gets a new number for a run of thread groups
+	 * 
+	 * @return
+	 */
+	public long nextRun() {
+		return runs.getAndIncrement();
+	}
+
+	/**
+	 * Sends the definition of the test case. The test case must not contain
+	 * any reports yet.
+	 * 
+	 * @param testCase
+	 * @throws Exception
+	 */
+	public void start(TestCaseType testCase) throws Exception {
+		send(null, testCase);
+	}
+
+	/**
+	 * Sends the last step report and the last module report of an executed
+	 * step and removes old reports from the step
+	 * 
+	 * @param path
+	 *            path to the step
+	 * @param step
+	 * @throws Exception
+	 */
+	public void add(String path, StepType step) throws Exception {
+		ModuleType module = step.getModule();
+		if (module != null && module.getReports() != null
+				&& module.getReports().getReport().size() > 0) {
+			List<ModuleReportType> reports = module.getReports().getReport();
+			send(path, reports.get(reports.size() - 1));
+			trimReports(reports);
+		}
+		if (step.getReports() != null
+				&& step.getReports().getReport().size() > 0) {
+			List<StepReportType> reports = step.getReports().getReport();
+			send(path, reports.get(reports.size() - 1));
+			trimReports(reports);
+		}
+	}
+
+	/**
+	 * Sends the marker for a thread whose reports have been moved to the step
+	 * list of its thread group
+	 * 
+	 * @param threadPath
+	 * @throws Exception
+	 */
+	public void moved(String threadPath) throws Exception {
+		send(threadPath, null);
+	}
+
+	/**
+	 * Sends properties which have been added to the last module report of a
+	 * thread after its reports have been sent (see
+	 * {@link ThreadGroups#getLastModuleReport(List)})
+	 * 
+	 * @param threadPath
+	 * @param properties
+	 * @throws Exception
+	 */
+	public void properties(String threadPath, List<EntryType> properties)
+			throws Exception {
+		PropertiesType props = new PropertiesType();
+		props.getProperty().clear();
+		props.getProperty().addAll(properties);
+		send(threadPath, props);
+	}
+
+	/**
+	 * Sends the test case report
+	 * 
+	 * @param report
+	 * @throws Exception
+	 */
+	public void finish(TestCaseReportType report) throws Exception {
+		send(null, report);
+	}
+
+	/**
+	 * Removes old reports from a step list. Reports in embedded step lists are
+	 * also removed
+	 * 
+	 * @param steps
+	 */
+	public void trim(List<StepType> steps) {
+		// for each step
+		for (StepType step : steps) {
+			if (step.getReports() != null) {
+				trimReports(step.getReports().getReport());
+			}
+			// if module
+			if (step.getModule() != null) {
+				if (step.getModule().getReports() != null) {
+					trimReports(step.getModule().getReports().getReport());
+				}
+			} else if (step.getLoop() != null) { // if loop
+				// recursive call
+				trim(step.getLoop().getSteps().getStep());
+			} else if (step.getThreads() != null) { // if threads
+				// for each thread group
+				for (ThreadGroupType threadGroup : step.getThreads()
+						.getThreadGroup()) {
+					// recursive call
+					trim(threadGroup.getSteps().getStep());
+				}
+			}
+		}
+	}
+
+	private void trimReports(List<?> reports) {
+		if (reports.size() > retention) {
+			reports.subList(0, reports.size() - retention).clear();
+		}
+	}
+
+	private void send(String path, Serializable report) throws Exception {
+		ReportRecord record = new ReportRecord(testCaseId, path,
+				report == null ? null : copy(report));
+		// for each sink
+		for (ReportSink sink : sinks) {
+			sink.report(record);
+		}
+	}
+
+	/**
+	 * Creates a deep copy of a report
+	 * 
+	 * @param report
+	 * @return
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private static Serializable copy(Serializable report) throws IOException,
+			ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(report);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (Serializable) in.readObject();
+		}
+	}
+
+	/**
+	 * Gets the path to a step of a step list
+	 * 
+	 * @param stepsPath
+	 *            path to the step list (empty for the step list of the test
+	 *            case)
+	 * @param stepIndex
+	 * @return
+	 */
+	public static String getPath(String stepsPath, int stepIndex) {
+		return stepsPath.isEmpty() ? String.valueOf(stepIndex) : stepsPath
+				+ "/" + stepIndex;
+	}
+
+	/**
+	 * Gets the path to the step list of a thread of a thread group
+	 * 
+	 * @param threadsPath
+	 *            path to the threads step
+	 * @param threadGroupIndex
+	 * @param run
+	 * @param threadIndex
+	 * @return
+	 */
+	public static String getThreadPath(String threadsPath,
+			int threadGroupIndex, long run, int threadIndex) {
+		return getPath(threadsPath, threadGroupIndex) + "#" + run + "."
+				+ threadIndex;
+	}
+}
@@ -0,0 +1,90 @@
+package havis.test.suite;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which final reports of test cases are validated against the XSD.
+ * One instance is shared by all test cases of a run.
+ */
+public class ReportValidation {
+
+	public enum Policy {
+		/**
+		 * Each report is validated
+		 */
+		ALWAYS,
+		/**
+		 * No report is validated
+		 */
+		NEVER,
+		/**
+		 * The first N reports are validated
+		 */
+		FIRST,
+		/**
+		 * Every Kth report is validated, starting with the first one
+		 */
+		SAMPLED;
+
+		/**
+		 * Returns the policy for a name (case insensitive)
+		 *
+		 * @param name
+		 * @return
+		 */
+		public static Policy fromName(String name) {
+			return valueOf(name.toUpperCase(Locale.ENGLISH));
+		}
+	}
+
+	private final Policy policy;
+	private final int count;
+	private final AtomicLong reports = new AtomicLong();
+
+	public ReportValidation() {
+		this(Policy.ALWAYS, 1);
+	}
+
+	/**
+	 * 
+	 * @param policy
+	 * @param count
+	 *            N for {@link Policy#FIRST}, K for {@link Policy#SAMPLED}
+	 */
+	public ReportValidation(Policy policy, int count) {
+		if (count < 1
+				&& (policy == Policy.FIRST || policy == Policy.SAMPLED)) {
+			throw new IllegalArgumentException(
+					"Count must be greater than 0");
+		}
+		this.policy = policy;
+		this.count = count;
+	}
+
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Counts a report and returns whether it shall be validated
+	 * 
+	 * @return
+	 */
+	public boolean next() {
+		switch (policy) {
+		case NEVER:
+			return false;
+		case FIRST:
+			return reports.getAndIncrement() < count;
+		case SAMPLED:
+			return reports.getAndIncrement() % count == 0;
+		default:
+			return true;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package havis.test.suite;
+
+import havis.test.suite.api.Step;
+
+/**
+ * A step module whose instances can be reused by a {@link StepPool}. The
+ * module must be defined with the prototype scope.
+ */
+public interface ResettableStep extends Step {
+
+	/**
+	 * Resets the state of the instance after an execution. If an exception is
+	 * thrown then the instance is not reused.
+	 * 
+	 * @throws Exception
+	 */
+	void reset() throws Exception;
+}
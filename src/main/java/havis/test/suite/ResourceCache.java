@@ -0,0 +1,152 @@
+package havis.test.suite;
+
+import havis.test.suite.common.IO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.context.ApplicationContext;
+import org.stringtemplate.v4.ST;
+
+/**
+ * Caches the resources which are referenced by a test case. Each file is
+ * loaded once and each template is compiled once. If all parameter values are
+ * immutable (strings, numbers, booleans, characters, enums) then a template
+ * is only rendered again if its parameters have changed since the last
+ * rendering in the same thread. Parameters with other values (e.g. lists which
+ * may be changed in place) are rendered at each call.
+ */
+public class ResourceCache {
+
+	/**
+	 * classes of immutable parameter values
+	 */
+	private static final Set<Class<?>> IMMUTABLE = new HashSet<Class<?>>(
+			Arrays.<Class<?>> asList(String.class, Boolean.class,
+					Character.class, Byte.class, Short.class, Integer.class,
+					Long.class, Float.class, Double.class, BigInteger.class,
+					BigDecimal.class));
+
+	private final ApplicationContext context;
+	/**
+	 * path -> file content
+	 */
+	private final ConcurrentMap<String, String> files = new ConcurrentHashMap<>();
+	/**
+	 * template content -> compiled template
+	 */
+	private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+	/**
+	 *
+	 * @param context
+	 *            context for loading the resources
+	 */
+	public ResourceCache(ApplicationContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Loads a file. The file is only loaded at the first call.
+	 *
+	 * @param path
+	 *            path including filename
+	 * @return
+	 * @throws IOException
+	 */
+	public String loadFile(String path) throws IOException {
+		String content = files.get(path);
+		if (content == null) {
+			content = new IO(context).loadResource(path);
+			String existing = files.putIfAbsent(path, content);
+			if (existing != null) {
+				content = existing;
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * Returns content with replaced templates
+	 *
+	 * @param content
+	 * @param parameters
+	 * @return
+	 */
+	public String render(String content, Map<String, Object> parameters) {
+		Template template = templates.get(content);
+		if (template == null) {
+			template = new Template(content);
+			Template existing = templates.putIfAbsent(content, template);
+			if (existing != null) {
+				template = existing;
+			}
+		}
+		return template.render(parameters);
+	}
+
+	private static class Template {
+		private final ST prototype;
+		// last rendering of each thread
+		private final ThreadLocal<Rendering> lastRendering = new ThreadLocal<>();
+
+		Template(String content) {
+			prototype = new ST(content, '$', '$');
+		}
+
+		String render(Map<String, Object> parameters) {
+			Rendering rendering = lastRendering.get();
+			if (rendering != null && rendering.parameters.equals(parameters)) {
+				return rendering.result;
+			}
+			// the prototype shares the compiled template with its copies
+			ST template = new ST(prototype);
+			for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+				template.add(parameter.getKey(), parameter.getValue());
+			}
+			String result = template.render();
+			if (isImmutable(parameters)) {
+				lastRendering.set(new Rendering(new HashMap<>(parameters),
+						result));
+			} else {
+				lastRendering.remove();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Checks whether all values of parameters are immutable, so that a copy of
+	 * the parameter map detects all changes
+	 *
+	 * @param parameters
+	 * @return
+	 */
+	private static boolean isImmutable(Map<String, Object> parameters) {
+		for (Object value : parameters.values()) {
+			if (value != null && !(value instanceof Enum)
+					&& !IMMUTABLE.contains(value.getClass())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static class Rendering {
+		final Map<String, Object> parameters;
+		final String result;
+
+		Rendering(Map<String, Object> parameters, String result) {
+			this.parameters = parameters;
+			this.result = result;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package havis.test.suite;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive locks for resources which are used by test cases (e.g.
+ * "reader:1"). Test cases which use a common resource are not executed
+ * concurrently. The locks are always acquired in the order of the resource
+ * names, so test cases using several resources cannot deadlock.
+ */
+public class ResourceLocks {
+
+	/**
+	 * resource name -> lock
+	 */
+	private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * Acquires the locks of resources. The method blocks until all locks have
+	 * been acquired.
+	 * 
+	 * @param resources
+	 * @return the acquired locks (see {@link #unlock(List)})
+	 * @throws InterruptedException
+	 */
+	public List<Lock> lock(Collection<String> resources)
+			throws InterruptedException {
+		List<Lock> ret = new ArrayList<>(resources.size());
+		try {
+			// for each resource in the order of the names
+			for (String resource : new TreeSet<>(resources)) {
+				Lock lock = getLock(resource);
+				lock.lockInterruptibly();
+				ret.add(lock);
+			}
+		} catch (InterruptedException e) {
+			unlock(ret);
+			throw e;
+		}
+		return ret;
+	}
+
+	/**
+	 * Releases acquired locks
+	 * 
+	 * @param locks
+	 */
+	public void unlock(List<Lock> locks) {
+		List<Lock> reverse = new ArrayList<>(locks);
+		Collections.reverse(reverse);
+		for (Lock lock : reverse) {
+			lock.unlock();
+		}
+	}
+
+	private Lock getLock(String resource) {
+		Lock lock = locks.get(resource);
+		if (lock == null) {
+			lock = new ReentrantLock(true /* fair */);
+			Lock existing = locks.putIfAbsent(resource, lock);
+			if (existing != null) {
+				lock = existing;
+			}
+		}
+		return lock;
+	}
+}
@@ -0,0 +1,90 @@
+package havis.test.suite;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Validates XML content against a compiled XML schema. The schema is compiled
+ * once and can be used by any count of threads; each thread reuses its own
+ * validator.
+ */
+public class SchemaValidator {
+
+	private final Schema schema;
+	private final ThreadLocal<Validator> validators = new ThreadLocal<Validator>() {
+		@Override
+		protected Validator initialValue() {
+			return schema.newValidator();
+		}
+	};
+
+	/**
+	 * 
+	 * @param schema
+	 *            compiled schema
+	 */
+	public SchemaValidator(Schema schema) {
+		this.schema = schema;
+	}
+
+	/**
+	 * Compiles a schema
+	 * 
+	 * @param schemaFile
+	 *            content of the XSD file
+	 * @param systemId
+	 *            URI of the XSD file (used for resolving included files)
+	 * @return
+	 * @throws SAXException
+	 */
+	public static SchemaValidator compile(InputStream schemaFile,
+			String systemId) throws SAXException {
+		SchemaFactory factory = SchemaFactory
+				.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+		return new SchemaValidator(factory.newSchema(new StreamSource(
+				schemaFile, systemId)));
+	}
+
+	public Schema getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Validates XML content
+	 * 
+	 * @param content
+	 * @throws SAXException
+	 *             the first validation error
+	 * @throws IOException
+	 */
+	public void validate(String content) throws SAXException, IOException {
+		validate(new StreamSource(new StringReader(content)));
+	}
+
+	/**
+	 * Validates XML content
+	 * 
+	 * @param source
+	 * @throws SAXException
+	 *             the first validation error
+	 * @throws IOException
+	 */
+	public void validate(Source source) throws SAXException, IOException {
+		Validator validator = validators.get();
+		try {
+			validator.validate(source);
+		} finally {
+			validator.reset();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package havis.test.suite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Defines how the test cases of a suite are split into shards
+ */
+public enum ShardBalancing {
+	/**
+	 * A test case is assigned to a shard by the hash code of its path, so it
+	 * is always executed by the same shard
+	 */
+	HASH,
+	/**
+	 * The test cases are assigned to the shards in turn
+	 */
+	ROUND_ROBIN,
+	/**
+	 * The test cases are assigned to the shards by the durations of previous
+	 * executions, so all shards need about the same time. A test case without
+	 * a known duration is assumed to need the average duration.
+	 */
+	DURATION;
+
+	/**
+	 * Splits test cases into shards. The order of the test cases is retained
+	 * within each shard.
+	 * 
+	 * @param testCasesPaths
+	 * @param shardCount
+	 * @param durations
+	 *            test case path -> duration in ms (only used for
+	 *            {@link #DURATION})
+	 * @return the test case paths of each shard (a shard may be empty)
+	 */
+	public List<List<String>> split(List<String> testCasesPaths,
+			int shardCount, Map<String, Long> durations) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException(
+					"Shard count must be greater than 0");
+		}
+		List<List<String>> ret = new ArrayList<>(shardCount);
+		for (int i = 0; i < shardCount; i++) {
+			ret.add(new ArrayList<String>());
+		}
+		switch (this) {
+		case HASH:
+			for (String path : testCasesPaths) {
+				ret.get((path.hashCode() & Integer.MAX_VALUE) % shardCount)
+						.add(path);
+			}
+			break;
+		case ROUND_ROBIN:
+			for (int i = 0; i < testCasesPaths.size(); i++) {
+				ret.get(i % shardCount).add(testCasesPaths.get(i));
+			}
+			break;
+		default:
+			splitByDuration(testCasesPaths, durations, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Assigns the longest test case to the shard with the lowest total
+	 * duration until all test cases have been assigned
+	 */
+	private static void splitByDuration(final List<String> testCasesPaths,
+			Map<String, Long> durations, List<List<String>> shards) {
+		long sum = 0;
+		int known = 0;
+		for (String path : testCasesPaths) {
+			Long duration = durations.get(path);
+			if (duration != null) {
+				sum += duration;
+				known++;
+			}
+		}
+		long defaultDuration = known == 0 ? 1 : Math.max(1, sum / known);
+		final long[] pathDurations = new long[testCasesPaths.size()];
+		List<Integer> indices = new ArrayList<>(testCasesPaths.size());
+		for (int i = 0; i < testCasesPaths.size(); i++) {
+			Long duration = durations.get(testCasesPaths.get(i));
+			pathDurations[i] = duration == null ? defaultDuration : duration;
+			indices.add(i);
+		}
+		// longest test cases first (stable for equal durations)
+		Collections.sort(indices, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Long.compare(pathDurations[i2], pathDurations[i1]);
+			}
+		});
+		long[] totals = new long[shards.size()];
+		List<List<Integer>> assigned = new ArrayList<>(shards.size());
+		for (int i = 0; i < shards.size(); i++) {
+			assigned.add(new ArrayList<Integer>());
+		}
+		for (int index : indices) {
+			int shard = 0;
+			for (int i = 1; i < totals.length; i++) {
+				if (totals[i] < totals[shard]) {
+					shard = i;
+				}
+			}
+			totals[shard] += pathDurations[index];
+			assigned.get(shard).add(index);
+		}
+		// restore the order of the test cases
+		for (int i = 0; i < shards.size(); i++) {
+			List<Integer> shardIndices = assigned.get(i);
+			Collections.sort(shardIndices);
+			for (int index : shardIndices) {
+				shards.get(i).add(testCasesPaths.get(index));
+			}
+		}
+	}
+
+	/**
+	 * Returns the balancing for a name (case insensitive, '-' may be used
+	 * instead of '_')
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public static ShardBalancing fromName(String name) {
+		return valueOf(name.replace('-', '_').toUpperCase(Locale.ENGLISH));
+	}
+}
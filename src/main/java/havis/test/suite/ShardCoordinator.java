@@ -0,0 +1,286 @@
+package havis.test.suite;
+
+import havis.test.suite.api.Reporter;
+import havis.test.suite.exceptions.VerificationException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the test cases of a suite with worker processes on the local
+ * machine. The test cases are split into shards and each shard is executed by
+ * a {@link ShardWorker} with its own application context. The reports of the
+ * workers are sent to the reporters of the coordinator.
+ * 
+ * The durations of the executed test cases are stored in a properties file
+ * for the balancing of following runs (see {@link ShardBalancing#DURATION}).
+ */
+public class ShardCoordinator {
+	private static final Logger log = LoggerFactory
+			.getLogger(ShardCoordinator.class);
+
+	private final int shardCount;
+	private final ShardBalancing balancing;
+	private final File durationsFile;
+
+	/**
+	 * 
+	 * @param shardCount
+	 *            max. count of worker processes
+	 * @param balancing
+	 * @param durationsFile
+	 *            file with the durations of previous executions
+	 */
+	public ShardCoordinator(int shardCount, ShardBalancing balancing,
+			File durationsFile) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException(
+					"Shard count must be greater than 0");
+		}
+		this.shardCount = shardCount;
+		this.balancing = balancing;
+		this.durationsFile = durationsFile;
+	}
+
+	/**
+	 * Executes test cases. The method returns after all worker processes have
+	 * finished.
+	 * 
+	 * @param testCasesPaths
+	 * @param appObjectIds
+	 *            objectIds of the app modules which are started by each worker
+	 * @param args
+	 *            command line of the coordinator (passed to the workers)
+	 * @param reporters
+	 * @throws VerificationException
+	 *             a verification of a test case failed
+	 * @throws Exception
+	 */
+	public void execute(List<String> testCasesPaths, List<String> appObjectIds,
+			String[] args, List<Reporter> reporters) throws Exception {
+		Map<String, Long> durations = loadDurations();
+		List<List<String>> shards = balancing.split(testCasesPaths,
+				shardCount, durations);
+		List<Reporter> synchronizedReporters = SynchronizedReporter
+				.synchronize(reporters);
+		List<Shard> started = new ArrayList<>();
+		try {
+			for (int i = 0; i < shards.size(); i++) {
+				List<String> shard = shards.get(i);
+				if (shard.isEmpty()) {
+					continue;
+				}
+				log.info("Starting shard " + i + " with " + shard.size()
+						+ " test cases");
+				started.add(new Shard(i, shard, appObjectIds, args,
+						synchronizedReporters, durations));
+			}
+			for (Shard shard : started) {
+				shard.waitFor();
+			}
+		} finally {
+			for (Shard shard : started) {
+				shard.destroy();
+			}
+			saveDurations(durations);
+		}
+		// evaluate the results of the shards
+		Shard failed = null;
+		for (Shard shard : started) {
+			if (shard.error != null) {
+				throw shard.error;
+			}
+			if (shard.exitCode == 3) {
+				throw new VerificationException("Verification in shard "
+						+ shard.index + " failed");
+			}
+			if (shard.exitCode != 0 && failed == null) {
+				failed = shard;
+			}
+		}
+		if (failed != null) {
+			throw new Exception("Shard " + failed.index
+					+ " failed with exit code " + failed.exitCode);
+		}
+	}
+
+	/**
+	 * Creates the command line of a worker process
+	 * 
+	 * @param testCasesFile
+	 * @param appObjectIds
+	 * @param args
+	 * @return
+	 */
+	List<String> createCommand(File testCasesFile, List<String> appObjectIds,
+			String[] args) {
+		List<String> ret = new ArrayList<>();
+		ret.add(System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java");
+		ret.add("-cp");
+		ret.add(System.getProperty("java.class.path"));
+		ret.add(ShardWorker.class.getName());
+		ret.add("--shardTestCases");
+		ret.add(testCasesFile.getAbsolutePath());
+		if (!appObjectIds.isEmpty()) {
+			StringBuilder apps = new StringBuilder();
+			for (String objectId : appObjectIds) {
+				if (apps.length() > 0) {
+					apps.append(',');
+				}
+				apps.append(objectId);
+			}
+			ret.add("--shardApps");
+			ret.add(apps.toString());
+		}
+		for (String arg : args) {
+			ret.add(arg);
+		}
+		return ret;
+	}
+
+	/**
+	 * Loads the durations of previous executions
+	 * 
+	 * @return test case path -> duration in ms
+	 * @throws IOException
+	 */
+	Map<String, Long> loadDurations() throws IOException {
+		Map<String, Long> ret = new ConcurrentHashMap<>();
+		if (durationsFile == null || !durationsFile.exists()) {
+			return ret;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(durationsFile)) {
+			properties.load(in);
+		}
+		for (String path : properties.stringPropertyNames()) {
+			try {
+				ret.put(path, Long.valueOf(properties.getProperty(path)));
+			} catch (NumberFormatException e) {
+				log.warn("Ignoring invalid duration of test case " + path);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Saves the durations of the test cases. Errors are written to the log.
+	 * 
+	 * @param durations
+	 */
+	void saveDurations(Map<String, Long> durations) {
+		if (durationsFile == null) {
+			return;
+		}
+		Properties properties = new Properties();
+		for (Map.Entry<String, Long> duration : durations.entrySet()) {
+			properties.setProperty(duration.getKey(),
+					String.valueOf(duration.getValue()));
+		}
+		File dir = durationsFile.getAbsoluteFile().getParentFile();
+		if (!dir.exists()) {
+			dir.mkdirs();
+		}
+		try (OutputStream out = new FileOutputStream(durationsFile)) {
+			properties.store(out, "durations of test cases in ms");
+		} catch (IOException e) {
+			log.error("Cannot save the durations of the test cases to "
+					+ durationsFile, e);
+		}
+	}
+
+	/**
+	 * A worker process with a thread reading its reports
+	 */
+	private class Shard implements Runnable, ShardReporter.Listener {
+		final int index;
+		private final File testCasesFile;
+		private final Process process;
+		private final Thread reader;
+		private final List<Reporter> reporters;
+		private final Map<String, Long> durations;
+		int exitCode = -1;
+		volatile Exception error;
+
+		Shard(int index, List<String> testCasesPaths,
+				List<String> appObjectIds, String[] args,
+				List<Reporter> reporters, Map<String, Long> durations)
+				throws IOException {
+			this.index = index;
+			this.reporters = reporters;
+			this.durations = durations;
+			testCasesFile = File.createTempFile("testautomat-shard" + index
+					+ "-", ".txt");
+			Files.write(testCasesFile.toPath(), testCasesPaths,
+					StandardCharsets.UTF_8);
+			ProcessBuilder builder = new ProcessBuilder(createCommand(
+					testCasesFile, appObjectIds, args));
+			// the standard output is used for the reports
+			builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+			process = builder.start();
+			process.getOutputStream().close();
+			reader = new Thread(this, "shard-" + index);
+			reader.start();
+		}
+
+		@Override
+		public void run() {
+			try {
+				ShardReporter.read(process.getInputStream(), this);
+			} catch (Exception e) {
+				if (error == null) {
+					error = e;
+				}
+			}
+		}
+
+		@Override
+		public void report(String report) throws Exception {
+			if (error != null) {
+				// read the remaining reports so the worker is not blocked
+				return;
+			}
+			try {
+				for (Reporter reporter : reporters) {
+					reporter.report(report);
+				}
+			} catch (Exception e) {
+				error = e;
+			}
+		}
+
+		@Override
+		public void duration(String testCasePath, long duration) {
+			durations.put(testCasePath, duration);
+		}
+
+		void waitFor() throws InterruptedException {
+			exitCode = process.waitFor();
+			reader.join();
+			log.info("Shard " + index + " finished with exit code "
+					+ exitCode);
+		}
+
+		void destroy() {
+			process.destroy();
+			if (!testCasesFile.delete()) {
+				testCasesFile.deleteOnExit();
+			}
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.api.Reporter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends the reports of a shard worker to the coordinator. The reports and the
+ * durations of the executed test cases are written as frames to a stream
+ * (normally the standard output of the worker process) and read by the
+ * coordinator with {@link #read(InputStream, Listener)}.
+ */
+public class ShardReporter implements Reporter {
+
+	private static final int REPORT = 1;
+	private static final int DURATION = 2;
+
+	/**
+	 * Receives the frames read from the stream of a shard worker
+	 */
+	public interface Listener {
+		/**
+		 * A report has been received
+		 * 
+		 * @param report
+		 * @throws Exception
+		 */
+		void report(String report) throws Exception;
+
+		/**
+		 * A test case has been finished
+		 * 
+		 * @param testCasePath
+		 * @param duration
+		 *            duration in ms
+		 * @throws Exception
+		 */
+		void duration(String testCasePath, long duration) throws Exception;
+	}
+
+	private final DataOutputStream out;
+
+	/**
+	 * 
+	 * @param out
+	 *            stream to the coordinator
+	 */
+	public ShardReporter(OutputStream out) {
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+	}
+
+	@Override
+	public void start(NDIContext context, String moduleHome, String outputDir)
+			throws Exception {
+	}
+
+	@Override
+	public void stop() throws Exception {
+		synchronized (out) {
+			out.flush();
+		}
+	}
+
+	@Override
+	public void cleanup() throws Exception {
+	}
+
+	@Override
+	public void report(String report) throws Exception {
+		byte[] data = report.getBytes(StandardCharsets.UTF_8);
+		synchronized (out) {
+			out.writeByte(REPORT);
+			out.writeInt(data.length);
+			out.write(data);
+			out.flush();
+		}
+	}
+
+	/**
+	 * Sends the duration of an executed test case
+	 * 
+	 * @param testCasePath
+	 * @param duration
+	 *            duration in ms
+	 * @throws IOException
+	 */
+	public void duration(String testCasePath, long duration)
+			throws IOException {
+		synchronized (out) {
+			out.writeByte(DURATION);
+			out.writeUTF(testCasePath);
+			out.writeLong(duration);
+			out.flush();
+		}
+	}
+
+	/**
+	 * Reads the frames of a shard worker until the end of the stream
+	 * 
+	 * @param in
+	 * @param listener
+	 * @throws Exception
+	 */
+	public static void read(InputStream in, Listener listener)
+			throws Exception {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		while (true) {
+			int type = data.read();
+			switch (type) {
+			case -1:
+				return;
+			case REPORT:
+				byte[] report = new byte[data.readInt()];
+				data.readFully(report);
+				listener.report(new String(report, StandardCharsets.UTF_8));
+				break;
+			case DURATION:
+				listener.duration(data.readUTF(), data.readLong());
+				break;
+			default:
+				throw new IOException("Invalid frame type " + type);
+			}
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package havis.test.suite;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Main class of a worker process which executes a shard of a suite (see
+ * {@link ShardCoordinator}). The standard output is reserved for the reports,
+ * so any output of the modules is redirected to the standard error.
+ */
+public class ShardWorker {
+
+	public static void main(String[] args) {
+		OutputStream reports = new FileOutputStream(FileDescriptor.out);
+		System.setOut(System.err);
+		System.exit(new Testautomat().runShard(args, reports));
+	}
+}
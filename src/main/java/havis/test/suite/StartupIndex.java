@@ -0,0 +1,256 @@
+package havis.test.suite;
+
+import havis.test.suite.common.PathResolver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent index of the resources which are found while starting the test
+ * automat: the directories with deployment descriptors of modules, test cases
+ * and XSD files and the objectIds of the modules.
+ * 
+ * The index is only valid for the class path it has been created for. It
+ * becomes invalid if an archive of the class path, a directory below a
+ * searched resource directory or a found descriptor has been changed
+ * (modification time, size or checksum).
+ */
+public class StartupIndex implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final Logger log = LoggerFactory
+			.getLogger(StartupIndex.class);
+
+	private final String classPath;
+	/**
+	 * resource directory + '/' + file name -> found directories
+	 */
+	private final Map<String, List<String>> paths = new HashMap<>();
+	/**
+	 * file -> modification time, size and checksum
+	 */
+	private final Map<String, String> fingerprints = new HashMap<>();
+	/**
+	 * objectId -> directory of the module
+	 */
+	private Map<String, String> objectIdFiles;
+	private transient boolean modified;
+
+	/**
+	 * Creates an empty index for the current class path
+	 */
+	public StartupIndex() {
+		classPath = System.getProperty("java.class.path", "");
+		// the archives of the class path
+		for (String entry : classPath.split(File.pathSeparator)) {
+			File file = new File(entry);
+			if (file.isFile()) {
+				addFingerprint(file, false /* checksum */);
+			}
+		}
+		modified = true;
+	}
+
+	/**
+	 * Loads an index. If the file does not exist or the index is not valid
+	 * any longer then an empty index is returned.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public static StartupIndex load(File file) {
+		if (file.exists()) {
+			try (ObjectInputStream in = new ObjectInputStream(
+					new BufferedInputStream(new FileInputStream(file)))) {
+				StartupIndex index = (StartupIndex) in.readObject();
+				if (index.isValid()) {
+					return index;
+				}
+				log.info("Rebuilding the startup index " + file);
+			} catch (IOException | ClassNotFoundException | ClassCastException e) {
+				log.warn("Ignoring invalid startup index " + file, e);
+			}
+		}
+		return new StartupIndex();
+	}
+
+	/**
+	 * Saves the index if it has been modified. Errors are written to the log.
+	 * 
+	 * @param file
+	 */
+	public synchronized void save(File file) {
+		if (!modified) {
+			return;
+		}
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (!dir.exists()) {
+			dir.mkdirs();
+		}
+		try {
+			// concurrent processes must not read a partially written index
+			File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+			try (ObjectOutputStream out = new ObjectOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeObject(this);
+			}
+			try {
+				Files.move(tmp.toPath(), file.toPath(),
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tmp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			modified = false;
+		} catch (IOException e) {
+			log.error("Cannot save the startup index to " + file, e);
+		}
+	}
+
+	/**
+	 * Returns the absolute paths of the directories containing a resource
+	 * (see {@link PathResolver#getAbsolutePathFromResource(String, String)}).
+	 * The class path is only searched if the result is not part of the index.
+	 * 
+	 * @param resourceDir
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	public synchronized List<Path> getAbsolutePathFromResource(
+			String resourceDir, String fileName) throws Exception {
+		String key = resourceDir + "/" + fileName;
+		List<String> found = paths.get(key);
+		if (found == null) {
+			found = new ArrayList<>();
+			for (Path path : PathResolver.getAbsolutePathFromResource(
+					resourceDir, fileName)) {
+				found.add(path.toString());
+				addFingerprint(path.resolve(fileName).toFile(), true /* checksum */);
+			}
+			// directories which would contain new resources
+			for (String entry : classPath.split(File.pathSeparator)) {
+				File dir = new File(entry, resourceDir);
+				if (dir.isDirectory()) {
+					addDirectories(dir);
+				}
+			}
+			paths.put(key, found);
+			modified = true;
+		}
+		List<Path> ret = new ArrayList<>(found.size());
+		for (String path : found) {
+			ret.add(Paths.get(path));
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the objectIds of the modules
+	 * 
+	 * @return objectId -> directory of the module or <code>null</code> if the
+	 *         objectIds are not part of the index
+	 */
+	public synchronized Map<String, String> getObjectIdFiles() {
+		return objectIdFiles == null ? null : new HashMap<>(objectIdFiles);
+	}
+
+	/**
+	 * Sets the objectIds of the modules
+	 * 
+	 * @param objectIdFiles
+	 *            objectId -> directory of the module
+	 */
+	public synchronized void setObjectIdFiles(Map<String, String> objectIdFiles) {
+		if (!objectIdFiles.equals(this.objectIdFiles)) {
+			this.objectIdFiles = new HashMap<>(objectIdFiles);
+			modified = true;
+		}
+	}
+
+	/**
+	 * Checks the class path and the fingerprints of all files of the index
+	 * 
+	 * @return
+	 */
+	boolean isValid() {
+		if (!classPath.equals(System.getProperty("java.class.path", ""))) {
+			return false;
+		}
+		for (Map.Entry<String, String> fingerprint : fingerprints.entrySet()) {
+			File file = new File(fingerprint.getKey());
+			boolean checksum = fingerprint.getValue().split(":").length > 2;
+			if (!fingerprint.getValue().equals(
+					getFingerprint(file, checksum))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addDirectories(File dir) {
+		addFingerprint(dir, false /* checksum */);
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.isDirectory()) {
+					addDirectories(file);
+				}
+			}
+		}
+	}
+
+	private void addFingerprint(File file, boolean checksum) {
+		fingerprints.put(file.getAbsolutePath(), getFingerprint(file, checksum));
+	}
+
+	/**
+	 * Gets the fingerprint of a file: modification time, size and optionally
+	 * the CRC32 checksum of the content
+	 * 
+	 * @param file
+	 * @param checksum
+	 * @return
+	 */
+	static String getFingerprint(File file, boolean checksum) {
+		if (!file.exists()) {
+			return "-";
+		}
+		StringBuilder ret = new StringBuilder();
+		ret.append(file.lastModified()).append(':')
+				.append(file.isDirectory() ? 0 : file.length());
+		if (checksum && file.isFile()) {
+			CRC32 crc = new CRC32();
+			byte[] buffer = new byte[8192];
+			try (InputStream in = new FileInputStream(file)) {
+				int count;
+				while ((count = in.read(buffer)) >= 0) {
+					crc.update(buffer, 0, count);
+				}
+			} catch (IOException e) {
+				return "-";
+			}
+			ret.append(':').append(Long.toHexString(crc.getValue()));
+		}
+		return ret.toString();
+	}
+}
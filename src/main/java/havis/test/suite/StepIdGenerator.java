@@ -0,0 +1,82 @@
+package havis.test.suite;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the ids of test cases and step executions. All ids consist of 32
+ * hexadecimal characters.
+ */
+public enum StepIdGenerator {
+	/**
+	 * Random UUIDs without hyphens
+	 */
+	RANDOM {
+		@Override
+		public String next() {
+			return UUID.randomUUID().toString().replace("-", "");
+		}
+	},
+	/**
+	 * 128 bit ids consisting of a random prefix of the process (64 bit) and a
+	 * sequence number (64 bit). The ids of a thread are monotonically
+	 * increasing. The prefix keeps the ids unique across the processes of a
+	 * sharded run.
+	 */
+	SEQUENTIAL {
+		@Override
+		public String next() {
+			long[] block = blocks.get();
+			if (block[0] == block[1]) {
+				// reserve the next block of sequence numbers for the thread
+				block[0] = sequence.getAndAdd(BLOCK_SIZE);
+				block[1] = block[0] + BLOCK_SIZE;
+			}
+			char[] ret = new char[32];
+			toHex(prefix, ret, 0);
+			toHex(block[0]++, ret, 16);
+			return new String(ret);
+		}
+	};
+
+	// count of sequence numbers which are reserved by a thread at once
+	private static final int BLOCK_SIZE = 1024;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final long prefix = new SecureRandom().nextLong();
+	private static final AtomicLong sequence = new AtomicLong();
+	/**
+	 * next sequence number, end of the reserved block
+	 */
+	private static final ThreadLocal<long[]> blocks = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[2];
+		}
+	};
+
+	/**
+	 * Returns a new id
+	 *
+	 * @return 32 hexadecimal characters
+	 */
+	public abstract String next();
+
+	private static void toHex(long value, char[] dest, int offset) {
+		for (int i = 15; i >= 0; i--) {
+			dest[offset + i] = HEX[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+
+	/**
+	 * Returns the generator for a name (case insensitive)
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static StepIdGenerator fromName(String name) {
+		return valueOf(name.toUpperCase(Locale.ENGLISH));
+	}
+}
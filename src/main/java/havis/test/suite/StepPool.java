@@ -0,0 +1,119 @@
+package havis.test.suite;
+
+import havis.test.suite.api.Step;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Pool of step module instances. Instances of prototype scoped modules which
+ * implement {@link ResettableStep} are reset after an execution and reused by
+ * later executions of the same thread, so they are not created by the
+ * application context again. Instances of other modules are not pooled.
+ */
+public class StepPool {
+	private static final Logger log = LoggerFactory.getLogger(StepPool.class);
+
+	private final int size;
+	/**
+	 * objectId -> free instances of the current thread
+	 */
+	private final ThreadLocal<Map<String, Deque<Step>>> instances = new ThreadLocal<Map<String, Deque<Step>>>() {
+		@Override
+		protected Map<String, Deque<Step>> initialValue() {
+			return new HashMap<>();
+		}
+	};
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong reused = new AtomicLong();
+
+	/**
+	 * 
+	 * @param size
+	 *            max. count of free instances per objectId and thread
+	 */
+	public StepPool(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Size must be greater than 0");
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Gets an instance of a step module. A free instance of the current thread
+	 * is reused, otherwise the instance is fetched from the application
+	 * context.
+	 * 
+	 * @param context
+	 * @param objectId
+	 * @return
+	 */
+	public Step borrow(ApplicationContext context, String objectId) {
+		Deque<Step> free = instances.get().get(objectId);
+		if (free != null) {
+			Step step = free.pollFirst();
+			if (step != null) {
+				reused.incrementAndGet();
+				return step;
+			}
+		}
+		created.incrementAndGet();
+		return (Step) context.getBean(objectId);
+	}
+
+	/**
+	 * Returns an instance after an execution. The instance is reset and
+	 * stored for the current thread if it can be reused.
+	 * 
+	 * @param context
+	 * @param objectId
+	 * @param step
+	 */
+	public void release(ApplicationContext context, String objectId, Step step) {
+		if (!(step instanceof ResettableStep) || !context.isPrototype(objectId)) {
+			return;
+		}
+		try {
+			((ResettableStep) step).reset();
+		} catch (Exception e) {
+			log.warn("Discarding instance of step module with objectId '"
+					+ objectId + "' after failed reset", e);
+			return;
+		}
+		Map<String, Deque<Step>> threadInstances = instances.get();
+		Deque<Step> free = threadInstances.get(objectId);
+		if (free == null) {
+			free = new ArrayDeque<>();
+			threadInstances.put(objectId, free);
+		}
+		if (free.size() < size) {
+			free.addFirst(step);
+		}
+	}
+
+	/**
+	 * Returns the count of instances which have been fetched from the
+	 * application context
+	 * 
+	 * @return
+	 */
+	public long getCreated() {
+		return created.get();
+	}
+
+	/**
+	 * Returns the count of reused instances
+	 * 
+	 * @return
+	 */
+	public long getReused() {
+		return reused.get();
+	}
+}
@@ -5,6 +5,7 @@ import havis.test.suite.common.messaging.ExceptionSerializer;
 import havis.test.suite.common.messaging.XMLMessage;
 import havis.test.suite.dto.TestAutomatDTO;
 import havis.test.suite.dto.TestCaseDTO;
+import havis.test.suite.exceptions.AbortedException;
 import havis.test.suite.exceptions.ReportedException;
 import havis.test.suite.exceptions.VerificationException;
 import havis.test.suite.testcase.ModuleType;
@@ -15,7 +16,6 @@ import havis.test.suite.testcase.ThreadsType;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +27,15 @@ public class Steps {
 	private final List<StepType> steps;
 	private final String logBasePath;
 	private List<Reporter> reporters;
+	private String path = "";
+	// compiled at the first run if it is not set
+	private ExecutionPlan plan;
+	// paths to the steps (created for the current path at the first run)
+	private String[] stepPaths;
+	private String stepPathsBase;
+	// paths to the steps for recording the latencies (null if the latencies
+	// are not recorded)
+	private String[] latencyPaths;
 
 	public List<Reporter> getReporters() {
 		return reporters;
@@ -36,6 +45,34 @@ public class Steps {
 		this.reporters = reporters;
 	}
 
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Sets the path to the step list (used for streaming reports, see
+	 * {@link ReportRecord})
+	 * 
+	 * @param path
+	 */
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public ExecutionPlan getPlan() {
+		return plan;
+	}
+
+	/**
+	 * Sets the execution plan of the step list. If the plan is not set then
+	 * it is compiled at the first run.
+	 * 
+	 * @param plan
+	 */
+	public void setPlan(ExecutionPlan plan) {
+		this.plan = plan;
+	}
+
 	/**
 	 * 
 	 * @param testAutomatDTO
@@ -60,12 +97,33 @@ public class Steps {
 	 * @throws Exception
 	 */
 	public void run() throws Exception {
+		if (plan == null || !plan.matches(steps)) {
+			plan = ExecutionPlan.compile(steps, logBasePath,
+					testAutomatDTO.getObjectIdFiles());
+		}
+		if (stepPaths == null || !path.equals(stepPathsBase)) {
+			stepPaths = new String[steps.size()];
+			for (int i = 0; i < stepPaths.length; i++) {
+				stepPaths[i] = ReportStream.getPath(path, i);
+			}
+			stepPathsBase = path;
+			latencyPaths = null;
+			if (testCaseDTO.getLatencies() != null) {
+				latencyPaths = new String[stepPaths.length];
+				for (int i = 0; i < latencyPaths.length; i++) {
+					latencyPaths[i] = LatencyRecorder.getStepPath(stepPaths[i]);
+				}
+			}
+		}
 		// get new pass no
 		int passNo = getMaxPassNo(steps) + 1;
 		// for each step
-		for (StepType step : steps) {
-			String stepId = UUID.randomUUID().toString().replace("-", "");
-			String logPath = logBasePath + "->" + step.getName();
+		for (int i = 0; i < steps.size(); i++) {
+			TestautomatMetrics.getInstance().checkAborted();
+			StepType step = steps.get(i);
+			ExecutionPlan.StepPlan stepPlan = plan.get(i);
+			String stepId = testAutomatDTO.getStepIds().next();
+			String logPath = stepPlan.getLogPath();
 			// add report data to step
 			if (step.getReports() == null) {
 				step.setReports(new StepReportsType());
@@ -77,62 +135,88 @@ public class Steps {
 			stepReports.add(stepReport);
 
 			try {
-				log.info("Executing step " + logPath);
-				if (step.getModule() != null) {
-					Module module = new Module(testAutomatDTO, testCaseDTO,
-							stepId, step.getModule());
-					module.run(passNo);
-				} else if (step.getImport() != null) {
-					Import importStep = new Import(testAutomatDTO, testCaseDTO,
-							stepId, step.getImport(), logPath);
-					importStep.setReporters(reporters);
-					importStep.run();
-				} else if (step.getLoop() != null) {
-					Loop loop = new Loop(testAutomatDTO, testCaseDTO,
-							step.getLoop(), logPath);
-					loop.setReporters(reporters);
-					loop.run();
-				} else if (step.getThreads() != null) {
-					ThreadsType threads = step.getThreads();
-					ThreadGroups threadGroups = new ThreadGroups(
-							testAutomatDTO, testCaseDTO,
-							threads.getThreadGroup(), logPath);
-					threadGroups.setReporters(reporters);
-					threadGroups.run();
-				}
-			} catch (VerificationException e) {
-				if (step.isThrowVerificationErrors()) {
-					// forward verification exception to parent
-					throw e;
-				}
-				log.warn("Verification error skipped", e);
-				// send intermediate report
-				sendIntermediateReport();
-			} catch (ReportedException e) {
-				if (step.isThrowExceptions()) {
-					// forward reported exception to parent
+				try {
+					log.info("Executing step " + logPath);
+					switch (stepPlan.getKind()) {
+					case MODULE:
+						Module module = new Module(testAutomatDTO, testCaseDTO,
+								stepId, step.getModule());
+						module.setModuleHome(stepPlan.getModuleHome());
+						if (latencyPaths != null) {
+							module.setLatencyPath(latencyPaths[i]);
+						}
+						module.run(passNo);
+						break;
+					case IMPORT:
+						Import importStep = new Import(testAutomatDTO, testCaseDTO,
+								stepId, step.getImport(), logPath);
+						importStep.setReporters(reporters);
+						importStep.run();
+						break;
+					case LOOP:
+						Loop loop = new Loop(testAutomatDTO, testCaseDTO,
+								step.getLoop(), logPath);
+						loop.setReporters(reporters);
+						loop.setPath(stepPaths[i]);
+						loop.setPlan(stepPlan.getLoopPlan());
+						loop.run();
+						break;
+					case THREADS:
+						ThreadsType threads = step.getThreads();
+						ThreadGroups threadGroups = new ThreadGroups(
+								testAutomatDTO, testCaseDTO,
+								threads.getThreadGroup(), logPath);
+						threadGroups.setReporters(reporters);
+						threadGroups.setPath(stepPaths[i]);
+						threadGroups.setPlans(stepPlan.getThreadGroupPlans());
+						threadGroups.run();
+						break;
+					default:
+						break;
+					}
+				} catch (VerificationException e) {
+					if (step.isThrowVerificationErrors()) {
+						// forward verification exception to parent
+						throw e;
+					}
+					log.warn("Verification error skipped", e);
+					// send intermediate report
+					sendIntermediateReport();
+				} catch (ReportedException e) {
+					if (step.isThrowExceptions()) {
+						// forward reported exception to parent
+						throw e;
+					}
+					log.warn("Exception skipped", e);
+					// send intermediate report
+					sendIntermediateReport();
+
+				} catch (AbortedException e) {
+					// forward the abort of the execution to the test case
 					throw e;
+				} catch (Throwable t) {
+					// add unreported exception to step report
+					int lastReport = step.getReports().getReport().size() - 1;
+					step.getReports()
+							.getReport()
+							.get(lastReport)
+							.setException(
+									ExceptionSerializer.getExceptionStackXml(t));
+					if (step.isThrowExceptions()) {
+						// forward exception as reported exception to parent
+						throw new ReportedException("Execution of step " + stepId
+								+ " failed", t);
+					}
+					log.warn("Exception skipped", t);
+					// send intermediate report
+					sendIntermediateReport();
 				}
-				log.warn("Exception skipped", e);
-				// send intermediate report
-				sendIntermediateReport();
-
-			} catch (Throwable t) {
-				// add unreported exception to step report
-				int lastReport = step.getReports().getReport().size() - 1;
-				step.getReports()
-						.getReport()
-						.get(lastReport)
-						.setException(
-								ExceptionSerializer.getExceptionStackXml(t));
-				if (step.isThrowExceptions()) {
-					// forward exception as reported exception to parent
-					throw new ReportedException("Execution of step " + stepId
-							+ " failed", t);
+			} finally {
+				TestautomatMetrics.getInstance().stepExecuted();
+				if (testCaseDTO.getReportStream() != null) {
+					// stream the reports of the step
+					testCaseDTO.getReportStream().add(stepPaths[i], step);
 				}
-				log.warn("Exception skipped", t);
-				// send intermediate report
-				sendIntermediateReport();
 			}
 		}
 	}
@@ -173,18 +257,46 @@ public class Steps {
 	}
 
 	/**
-	 * Sends intermediate reports to all reporters.
+	 * Sends intermediate reports to all reporters. Reporters which support
+	 * delta reports only get the reports added since the last intermediate
+	 * report.
 	 * 
 	 * @throws Exception
 	 */
 	private void sendIntermediateReport() throws Exception {
-		// create report
-		String report = new XMLMessage(testCaseDTO.getTestCase())
-				.getSerializationString("testCase", "http://www.HARTING.com/RFID/TestAutomat");
+		String report = null;
+		String deltaReport = null;
 		// for each reporter
 		for (Reporter reporter : reporters) {
-			// send report
-			reporter.report(report);
+			if (reporter instanceof DeltaReporter
+					&& ((DeltaReporter) reporter).isDeltaReport()) {
+				if (deltaReport == null) {
+					// create delta report
+					deltaReport = new XMLMessage(testCaseDTO.getDeltaReport()
+							.create(testCaseDTO.getTestCase()))
+							.getSerializationString("testCase", "http://www.HARTING.com/RFID/TestAutomat");
+				}
+				// send delta report
+				if (reporter instanceof AsyncReporter) {
+					((AsyncReporter) reporter).report(
+							testCaseDTO.getTestCase(), deltaReport, true, true);
+				} else {
+					reporter.report(deltaReport);
+				}
+			} else {
+				if (report == null) {
+					// create report
+					report = new XMLMessage(testCaseDTO.getTestCase())
+							.getSerializationString("testCase", "http://www.HARTING.com/RFID/TestAutomat");
+				}
+				// send report
+				if (reporter instanceof AsyncReporter) {
+					((AsyncReporter) reporter).report(
+							testCaseDTO.getTestCase(), report, true, false);
+				} else {
+					reporter.report(report);
+				}
+			}
 		}
 	}
 
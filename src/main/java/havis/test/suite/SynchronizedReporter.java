@@ -0,0 +1,80 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.api.Reporter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializes the calls of a reporter module which receives reports from test
+ * cases executed in parallel
+ */
+public class SynchronizedReporter implements Reporter, DeltaReporter,
+		ReportSink {
+
+	private final Reporter reporter;
+
+	/**
+	 * 
+	 * @param reporter
+	 *            the reporter module
+	 */
+	public SynchronizedReporter(Reporter reporter) {
+		this.reporter = reporter;
+	}
+
+	/**
+	 * Wraps reporters whose calls must be serialized. Asynchronous reporters
+	 * are thread safe and are not wrapped.
+	 * 
+	 * @param reporters
+	 * @return
+	 */
+	public static List<Reporter> synchronize(List<Reporter> reporters) {
+		List<Reporter> ret = new ArrayList<Reporter>(reporters.size());
+		for (Reporter reporter : reporters) {
+			ret.add(reporter instanceof AsyncReporter ? reporter
+					: new SynchronizedReporter(reporter));
+		}
+		return ret;
+	}
+
+	public Reporter getReporter() {
+		return reporter;
+	}
+
+	@Override
+	public synchronized void start(NDIContext context, String moduleHome,
+			String outputDir) throws Exception {
+		reporter.start(context, moduleHome, outputDir);
+	}
+
+	@Override
+	public synchronized void stop() throws Exception {
+		reporter.stop();
+	}
+
+	@Override
+	public synchronized void cleanup() throws Exception {
+		reporter.cleanup();
+	}
+
+	@Override
+	public synchronized void report(String report) throws Exception {
+		reporter.report(report);
+	}
+
+	@Override
+	public synchronized void report(ReportRecord record) throws Exception {
+		if (reporter instanceof ReportSink) {
+			((ReportSink) reporter).report(record);
+		}
+	}
+
+	@Override
+	public boolean isDeltaReport() {
+		return reporter instanceof DeltaReporter
+				&& ((DeltaReporter) reporter).isDeltaReport();
+	}
+}
@@ -4,10 +4,10 @@ import havis.test.suite.api.Reporter;
 import havis.test.suite.common.IO;
 import havis.test.suite.common.XmlValidationException;
 import havis.test.suite.common.messaging.XMLMessage;
-import havis.test.suite.common.messaging.XSD;
 import havis.test.suite.dto.TestAutomatDTO;
 import havis.test.suite.dto.TestCaseDTO;
 import havis.test.suite.dto.TestCasesDTO;
+import havis.test.suite.exceptions.AbortedException;
 import havis.test.suite.testcase.EntryType;
 import havis.test.suite.testcase.ParametersType;
 import havis.test.suite.testcase.TestCaseReportType;
@@ -18,11 +18,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
-import javax.xml.datatype.DatatypeFactory;
-
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.stringtemplate.v4.ST;
@@ -71,28 +67,38 @@ public class TestCase {
 		this.logBasePath = logBasePath;
 		reporters = new ArrayList<Reporter>();
 		// generate testCaseId
-		String testCaseId = UUID.randomUUID().toString().replace("-", "");
+		String testCaseId = testAutomatDTO.getStepIds().next();
 		if (testCaseParameters == null) {
 			testCaseParameters = new HashMap<>();
 		}
 		testCaseParameters.put("testCaseId", testCaseId);
 		// load test case
 		String file = testCaseHome.replace(File.separator, "/") + "/" +  testCasesDTO.getDescriptorFileName();
-		IO io = new IO(testAutomatDTO.getObjContext());
-		String content = io.loadResource(file);
-		// apply template
-		content = applyTestCaseTemplate(content, testCasesDTO.getParameters(),
-				testCaseParameters);
-		if (testCasesDTO.getXsd() != null) {
+		TestCaseDefinitionCache definitions = testCasesDTO.getDefinitions();
+		HashMap<String, Object> templateParameters = getAllParameters(
+				testCasesDTO.getParameters(), testCaseParameters);
+		TestCaseType definition = null;
+		if (definitions != null) {
+			// use the parsed definition of a previous load
+			definition = definitions.get(file, templateParameters);
+		}
+		if (definition == null) {
+			IO io = new IO(testAutomatDTO.getObjContext());
+			String content = definitions == null ? io.loadResource(file)
+					: definitions.loadFile(io, file);
+			// apply template
+			String testCaseContent = applyTestCaseTemplate(content,
+					templateParameters);
 			// validate the XML content
-			XmlValidationException ve = testCasesDTO.getXsd().validate(content);
-			if (ve != null) {
-				throw ve;
+			validate(testCasesDTO, testCaseContent);
+			// deserialize test case
+			definition = (TestCaseType) new XMLMessage(testCaseContent,
+					TestCaseType.class).getDeserializedObject();
+			if (definitions != null) {
+				definitions.put(file, templateParameters, content, definition);
 			}
 		}
-		// deserialize test case
-		testCase = (TestCaseType) new XMLMessage(content, TestCaseType.class)
-				.getDeserializedObject();
+		testCase = definition;
 		// create test case name from path:
 		// 1. get rel. path to the directory of all test cases
 		// 2. replace directory separator with '.'
@@ -107,6 +113,8 @@ public class TestCase {
 		testCaseDTO.setHome(testCaseHome);
 		testCaseDTO.setTestCase(testCase);
 		testCaseDTO.setParameters(testCaseParameters);
+		testCaseDTO.setResources(new ResourceCache(testAutomatDTO
+				.getObjContext()));
 	}
 
 	/**
@@ -116,7 +124,25 @@ public class TestCase {
 	 */
 	public void run() throws Exception {
 		boolean areStepsExecuted = false;
+		FileReportSink reportFile = null;
+		// the times of the test case are measured from its start
+		TestCaseClock clock = new TestCaseClock();
+		testCaseDTO.setClock(clock);
+		if (testCaseDTO.getBase().isLatencyHistograms()) {
+			testCaseDTO.setLatencies(new LatencyRecorder());
+		}
+		if (testCaseDTO.getBase().isEngineOverhead()) {
+			testCaseDTO.setOverhead(new EngineOverhead());
+		}
+		if (testCaseDTO.getBase().isCachedStepProperties()) {
+			testCaseDTO.setPropertiesCache(new PropertiesCache());
+		}
 		try {
+			if (testCaseDTO.getBase().getReportRetention() > 0) {
+				// stream the reports while executing the steps
+				reportFile = startReportStream(testCaseDTO.getBase()
+						.getReportRetention());
+			}
 			// add existing report data to test case
 			TestCaseReportType report = new TestCaseReportType();
 			report.setName(testCaseDTO.getName());
@@ -125,6 +151,13 @@ public class TestCase {
 			HashMap<String, Object> allParameters = getAllParameters(
 					testCaseDTO.getBase().getParameters(),
 					testCaseDTO.getParameters());
+			if (reportFile != null) {
+				// the report only contains the last reports of each step
+				allParameters.put(ReportProperties.PREFIX + "retainedReports",
+						testCaseDTO.getReportStream().getRetention());
+				allParameters.put(ReportProperties.PREFIX + "reportStream",
+						reportFile.getFile().getAbsolutePath());
+			}
 
 			XMLTypeConverter converter = new XMLTypeConverter();
 			List<EntryType> entries = converter.convert(allParameters);
@@ -150,7 +183,7 @@ public class TestCase {
 //			}
 
 			report.setParentStepId(parentStepId);
-			report.setStartTime(DatatypeFactory.newInstance().newXMLGregorianCalendar(new DateTime().toGregorianCalendar()));
+			report.setStartTime(clock.toCalendar(clock.nanoTime()));
 			testCase.setReport(report);
 			String logPath = (logBasePath == null ? "" : logBasePath + "/")
 					+ testCaseDTO.getName();
@@ -160,28 +193,54 @@ public class TestCase {
 			steps.setReporters(reporters);
 			steps.run();
 			areStepsExecuted = true;
+		} catch (AbortedException e) {
+			// forward the abort of the execution
+			throw e;
 		} catch (Exception e) {
 			log.warn("Exception skipped", e);
 		} finally {
 			// add further report data to test case
-			testCase.getReport().setEndTime(DatatypeFactory.newInstance().newXMLGregorianCalendar(new DateTime().toGregorianCalendar()));
+			testCase.getReport().setEndTime(
+					clock.toCalendar(clock.nanoTime()));
+			if (testCaseDTO.getLatencies() != null
+					&& testCase.getReport().getParameters() != null) {
+				// add the latencies of the step modules
+				testCase.getReport().getParameters().getParameter()
+						.addAll(testCaseDTO.getLatencies().createEntries());
+			}
+			if (testCaseDTO.getOverhead() != null
+					&& testCase.getReport().getParameters() != null) {
+				// add the overhead of the test automat
+				testCase.getReport().getParameters().getParameter()
+						.addAll(testCaseDTO.getOverhead().createEntries());
+			}
 			try {
+				if (reportFile != null) {
+					try {
+						// send the test case report to the stream
+						testCaseDTO.getReportStream().finish(
+								testCase.getReport());
+					} finally {
+						reportFile.close();
+					}
+				}
 				// serialize and validate the test case
 				String testCaseStr = new XMLMessage(testCase)
 						.getSerializationString("testCase", "http://www.HARTING.com/RFID/TestAutomat");
-				XSD xsd = testCaseDTO.getBase().getXsd();
-				if (xsd != null) {
-					XmlValidationException ve = xsd.validate(testCaseStr);
-
-					if (ve != null) {
-						throw ve;
-					}
-
+				ReportValidation reportValidation = testCaseDTO.getBase()
+						.getReportValidation();
+				if (reportValidation == null || reportValidation.next()) {
+					validate(testCaseDTO.getBase(), testCaseStr);
 				}
 				// for each reporter
 				for (Reporter reporter : reporters) {
 					// send the test case as report
-					reporter.report(testCaseStr);
+					if (reporter instanceof AsyncReporter) {
+						((AsyncReporter) reporter).report(testCase,
+								testCaseStr, false, false);
+					} else {
+						reporter.report(testCaseStr);
+					}
 				}
 			} catch (Exception e) {
 				// if only the sending of reports failed
@@ -198,25 +257,77 @@ public class TestCase {
 	}
 
 	/**
-	 * Applies a template. In addition to the given parameters the parameter
-	 * testCaseId is set
+	 * Validates XML content against the schema of the test cases. The
+	 * compiled schema is used if available, else the XSD.
 	 * 
+	 * @param testCasesDTO
 	 * @param content
-	 * @param testCaseId
-	 * @param testCasesParameters
-	 *            parameters for all test cases
-	 * @param testCaseParameters
-	 *            parameters for only this test case
+	 * @throws Exception
+	 */
+	private static void validate(TestCasesDTO testCasesDTO, String content)
+			throws Exception {
+		if (testCasesDTO.getSchema() != null) {
+			testCasesDTO.getSchema().validate(content);
+		} else if (testCasesDTO.getXsd() != null) {
+			XmlValidationException ve = testCasesDTO.getXsd()
+					.validate(content);
+			if (ve != null) {
+				throw ve;
+			}
+		}
+	}
+
+	/**
+	 * Creates the report stream of the test case. The reports are written to
+	 * a file and sent to all reporters which are report sinks.
+	 * 
+	 * @param retention
+	 *            count of reports which are kept per step
+	 * @return the file the reports are written to
+	 * @throws Exception
+	 */
+	private FileReportSink startReportStream(int retention) throws Exception {
+		String dir = testCaseDTO.getBase().getReportStreamDir();
+		if (dir == null) {
+			dir = System.getProperty("java.io.tmpdir");
+		}
+		FileReportSink reportFile = new FileReportSink(new File(dir,
+				testCaseDTO.getId() + ".reports"));
+		List<ReportSink> sinks = new ArrayList<ReportSink>();
+		sinks.add(reportFile);
+		for (Reporter reporter : reporters) {
+			if (reporter instanceof ReportSink) {
+				sinks.add((ReportSink) reporter);
+			}
+		}
+		log.info("Streaming reports of test case " + testCaseDTO.getName()
+				+ " to " + reportFile.getFile().getAbsolutePath());
+		ReportStream reportStream = new ReportStream(testCaseDTO.getId(),
+				retention, sinks);
+		testCaseDTO.setReportStream(reportStream);
+		try {
+			reportStream.start(testCase);
+		} catch (Exception e) {
+			reportFile.close();
+			throw e;
+		}
+		return reportFile;
+	}
+
+	/**
+	 * Applies a template
+	 * 
+	 * @param content
+	 * @param parameters
+	 *            parameters for all test cases and for only this test case
+	 *            including the parameter testCaseId
 	 * @return
 	 */
 	private String applyTestCaseTemplate(String content,
-			Map<String, Object> testCasesParameters,
-			Map<String, Object> testCaseParameters) {
-		HashMap<String, Object> allParameters = getAllParameters(
-				testCasesParameters, testCaseParameters);
+			Map<String, Object> parameters) {
 		// add all parameters to template and return the rendered template
 		ST template = new ST(content, '$', '$');
-		for (Map.Entry<String, Object> parameter : allParameters.entrySet()) {
+		for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
 			template.add(parameter.getKey(), parameter.getValue());
 		}
 		return template.render();
@@ -0,0 +1,63 @@
+package havis.test.suite;
+
+import java.math.BigDecimal;
+import java.util.GregorianCalendar;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Measures the times of a test case with {@link System#nanoTime()}. The
+ * measured times are converted to wall clock times relative to a single
+ * anchor which is taken when the clock is created, so the durations between
+ * the converted times are precise to a microsecond.
+ */
+public class TestCaseClock {
+
+	private static final ThreadLocal<DatatypeFactory> factories = new ThreadLocal<DatatypeFactory>() {
+		@Override
+		protected DatatypeFactory initialValue() {
+			try {
+				return DatatypeFactory.newInstance();
+			} catch (DatatypeConfigurationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	private final long anchorMillis;
+	private final long anchorNanos;
+
+	public TestCaseClock() {
+		anchorMillis = System.currentTimeMillis();
+		anchorNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns the current time of the clock
+	 * 
+	 * @return time in ns (see {@link System#nanoTime()})
+	 */
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Converts a time of the clock to a wall clock time with a precision of a
+	 * microsecond
+	 * 
+	 * @param nanoTime
+	 *            time in ns (see {@link #nanoTime()})
+	 * @return
+	 */
+	public XMLGregorianCalendar toCalendar(long nanoTime) {
+		long micros = anchorMillis * 1000 + (nanoTime - anchorNanos) / 1000;
+		GregorianCalendar calendar = new GregorianCalendar();
+		calendar.setTimeInMillis(micros / 1000);
+		XMLGregorianCalendar ret = factories.get().newXMLGregorianCalendar(
+				calendar);
+		ret.setFractionalSecond(BigDecimal.valueOf(micros % 1000000, 6));
+		return ret;
+	}
+}
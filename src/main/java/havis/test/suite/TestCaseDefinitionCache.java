@@ -0,0 +1,186 @@
+package havis.test.suite;
+
+import havis.test.suite.common.IO;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of parsed test case definitions. A definition is keyed by the
+ * path of its descriptor file and the template parameters and evicted in LRU
+ * order. Definitions whose template references the parameter "testCaseId" are
+ * not cached because the id is unique for each test case. The cache returns
+ * copies of the definitions without reports.
+ */
+public class TestCaseDefinitionCache {
+
+	private static final int DEFAULT_CAPACITY = 256;
+	private static final String TEST_CASE_ID = "testCaseId";
+
+	private final int capacity;
+	/**
+	 * path -> file content
+	 */
+	private final ConcurrentMap<String, String> files = new ConcurrentHashMap<>();
+	private final Map<Key, TestCaseType> definitions;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public TestCaseDefinitionCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 
+	 * @param capacity
+	 *            max. count of definitions
+	 */
+	public TestCaseDefinitionCache(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be greater than 0");
+		}
+		this.capacity = capacity;
+		definitions = new LinkedHashMap<Key, TestCaseType>(16, 0.75f, true /* accessOrder */) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Key, TestCaseType> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Loads the descriptor file of a test case. The file is only loaded at the
+	 * first call.
+	 * 
+	 * @param io
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	public String loadFile(IO io, String path) throws IOException {
+		String content = files.get(path);
+		if (content == null) {
+			content = io.loadResource(path);
+			String existing = files.putIfAbsent(path, content);
+			if (existing != null) {
+				content = existing;
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * Returns a copy of a cached definition
+	 * 
+	 * @param path
+	 *            path of the descriptor file
+	 * @param parameters
+	 *            template parameters
+	 * @return null, if the definition is not cached
+	 */
+	public TestCaseType get(String path, Map<String, Object> parameters) {
+		TestCaseType definition;
+		synchronized (definitions) {
+			definition = definitions.get(new Key(path, parameters));
+		}
+		if (definition == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return DefinitionCopier.copyTestCase(definition);
+	}
+
+	/**
+	 * Adds a definition to the cache. The definition is copied, so it can be
+	 * used for executing the test case. The definition is not cached if the
+	 * template of the descriptor file references the test case id.
+	 * 
+	 * @param path
+	 *            path of the descriptor file
+	 * @param parameters
+	 *            template parameters
+	 * @param content
+	 *            content of the descriptor file before applying the template
+	 * @param definition
+	 *            definition without reports
+	 * @return whether the definition has been cached
+	 */
+	public boolean put(String path, Map<String, Object> parameters,
+			String content, TestCaseType definition) {
+		if (content.contains(TEST_CASE_ID)) {
+			return false;
+		}
+		TestCaseType copy = DefinitionCopier.copyTestCase(definition);
+		synchronized (definitions) {
+			definitions.put(new Key(path, parameters), copy);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all definitions and files and resets the counters
+	 */
+	public void clear() {
+		synchronized (definitions) {
+			definitions.clear();
+		}
+		files.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getSize() {
+		synchronized (definitions) {
+			return definitions.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private static class Key {
+		private final String path;
+		private final Map<String, Object> parameters;
+
+		Key(String path, Map<String, Object> parameters) {
+			this.path = path;
+			// the test case id is unique and not used by cached definitions
+			this.parameters = new HashMap<String, Object>(parameters);
+			this.parameters.remove(TEST_CASE_ID);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * path.hashCode() + parameters.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) obj;
+			return path.equals(key.path) && parameters.equals(key.parameters);
+		}
+	}
+}
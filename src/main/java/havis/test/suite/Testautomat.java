@@ -7,7 +7,6 @@ import havis.test.suite.api.StatisticCreator;
 import havis.test.suite.api.UI;
 import havis.test.suite.api.dto.ModulesObjectIds;
 import havis.test.suite.common.PathResolver;
-import havis.test.suite.common.messaging.XSD;
 import havis.test.suite.common.ndi.MapNDIProvider;
 import havis.test.suite.common.ndi.SynchronizedNDIContext;
 import havis.test.suite.dto.TestAutomatDTO;
@@ -17,26 +16,47 @@ import havis.test.suite.exceptions.VerificationException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URISyntaxException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultBeanNameGenerator;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
 
 
 public class Testautomat {
@@ -46,15 +66,55 @@ public class Testautomat {
 	private final String objectsDeploymentDescriptor = "beans.xml";
 	private final String urlHead = "classpath:";
 	private final String reportsDir = "reportsDir";
+	private final String reportStreamsDir = "reportStreams";
 	private final String statisticsDir = "statisticsDir";
 	private final String xsdDir = "xsd";
 	private final String xsdDescriptorFileName = "TestCase.xsd";
 	private final String testCasesDescriptorFileName = "testCase.xml";
 	private final String testCasesDir = "testcases";
+	private final String testCaseResourcesFileName = "testCase.properties";
+	private final String testCaseResourcesProperty = "resources";
+	private final String shardDurationsFileName = "shardDurations.properties";
+	private final String startupIndexFileName = "startupIndex";
 	/**
 	 * ObjectId -> file name
 	 */
 	private Map<String, String> objectIdFiles = new HashMap<String, String>();
+	// resources found at the start (loaded from the last run)
+	private StartupIndex startupIndex;
+	// compiled XSD for all test cases of the run
+	private SchemaValidator schema;
+	private ThreadGroupExecution threadGroupExecution;
+	private Integer threadGroupPoolSize;
+	private RampUpProfile rampUpProfile;
+	private Integer rampUpSteps;
+	private Double arrivalRate;
+	private Long arrivalDuration;
+	private Integer reportRetention;
+	// reporter modules are called asynchronously if the queue size is set
+	private Integer reporterQueueSize;
+	private int reporterBatchSize = 100;
+	private ReportOverflowPolicy reporterOverflow = ReportOverflowPolicy.BLOCK;
+	// counts the final reports of all test cases of the run
+	private ReportValidation reportValidation;
+	// count of test cases which are executed concurrently
+	private int testCaseWorkers = 1;
+	// count of worker processes which execute the test cases
+	private int shards = 1;
+	private ShardBalancing shardBalancing = ShardBalancing.HASH;
+	// sends the reports to the coordinator if the test cases are executed by
+	// a shard worker
+	private ShardReporter shardReporter;
+	// instances of step modules are reused if the pool is set
+	private StepPool stepPool;
+	private StepIdGenerator stepIds = StepIdGenerator.RANDOM;
+	private boolean latencyHistograms;
+	// measures the execution phases of the step modules
+	private boolean engineOverhead;
+	// converts static step properties once per test case
+	private boolean cachedStepProperties;
+	// publishes the metrics via JMX
+	private boolean jmx;
 
 	/**
 	 * Runs the test automat
@@ -76,8 +136,13 @@ public class Testautomat {
 			// start UI
 			NDIContext globalContext = new SynchronizedNDIContext();
 			globalContext.setProvider(new MapNDIProvider());
-			uiObjectId = getUIObjectId(args);
-			List<Path> testCasesDirectories = PathResolver
+			CommandLine commandLine = parseCommandLine(args);
+			uiObjectId = getUIObjectId(commandLine);
+			configure(commandLine);
+			if (jmx) {
+				TestautomatMetrics.getInstance().register();
+			}
+			List<Path> testCasesDirectories = getStartupIndex()
 					.getAbsolutePathFromResource(testCasesDir,
 							testCasesDescriptorFileName);
 			List<String> testCasesDirs = new ArrayList<String>();
@@ -91,13 +156,17 @@ public class Testautomat {
 			if (testCasesPaths != null && testCasesPaths.size() > 0) {
 				// get objectIds of modules from UI
 				modulesObjectIds = ui.getModulesObjectIds();
-				// start app modules
-				apps = startApps(globalContext, objContext,
-						modulesObjectIds.getApps());
-				// get test case parameters from app modules
-				List<App> appList = getObjectList(modulesObjectIds.getApps(),
-						apps);
-				Map<String, Object> testCasesParameters = getTestCasesParameters(appList);
+				Map<String, Object> testCasesParameters = null;
+				// the app modules are started by the shard workers
+				if (shards == 1) {
+					// start app modules
+					apps = startApps(globalContext, objContext,
+							modulesObjectIds.getApps());
+					// get test case parameters from app modules
+					List<App> appList = getObjectList(
+							modulesObjectIds.getApps(), apps);
+					testCasesParameters = getTestCasesParameters(appList);
+				}
 				// start reporter modules
 				reporters = startReporters(globalContext, objContext,
 						modulesObjectIds.getReporters());
@@ -117,9 +186,15 @@ public class Testautomat {
 				// while the UI provides test cases
 				do {
 					// execute test cases
-					executeTestsCases(globalContext, objContext, ui,
-							testCasesDirs, testCasesPaths, testCasesParameters,
-							allReportersList);
+					if (shards > 1) {
+						executeShards(testCasesPaths,
+								modulesObjectIds.getApps(), args,
+								allReportersList);
+					} else {
+						executeTestsCases(globalContext, objContext, ui,
+								testCasesDirs, testCasesPaths,
+								testCasesParameters, allReportersList);
+					}
 					// execute statistic creator modules
 					executeStatisticCreators(
 							modulesObjectIds.getStatisticCreators(),
@@ -166,20 +241,229 @@ public class Testautomat {
 				// stop IU
 				stopUI(uiObjectId, ui);
 			}
+
+			saveStartupIndex();
+
+			if (jmx) {
+				TestautomatMetrics.getInstance().unregister();
+			}
 		}
 		return 0;
 	}
 
 	/**
-	 * Gets the objectId of the UI
+	 * Runs a shard worker. The worker executes the test cases from the file
+	 * given by the option "shardTestCases" and sends the reports to the
+	 * coordinator (see {@link ShardCoordinator}).
+	 * 
+	 * @param args
+	 *            command line of the coordinator with the options of the
+	 *            worker
+	 * @param reports
+	 *            stream to the coordinator
+	 * @return
+	 */
+	public int runShard(String[] args, OutputStream reports) {
+		String uiObjectId = null;
+		UI ui = null;
+		List<String> appObjectIds = new ArrayList<String>();
+		Map<String, App> apps = null;
+		shardReporter = new ShardReporter(reports);
+
+		try {
+			// load deployment descriptors of the modules
+			ApplicationContext objContext = loadModuleDeploymentDescriptors();
+			// start UI
+			NDIContext globalContext = new SynchronizedNDIContext();
+			globalContext.setProvider(new MapNDIProvider());
+			CommandLine commandLine = parseCommandLine(args);
+			uiObjectId = getUIObjectId(commandLine);
+			configure(commandLine);
+			if (jmx) {
+				TestautomatMetrics.getInstance().register();
+			}
+			if (!commandLine.hasOption("shardTestCases")) {
+				throw new ParseException("Missing option: shardTestCases");
+			}
+			List<String> testCasesPaths = Files.readAllLines(
+					Paths.get(commandLine.getOptionValue("shardTestCases")),
+					StandardCharsets.UTF_8);
+			if (commandLine.hasOption("shardApps")) {
+				appObjectIds.addAll(Arrays.asList(commandLine.getOptionValue(
+						"shardApps").split(",")));
+			}
+			List<Path> testCasesDirectories = getStartupIndex()
+					.getAbsolutePathFromResource(testCasesDir,
+							testCasesDescriptorFileName);
+			List<String> testCasesDirs = new ArrayList<String>();
+			for (Path testCaseDir : testCasesDirectories) {
+				testCasesDirs.add(testCaseDir.toString());
+			}
+			ui = startUI(globalContext, objContext, uiObjectId, testCasesDirs,
+					args);
+			// start app modules
+			apps = startApps(globalContext, objContext, appObjectIds);
+			// get test case parameters from app modules
+			List<App> appList = getObjectList(appObjectIds, apps);
+			Map<String, Object> testCasesParameters = getTestCasesParameters(appList);
+			// execute test cases
+			executeTestsCases(globalContext, objContext, ui, testCasesDirs,
+					testCasesPaths, testCasesParameters,
+					Collections.<Reporter> singletonList(shardReporter));
+		} catch (VerificationException e) {
+			log.error("", e);
+			return 3;
+		} catch (Exception e) {
+			log.error("", e);
+			return 2;
+		} finally {
+			try {
+				shardReporter.stop();
+			} catch (Exception e) {
+				log.error("Ignoring error while sending the reports", e);
+			}
+
+			if (apps != null) {
+				// reverse order of apps
+				Collections.reverse(appObjectIds);
+				// stop app modules
+				stopApps(appObjectIds, apps);
+			}
+
+			if (ui != null) {
+				// stop IU
+				stopUI(uiObjectId, ui);
+			}
+
+			saveStartupIndex();
+
+			if (jmx) {
+				TestautomatMetrics.getInstance().unregister();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Creates the options of the command line. The options must precede the
+	 * objectId of the UI
+	 * 
+	 * @return
+	 */
+	private static Options createOptions() {
+		Options options = new Options();
+		options.addOption(Option.builder().longOpt("threadGroupExecution")
+				.hasArg().argName("platform|virtual|pooled")
+				.desc("execution mode of the threads of thread groups").build());
+		options.addOption(Option.builder().longOpt("threadGroupPoolSize")
+				.hasArg().argName("count")
+				.desc("max. count of platform threads per thread group (pooled); further threads wait for a free platform thread")
+				.build());
+		options.addOption(Option.builder().longOpt("rampUpProfile").hasArg()
+				.argName("linear|stepped|exponential")
+				.desc("profile for starting the threads of thread groups")
+				.build());
+		options.addOption(Option.builder().longOpt("rampUpSteps").hasArg()
+				.argName("count")
+				.desc("count of batches for the stepped ramp-up profile")
+				.build());
+		options.addOption(Option.builder().longOpt("arrivalRate").hasArg()
+				.argName("count")
+				.desc("executions of the step list of a thread group per second")
+				.build());
+		options.addOption(Option.builder().longOpt("arrivalDuration")
+				.hasArg().argName("ms")
+				.desc("period in which executions are started with the arrival rate")
+				.build());
+		options.addOption(Option.builder().longOpt("reportRetention")
+				.hasArg().argName("count")
+				.desc("stream the reports and keep only the last reports per step")
+				.build());
+		options.addOption(Option.builder().longOpt("reporterQueueSize")
+				.hasArg().argName("count")
+				.desc("send reports asynchronously with a queue per reporter module")
+				.build());
+		options.addOption(Option.builder().longOpt("reporterBatchSize")
+				.hasArg().argName("count")
+				.desc("max. count of queued reports which are sent at once")
+				.build());
+		options.addOption(Option.builder().longOpt("reporterOverflow")
+				.hasArg().argName("block|drop-intermediate|spill-to-disk")
+				.desc("handling of reports if the queue of a reporter module is full")
+				.build());
+		options.addOption(Option.builder().longOpt("reportValidation")
+				.hasArg().argName("always|never|first|sampled")
+				.desc("final reports which are validated against the XSD")
+				.build());
+		options.addOption(Option.builder().longOpt("reportValidationCount")
+				.hasArg().argName("count")
+				.desc("count of validated reports (first) or sampling interval (sampled)")
+				.build());
+		options.addOption(Option.builder().longOpt("testCaseWorkers")
+				.hasArg().argName("count")
+				.desc("count of test cases which are executed concurrently")
+				.build());
+		options.addOption(Option.builder().longOpt("shards").hasArg()
+				.argName("count")
+				.desc("count of worker processes which execute the test cases")
+				.build());
+		options.addOption(Option.builder().longOpt("shardBalancing")
+				.hasArg().argName("hash|round-robin|duration")
+				.desc("assignment of the test cases to the worker processes")
+				.build());
+		options.addOption(Option.builder().longOpt("jmx")
+				.desc("publishes the metrics of the execution via JMX")
+				.build());
+		options.addOption(Option.builder().longOpt("latencyHistograms")
+				.desc("adds the latency percentiles of the step modules to the test case reports")
+				.build());
+		options.addOption(Option.builder().longOpt("engineOverhead")
+				.desc("adds the durations of the execution phases of the step modules and the overhead of the test automat to the reports")
+				.build());
+		options.addOption(Option.builder().longOpt("cachedStepProperties")
+				.desc("converts step properties without references to the global context once per test case (the step modules get unmodifiable properties)")
+				.build());
+		options.addOption(Option.builder().longOpt("stepIds").hasArg()
+				.argName("random|sequential")
+				.desc("generator of the ids of test cases and steps")
+				.build());
+		options.addOption(Option.builder().longOpt("stepPoolSize").hasArg()
+				.argName("count")
+				.desc("max. count of reused instances of a prototype step module per thread")
+				.build());
+		// options of the worker processes (set by the coordinator)
+		options.addOption(Option.builder().longOpt("shardTestCases")
+				.hasArg().argName("file")
+				.desc("file with the test cases of a worker process").build());
+		options.addOption(Option.builder().longOpt("shardApps").hasArg()
+				.argName("objectIds")
+				.desc("app modules which are started by a worker process")
+				.build());
+		return options;
+	}
+
+	/**
+	 * Parses the command line
 	 * 
 	 * @param args
 	 * @return
 	 * @throws ParseException
 	 */
-	private static String getUIObjectId(String[] args) throws ParseException {
+	private static CommandLine parseCommandLine(String[] args)
+			throws ParseException {
 		CommandLineParser parser = new DefaultParser();
-		CommandLine line = parser.parse(new Options(), args, true);
+		return parser.parse(createOptions(), args, true);
+	}
+
+	/**
+	 * Gets the objectId of the UI
+	 * 
+	 * @param line
+	 * @return
+	 * @throws ParseException
+	 */
+	private static String getUIObjectId(CommandLine line)
+			throws ParseException {
 		String[] arguments = line.getArgs();
 		if (arguments.length == 0) {
 			throw new ParseException("Missing Parameter: AppSettingsUIObjectId");
@@ -188,49 +472,340 @@ public class Testautomat {
 		}
 	}
 
+	/**
+	 * Reads the settings for the execution of the test cases from the command
+	 * line
+	 * 
+	 * @param line
+	 * @throws ParseException
+	 */
+	private void configure(CommandLine line) throws ParseException {
+		try {
+			if (line.hasOption("threadGroupExecution")) {
+				threadGroupExecution = ThreadGroupExecution.fromName(line
+						.getOptionValue("threadGroupExecution"));
+			}
+			if (line.hasOption("threadGroupPoolSize")) {
+				threadGroupPoolSize = Integer.valueOf(line
+						.getOptionValue("threadGroupPoolSize"));
+			}
+			if (line.hasOption("rampUpProfile")) {
+				rampUpProfile = RampUpProfile.fromName(line
+						.getOptionValue("rampUpProfile"));
+			}
+			if (line.hasOption("rampUpSteps")) {
+				rampUpSteps = Integer.valueOf(line
+						.getOptionValue("rampUpSteps"));
+			}
+			if (line.hasOption("arrivalRate")) {
+				arrivalRate = Double.valueOf(line
+						.getOptionValue("arrivalRate"));
+			}
+			if (line.hasOption("arrivalDuration")) {
+				arrivalDuration = Long.valueOf(line
+						.getOptionValue("arrivalDuration"));
+			}
+			if (line.hasOption("reportRetention")) {
+				reportRetention = Integer.valueOf(line
+						.getOptionValue("reportRetention"));
+			}
+			if (line.hasOption("reporterQueueSize")) {
+				reporterQueueSize = Integer.valueOf(line
+						.getOptionValue("reporterQueueSize"));
+			}
+			if (line.hasOption("reporterBatchSize")) {
+				reporterBatchSize = Integer.valueOf(line
+						.getOptionValue("reporterBatchSize"));
+			}
+			if (line.hasOption("reporterOverflow")) {
+				reporterOverflow = ReportOverflowPolicy.fromName(line
+						.getOptionValue("reporterOverflow"));
+			}
+			if (line.hasOption("reportValidation")) {
+				reportValidation = new ReportValidation(
+						ReportValidation.Policy.fromName(line
+								.getOptionValue("reportValidation")),
+						Integer.valueOf(line.getOptionValue(
+								"reportValidationCount", "1")));
+			}
+			if (line.hasOption("testCaseWorkers")) {
+				testCaseWorkers = Integer.valueOf(line
+						.getOptionValue("testCaseWorkers"));
+				if (testCaseWorkers < 1) {
+					throw new IllegalArgumentException(
+							"testCaseWorkers must be greater than 0");
+				}
+			}
+			if (line.hasOption("shards")) {
+				shards = Integer.valueOf(line.getOptionValue("shards"));
+				if (shards < 1) {
+					throw new IllegalArgumentException(
+							"shards must be greater than 0");
+				}
+			}
+			latencyHistograms = line.hasOption("latencyHistograms");
+			engineOverhead = line.hasOption("engineOverhead");
+			cachedStepProperties = line.hasOption("cachedStepProperties");
+			jmx = line.hasOption("jmx");
+			if (line.hasOption("stepPoolSize")) {
+				stepPool = new StepPool(Integer.valueOf(line
+						.getOptionValue("stepPoolSize")));
+			}
+			if (line.hasOption("stepIds")) {
+				stepIds = StepIdGenerator.fromName(line
+						.getOptionValue("stepIds"));
+			}
+			if (line.hasOption("shardBalancing")) {
+				shardBalancing = ShardBalancing.fromName(line
+						.getOptionValue("shardBalancing"));
+			}
+		} catch (IllegalArgumentException e) {
+			throw new ParseException("Invalid option value: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Applies the settings from the command line to the test cases
+	 * 
+	 * @param casesDTO
+	 */
+	private void configure(TestCasesDTO casesDTO) {
+		if (threadGroupExecution != null) {
+			casesDTO.setThreadGroupExecution(threadGroupExecution);
+		}
+		if (threadGroupPoolSize != null) {
+			casesDTO.setThreadGroupPoolSize(threadGroupPoolSize);
+		}
+		if (rampUpProfile != null) {
+			casesDTO.setRampUpProfile(rampUpProfile);
+		}
+		if (rampUpSteps != null) {
+			casesDTO.setRampUpSteps(rampUpSteps);
+		}
+		if (arrivalRate != null) {
+			casesDTO.setArrivalRate(arrivalRate);
+		}
+		if (arrivalDuration != null) {
+			casesDTO.setArrivalDuration(arrivalDuration);
+		}
+		if (reportValidation != null) {
+			casesDTO.setReportValidation(reportValidation);
+		}
+		casesDTO.setLatencyHistograms(latencyHistograms);
+		casesDTO.setEngineOverhead(engineOverhead);
+		casesDTO.setCachedStepProperties(cachedStepProperties);
+		if (reportRetention != null && reportRetention > 0) {
+			casesDTO.setReportRetention(reportRetention);
+			File dir = new File(Paths.get("").toAbsolutePath().toString(),
+					"target" + File.separator + reportStreamsDir);
+			if (!dir.exists()) {
+				dir.mkdirs();
+			}
+			casesDTO.setReportStreamDir(dir.getAbsolutePath());
+		}
+	}
+
 	/**
 	 * Loads the object definitions of available modules via the spring
 	 * framework. Each module has its own sub directory with the deployment
-	 * descriptor "objects.xml"
+	 * descriptor "objects.xml". The descriptors are parsed in parallel and
+	 * registered in the order of the modules.
 	 * 
 	 * @return
-	 * @throws IOException
-	 * @throws URISyntaxException
+	 * @throws Exception
 	 */
 	private ApplicationContext loadModuleDeploymentDescriptors()
-			throws IOException, URISyntaxException {
+			throws Exception {
 		log.info("Loading deployment descriptors of the modules");
 		// initialize spring
-		GenericApplicationContext context = new GenericApplicationContext();
-		XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(context);
-		List<Path> basePathes = null;
+		final GenericApplicationContext context = new GenericApplicationContext();
 		// get Base pathes
-		try {
-			basePathes = PathResolver.getAbsolutePathFromResource(modulesDir,
-					objectsDeploymentDescriptor);
-		} catch (Exception e) {
-			throw e;
-		}
-		// For each basePath
-		ArrayList<String> prevNames = new ArrayList<String>();
+		List<Path> basePathes = getStartupIndex()
+				.getAbsolutePathFromResource(modulesDir,
+						objectsDeploymentDescriptor);
+		Map<String, String> indexedObjectIds = getStartupIndex()
+				.getObjectIdFiles();
+		List<String> locations = new ArrayList<String>(basePathes.size());
 		for (Path basePath : basePathes) {
-			String plPath = urlHead + basePath.toString() + "/"
-					+ objectsDeploymentDescriptor;
-			reader.loadBeanDefinitions(plPath);
-			ArrayList<String> names = new ArrayList<String>(
-					Arrays.asList(reader.getRegistry().getBeanDefinitionNames()));
-			names.removeAll(prevNames);
-			// for each new objectId
-			for (String name : names) {
-				// add file name for objectId to dictionary
-				objectIdFiles.put(name, basePath.toString());
+			locations.add(urlHead + basePath.toString() + "/"
+					+ objectsDeploymentDescriptor);
+		}
+		List<List<String>> moduleNames = loadModuleBeanDefinitions(context,
+				locations);
+		if (indexedObjectIds == null) {
+			// registered objectIds
+			Set<String> names = new HashSet<String>();
+			// For each basePath
+			for (int i = 0; i < basePathes.size(); i++) {
+				for (String name : moduleNames.get(i)) {
+					// if the objectId is new
+					if (names.add(name)) {
+						// add file name for objectId to dictionary
+						objectIdFiles.put(name, basePathes.get(i).toString());
+					}
+				}
 			}
-			prevNames.addAll(names);
+		}
+		if (indexedObjectIds != null) {
+			objectIdFiles.putAll(indexedObjectIds);
+		} else {
+			getStartupIndex().setObjectIdFiles(objectIdFiles);
 		}
 		context.refresh();
 		return context;
 	}
 
+	/**
+	 * Parses the deployment descriptors in parallel and registers their object
+	 * definitions in the given context in the order of the locations and of
+	 * their declarations within the deployment descriptors. Step
+	 * objects are created when they are used the first time. Generated names
+	 * of anonymous objects which are already used by a previous module are
+	 * replaced by new generated names. Other objectIds of a previous module are
+	 * overridden like before.
+	 * 
+	 * @param context
+	 * @param locations
+	 * @return the registered objectIds for each location
+	 * @throws Exception
+	 */
+	static List<List<String>> loadModuleBeanDefinitions(
+			final GenericApplicationContext context, List<String> locations)
+			throws Exception {
+		List<Future<ModuleDefinitions>> modules = new ArrayList<Future<ModuleDefinitions>>(
+				locations.size());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1,
+				Math.min(locations.size(), Runtime.getRuntime()
+						.availableProcessors())));
+		try {
+			for (final String location : locations) {
+				modules.add(executor.submit(new Callable<ModuleDefinitions>() {
+
+					@Override
+					public ModuleDefinitions call() throws Exception {
+						return new ModuleDefinitions(context, location);
+					}
+				}));
+			}
+			List<List<String>> result = new ArrayList<List<String>>(
+					locations.size());
+			for (int i = 0; i < locations.size(); i++) {
+				ModuleDefinitions module;
+				try {
+					module = modules.get(i).get();
+				} catch (ExecutionException e) {
+					throw e.getCause() instanceof Exception ? (Exception) e
+							.getCause() : e;
+				}
+				result.add(module.register(context));
+			}
+			return result;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The object definitions of a single deployment descriptor
+	 */
+	private static class ModuleDefinitions {
+
+		private final String location;
+		// keeps the order of the declarations
+		private final DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+		// names generated for anonymous objects
+		private final Set<String> generatedNames = new HashSet<String>();
+
+		ModuleDefinitions(GenericApplicationContext context, String location) {
+			this.location = location;
+			XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(
+					registry);
+			reader.setResourceLoader(context);
+			reader.setEnvironment(context.getEnvironment());
+			reader.setBeanNameGenerator(new DefaultBeanNameGenerator() {
+
+				@Override
+				public String generateBeanName(BeanDefinition definition,
+						BeanDefinitionRegistry registry) {
+					String name = super.generateBeanName(definition, registry);
+					generatedNames.add(name);
+					return name;
+				}
+			});
+			reader.loadBeanDefinitions(location);
+			for (String name : registry.getBeanDefinitionNames()) {
+				BeanDefinition definition = registry.getBeanDefinition(name);
+				if (isStep(definition, context.getClassLoader())) {
+					definition.setLazyInit(true);
+				}
+			}
+		}
+
+		/**
+		 * Registers the object definitions in the context
+		 * 
+		 * @param context
+		 * @return the registered objectIds
+		 */
+		List<String> register(GenericApplicationContext context) {
+			String[] names = registry.getBeanDefinitionNames();
+			List<String> result = new ArrayList<String>(names.length);
+			for (String name : names) {
+				BeanDefinition definition = registry.getBeanDefinition(name);
+				String[] aliases = registry.getAliases(name);
+				if (generatedNames.contains(name)) {
+					if (context.containsBeanDefinition(name)) {
+						name = BeanDefinitionReaderUtils.generateBeanName(
+								definition, context);
+					}
+					context.registerBeanDefinition(name, definition);
+					// the class name alias belongs to the first anonymous
+					// object of a class
+					for (String alias : aliases) {
+						if (!context.isAlias(alias)
+								&& !context.containsBeanDefinition(alias)) {
+							context.registerAlias(name, alias);
+						}
+					}
+				} else {
+					if (context.containsBeanDefinition(name)
+							&& !context.getBeanDefinition(name).equals(
+									definition)) {
+						log.warn("Object " + name + " of " + location
+								+ " overrides the object of a previous module");
+					}
+					context.registerBeanDefinition(name, definition);
+					for (String alias : aliases) {
+						context.registerAlias(name, alias);
+					}
+				}
+				result.add(name);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Checks if an object definition describes a step
+	 * 
+	 * @param definition
+	 * @param classLoader
+	 * @return true if the class of the object implements the step interface
+	 */
+	private static boolean isStep(BeanDefinition definition,
+			ClassLoader classLoader) {
+		String className = definition.getBeanClassName();
+		if (className == null) {
+			return false;
+		}
+		try {
+			return havis.test.suite.api.Step.class.isAssignableFrom(ClassUtils
+					.forName(className, classLoader));
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
 	/**
 	 * Loads an user interface module and starts it
 	 * 
@@ -332,6 +907,15 @@ public class Testautomat {
 		for (String objectId : reportersObjectIds) {
 			log.info("Starting reporter module with objectId " + objectId);
 			Reporter reporter = (Reporter) objContext.getBean(objectId);
+			if (reporterQueueSize != null && reporterQueueSize > 0) {
+				// send the reports via a queue
+				AsyncReporter asyncReporter = new AsyncReporter(reporter,
+						objectId, reporterQueueSize, reporterBatchSize,
+						reporterOverflow);
+				TestautomatMetrics.getInstance().addReporter(objectId,
+						asyncReporter);
+				reporter = asyncReporter;
+			}
 			String moduleHome = Paths.get(objectIdFiles.get(objectId))
 					.getParent().toString();
 			String outputDir = repDir.getAbsolutePath() + File.separator
@@ -368,7 +952,8 @@ public class Testautomat {
 	}
 
 	/**
-	 * Cleans up the generated reports of reporter modules
+	 * Cleans up the generated reports of reporter modules. Queued reports of
+	 * asynchronous reporter modules are sent before
 	 * 
 	 * @param objectIds
 	 * @param reporters
@@ -526,49 +1111,281 @@ public class Testautomat {
 			Map<String, Object> testCasesParameters, List<Reporter> reporters)
 			throws Exception {
 
-		List<Path> pathes = PathResolver.getAbsolutePathFromResource(xsdDir,
-				xsdDescriptorFileName);
-		InputStream xsdFile = null;
-
-		if (pathes.size() > 0) {
-			Path basePath = PathResolver.getAbsolutePathFromResource(xsdDir,
-					xsdDescriptorFileName).get(0);
-			xsdFile = PathResolver.getResourceInputStream(basePath.toString(),
-					xsdDescriptorFileName);
-		} else {
-			throw new Exception("XSD-File not found");
+		SchemaValidator schema = getSchema();
+		// the definitions are shared by all test cases
+		TestCaseDefinitionCache definitions = new TestCaseDefinitionCache();
+		if (testCaseWorkers > 1 && testCasesPaths.size() > 1) {
+			executeTestCasesConcurrently(globalContext, objContext, ui,
+					testCasesPaths, testCasesParameters, reporters, schema,
+					definitions);
+			return;
 		}
-
 		// for each test case
 		for (String testCasePath : testCasesPaths) {
-			TestAutomatDTO testDTO = new TestAutomatDTO();
-			testDTO.setGlobalContext(globalContext);
-			testDTO.setObjContext(objContext);
-			testDTO.setObjectIdFiles(objectIdFiles);
-			testDTO.setUi(ui);
-
-			if (testCasesDir == null) {
-				throw new Exception("Testcase not found");
-			}
-			// get full test case path:
-			// resolve test case path relative to the directory of all test
-			// cases
-			String fullTestCasePath = this.testCasesDir + File.separator
-					+ testCasePath;
-
-			TestCasesDTO casesDTO = new TestCasesDTO();
-			casesDTO.setHome(testCasesDir);
-			casesDTO.setDescriptorFileName(testCasesDescriptorFileName);
-			XSD xsd = new XSD(xsdFile, xsdDescriptorFileName);
-			casesDTO.setXsd(xsd);
-			casesDTO.setParameters(testCasesParameters);
-			TestCase testCase = new TestCase(testDTO, casesDTO,
-					fullTestCasePath, null, null);
+			TestautomatMetrics.getInstance().checkAborted();
+			TestCase testCase = createTestCase(globalContext, objContext, ui,
+					testCasePath, testCasesParameters, schema, definitions);
 			testCase.setReporters(reporters);
 			// execute test case
-			testCase.run();
+			runTestCase(testCase, testCasePath);
+		}
+
+	}
+
+	/**
+	 * Executes a list of test cases with a pool of workers. Test cases which
+	 * use a common resource (see {@link #getTestCaseResources(ApplicationContext, String)})
+	 * are not executed concurrently. If a test case fails then the test cases
+	 * which have not been started yet are cancelled and the first error is
+	 * thrown after all running test cases have finished.
+	 * 
+	 * @param globalContext
+	 * @param objContext
+	 * @param ui
+	 * @param testCasesPaths
+	 * @param testCasesParameters
+	 * @param reporters
+	 * @param schema
+	 * @param definitions
+	 * @throws Exception
+	 */
+	private void executeTestCasesConcurrently(final NDIContext globalContext,
+			final ApplicationContext objContext, final UI ui,
+			List<String> testCasesPaths,
+			final Map<String, Object> testCasesParameters,
+			List<Reporter> reporters, final SchemaValidator schema,
+			final TestCaseDefinitionCache definitions) throws Exception {
+		// the reports of a test case are sent in the thread of the test case
+		final List<Reporter> synchronizedReporters = SynchronizedReporter
+				.synchronize(reporters);
+		final ResourceLocks locks = new ResourceLocks();
+		int workers = Math.min(testCaseWorkers, testCasesPaths.size());
+		log.info("Executing " + testCasesPaths.size() + " test cases with "
+				+ workers + " workers");
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(
+				testCasesPaths.size());
+		try {
+			// for each test case
+			for (final String testCasePath : testCasesPaths) {
+				futures.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						TestautomatMetrics.getInstance().checkAborted();
+						List<String> resources = getTestCaseResources(
+								objContext, testCasePath);
+						List<Lock> acquired = locks.lock(resources);
+						try {
+							TestCase testCase = createTestCase(globalContext,
+									objContext, ui, testCasePath,
+									testCasesParameters, schema, definitions);
+							testCase.setReporters(synchronizedReporters);
+							// execute test case
+							runTestCase(testCase, testCasePath);
+						} finally {
+							locks.unlock(acquired);
+						}
+						return null;
+					}
+				}));
+			}
+			Exception error = null;
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					futures.get(i).get();
+				} catch (CancellationException e) {
+					// a previous test case has failed
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (error == null) {
+						error = cause instanceof Exception ? (Exception) cause
+								: e;
+						// cancel the test cases which have not been started
+						for (Future<Void> future : futures) {
+							future.cancel(false /* mayInterruptIfRunning */);
+						}
+					} else {
+						log.error("Execution of test case "
+								+ testCasesPaths.get(i) + " failed", cause);
+					}
+				}
+			}
+			if (error != null) {
+				throw error;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Executes test cases with worker processes
+	 * 
+	 * @param testCasesPaths
+	 * @param appObjectIds
+	 * @param args
+	 *            command line of the coordinator
+	 * @param reporters
+	 * @throws Exception
+	 */
+	private void executeShards(List<String> testCasesPaths,
+			List<String> appObjectIds, String[] args, List<Reporter> reporters)
+			throws Exception {
+		File durationsFile = new File(Paths.get("").toAbsolutePath()
+				.toString(), "target" + File.separator + shardDurationsFileName);
+		new ShardCoordinator(shards, shardBalancing, durationsFile).execute(
+				testCasesPaths, appObjectIds, args, reporters);
+	}
+
+	/**
+	 * Executes a test case. The duration of the test case is sent to the
+	 * coordinator if the test case is executed by a shard worker.
+	 * 
+	 * @param testCase
+	 * @param testCasePath
+	 * @throws Exception
+	 */
+	private void runTestCase(TestCase testCase, String testCasePath)
+			throws Exception {
+		long start = System.nanoTime();
+		testCase.run();
+		if (shardReporter != null) {
+			shardReporter.duration(testCasePath, TimeUnit.NANOSECONDS
+					.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	/**
+	 * Creates a test case
+	 * 
+	 * @param globalContext
+	 * @param objContext
+	 * @param ui
+	 * @param testCasePath
+	 *            Path to the directory with the test case. A relative path
+	 *            starts at the base directory of all test cases
+	 * @param testCasesParameters
+	 * @param schema
+	 * @param definitions
+	 * @return
+	 * @throws Exception
+	 */
+	private TestCase createTestCase(NDIContext globalContext,
+			ApplicationContext objContext, UI ui, String testCasePath,
+			Map<String, Object> testCasesParameters, SchemaValidator schema,
+			TestCaseDefinitionCache definitions) throws Exception {
+		TestAutomatDTO testDTO = new TestAutomatDTO();
+		testDTO.setGlobalContext(globalContext);
+		testDTO.setObjContext(objContext);
+		testDTO.setObjectIdFiles(objectIdFiles);
+		testDTO.setUi(ui);
+		testDTO.setStepPool(stepPool);
+		testDTO.setStepIds(stepIds);
+
+		if (testCasesDir == null) {
+			throw new Exception("Testcase not found");
 		}
+		// get full test case path:
+		// resolve test case path relative to the directory of all test
+		// cases
+		String fullTestCasePath = this.testCasesDir + File.separator
+				+ testCasePath;
+
+		TestCasesDTO casesDTO = new TestCasesDTO();
+		casesDTO.setHome(testCasesDir);
+		casesDTO.setDescriptorFileName(testCasesDescriptorFileName);
+		casesDTO.setSchema(schema);
+		casesDTO.setParameters(testCasesParameters);
+		casesDTO.setDefinitions(definitions);
+		configure(casesDTO);
+		return new TestCase(testDTO, casesDTO, fullTestCasePath, null, null);
+	}
 
+	/**
+	 * Gets the resources which are used by a test case (e.g. "reader:1"). The
+	 * resources are read from the comma separated property "resources" of the
+	 * optional file "testCase.properties" in the directory of the test case.
+	 * 
+	 * @param objContext
+	 * @param testCasePath
+	 * @return
+	 * @throws IOException
+	 */
+	private List<String> getTestCaseResources(ApplicationContext objContext,
+			String testCasePath) throws IOException {
+		List<String> ret = new ArrayList<String>();
+		Resource resource = objContext.getResource(testCasesDir + "/"
+				+ testCasePath + "/" + testCaseResourcesFileName);
+		if (!resource.exists()) {
+			return ret;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = resource.getInputStream()) {
+			properties.load(in);
+		}
+		String resources = properties.getProperty(testCaseResourcesProperty);
+		if (resources != null) {
+			for (String name : resources.split(",")) {
+				name = name.trim();
+				if (name.length() > 0) {
+					ret.add(name);
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Gets the index of the resources found at the start. The index is loaded
+	 * at the first call.
+	 * 
+	 * @return
+	 */
+	private StartupIndex getStartupIndex() {
+		if (startupIndex == null) {
+			startupIndex = StartupIndex.load(getStartupIndexFile());
+		}
+		return startupIndex;
+	}
+
+	/**
+	 * Saves the index of the resources found at the start if it has been
+	 * loaded
+	 */
+	private void saveStartupIndex() {
+		if (startupIndex != null) {
+			startupIndex.save(getStartupIndexFile());
+		}
+	}
+
+	private File getStartupIndexFile() {
+		return new File(Paths.get("").toAbsolutePath().toString(), "target"
+				+ File.separator + startupIndexFileName);
+	}
+
+	/**
+	 * Gets the compiled XSD for the test cases. The XSD is compiled at the
+	 * first call.
+	 * 
+	 * @return
+	 * @throws Exception
+	 */
+	private SchemaValidator getSchema() throws Exception {
+		if (schema == null) {
+			List<Path> pathes = getStartupIndex().getAbsolutePathFromResource(
+					xsdDir, xsdDescriptorFileName);
+			if (pathes.size() == 0) {
+				throw new Exception("XSD-File not found");
+			}
+			Path basePath = pathes.get(0);
+			try (InputStream xsdFile = PathResolver.getResourceInputStream(
+					basePath.toString(), xsdDescriptorFileName)) {
+				schema = SchemaValidator.compile(xsdFile, basePath
+						.resolve(xsdDescriptorFileName).toUri().toString());
+			}
+		}
+		return schema;
 	}
 
 	/**
@@ -0,0 +1,292 @@
+package havis.test.suite;
+
+import havis.test.suite.exceptions.AbortedException;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the metrics of the running test automat. The metrics are only
+ * collected after {@link #register()} has been called; they are published via
+ * the platform MBean server of the JVM. Until then all methods which are
+ * called by the executing threads do nothing. The MBean server is only
+ * accessible locally unless a remote connector is configured for the JVM.
+ */
+public class TestautomatMetrics implements TestautomatMetricsMXBean {
+	private static final Logger log = LoggerFactory
+			.getLogger(TestautomatMetrics.class);
+	private static final String OBJECT_NAME = "havis.test.suite:type=Testautomat";
+	private static final TestautomatMetrics instance = new TestautomatMetrics();
+
+	/**
+	 * log path of a thread group -> count of running threads
+	 */
+	private final ConcurrentMap<String, AtomicInteger> activeThreads = new ConcurrentHashMap<>();
+	/**
+	 * objectId -> asynchronous reporter module
+	 */
+	private final ConcurrentMap<String, AsyncReporter> reporters = new ConcurrentHashMap<>();
+	private final AtomicLong executedSteps = new AtomicLong();
+	private final AtomicLong verificationFailures = new AtomicLong();
+	private volatile boolean aborted;
+	// whether the metrics are collected
+	private volatile boolean enabled;
+	// rates of the last second
+	private volatile double stepsPerSecond;
+	private volatile double verificationFailuresPerSecond;
+	private ScheduledExecutorService sampler;
+
+	/**
+	 * Returns the metrics of the JVM
+	 * 
+	 * @return
+	 */
+	public static TestautomatMetrics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Resets the metrics and registers the MBean at the platform MBean server
+	 * 
+	 * @throws JMException
+	 */
+	public synchronized void register() throws JMException {
+		reset();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if (!server.isRegistered(name)) {
+			server.registerMBean(this, name);
+		}
+		if (sampler == null) {
+			sampler = Executors
+					.newSingleThreadScheduledExecutor(new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "metrics-sampler");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			sampler.scheduleAtFixedRate(new Runnable() {
+				private long lastTime = System.nanoTime();
+				private long lastSteps = executedSteps.get();
+				private long lastFailures = verificationFailures.get();
+
+				@Override
+				public void run() {
+					long time = System.nanoTime();
+					long steps = executedSteps.get();
+					long failures = verificationFailures.get();
+					double seconds = (time - lastTime) / 1e9;
+					stepsPerSecond = (steps - lastSteps) / seconds;
+					verificationFailuresPerSecond = (failures - lastFailures)
+							/ seconds;
+					lastTime = time;
+					lastSteps = steps;
+					lastFailures = failures;
+				}
+			}, 1, 1, TimeUnit.SECONDS);
+		}
+		enabled = true;
+		log.info("Registered metrics as MBean " + OBJECT_NAME);
+	}
+
+	/**
+	 * Unregisters the MBean. Errors are written to the log.
+	 */
+	public synchronized void unregister() {
+		enabled = false;
+		if (sampler != null) {
+			sampler.shutdownNow();
+			sampler = null;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			log.error("Cannot unregister MBean " + OBJECT_NAME, e);
+		}
+		reporters.clear();
+	}
+
+	/**
+	 * Resets all metrics and the abort flag
+	 */
+	public void reset() {
+		activeThreads.clear();
+		executedSteps.set(0);
+		verificationFailures.set(0);
+		stepsPerSecond = 0;
+		verificationFailuresPerSecond = 0;
+		aborted = false;
+	}
+
+	/**
+	 * A thread of a thread group has been started
+	 * 
+	 * @param threadGroup
+	 *            log path of the thread group
+	 */
+	public void threadStarted(String threadGroup) {
+		if (!enabled) {
+			return;
+		}
+		AtomicInteger count = activeThreads.get(threadGroup);
+		if (count == null) {
+			count = new AtomicInteger();
+			AtomicInteger existing = activeThreads.putIfAbsent(threadGroup,
+					count);
+			if (existing != null) {
+				count = existing;
+			}
+		}
+		count.incrementAndGet();
+	}
+
+	/**
+	 * A thread of a thread group has been finished
+	 * 
+	 * @param threadGroup
+	 *            log path of the thread group
+	 */
+	public void threadFinished(String threadGroup) {
+		if (!enabled) {
+			return;
+		}
+		AtomicInteger count = activeThreads.get(threadGroup);
+		if (count != null) {
+			count.decrementAndGet();
+		}
+	}
+
+	/**
+	 * A step has been executed
+	 */
+	public void stepExecuted() {
+		if (enabled) {
+			executedSteps.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A verification of a step module has failed
+	 */
+	public void verificationFailed() {
+		if (enabled) {
+			verificationFailures.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Adds an asynchronous reporter module whose queue depth is published
+	 * 
+	 * @param objectId
+	 * @param reporter
+	 */
+	public void addReporter(String objectId, AsyncReporter reporter) {
+		if (enabled) {
+			reporters.put(objectId, reporter);
+		}
+	}
+
+	/**
+	 * Throws an exception if the execution has been aborted
+	 * 
+	 * @throws AbortedException
+	 */
+	public void checkAborted() throws AbortedException {
+		if (enabled && aborted) {
+			throw new AbortedException("The execution has been aborted");
+		}
+	}
+
+	@Override
+	public Map<String, Integer> getActiveThreads() {
+		Map<String, Integer> ret = new TreeMap<>();
+		for (Map.Entry<String, AtomicInteger> entry : activeThreads
+				.entrySet()) {
+			ret.put(entry.getKey(), entry.getValue().get());
+		}
+		return ret;
+	}
+
+	@Override
+	public long getExecutedSteps() {
+		return executedSteps.get();
+	}
+
+	@Override
+	public double getStepsPerSecond() {
+		return stepsPerSecond;
+	}
+
+	@Override
+	public long getVerificationFailures() {
+		return verificationFailures.get();
+	}
+
+	@Override
+	public double getVerificationFailuresPerSecond() {
+		return verificationFailuresPerSecond;
+	}
+
+	@Override
+	public Map<String, Long> getReporterQueueDepths() {
+		Map<String, Long> ret = new TreeMap<>();
+		for (Map.Entry<String, AsyncReporter> entry : reporters.entrySet()) {
+			ret.put(entry.getKey(), entry.getValue().getPending());
+		}
+		return ret;
+	}
+
+	@Override
+	public long getHeapUsed() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage()
+				.getUsed();
+	}
+
+	@Override
+	public long getHeapMax() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage()
+				.getMax();
+	}
+
+	/**
+	 * Returns whether the metrics are collected
+	 * 
+	 * @return
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	@Override
+	public void abort() {
+		log.warn("Aborting the execution");
+		aborted = true;
+	}
+}
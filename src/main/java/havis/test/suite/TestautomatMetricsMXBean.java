@@ -0,0 +1,81 @@
+package havis.test.suite;
+
+import java.util.Map;
+
+/**
+ * Metrics of a running test automat which are published via JMX (see
+ * {@link TestautomatMetrics})
+ */
+public interface TestautomatMetricsMXBean {
+
+	/**
+	 * Returns the count of running threads per thread group
+	 * 
+	 * @return log path of the thread group -> count of running threads
+	 */
+	Map<String, Integer> getActiveThreads();
+
+	/**
+	 * Returns the count of executed steps
+	 * 
+	 * @return
+	 */
+	long getExecutedSteps();
+
+	/**
+	 * Returns the count of executed steps per second (measured within the
+	 * last second)
+	 * 
+	 * @return
+	 */
+	double getStepsPerSecond();
+
+	/**
+	 * Returns the count of failed verifications of step modules
+	 * 
+	 * @return
+	 */
+	long getVerificationFailures();
+
+	/**
+	 * Returns the count of failed verifications per second (measured within
+	 * the last second)
+	 * 
+	 * @return
+	 */
+	double getVerificationFailuresPerSecond();
+
+	/**
+	 * Returns the count of queued reports per asynchronous reporter module
+	 * 
+	 * @return objectId -> count of reports which have not been sent yet
+	 */
+	Map<String, Long> getReporterQueueDepths();
+
+	/**
+	 * Returns the used heap memory in bytes
+	 * 
+	 * @return
+	 */
+	long getHeapUsed();
+
+	/**
+	 * Returns the max. heap memory in bytes (-1 if undefined)
+	 * 
+	 * @return
+	 */
+	long getHeapMax();
+
+	/**
+	 * Returns whether the execution has been aborted
+	 * 
+	 * @return
+	 */
+	boolean isAborted();
+
+	/**
+	 * Aborts the execution. Running threads stop before their next step and
+	 * no further test cases are started.
+	 */
+	void abort();
+}
@@ -0,0 +1,112 @@
+package havis.test.suite;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Defines how the threads of a thread group are executed
+ */
+public enum ThreadGroupExecution {
+	/**
+	 * Each thread is executed by its own platform thread
+	 */
+	PLATFORM,
+	/**
+	 * Each thread is executed by a virtual thread (requires Java 21 or later,
+	 * otherwise {@link #POOLED} is used)
+	 */
+	VIRTUAL,
+	/**
+	 * The threads are executed by a bounded pool of platform threads. If a
+	 * thread group has more threads than the pool, the remaining threads wait
+	 * for a free platform thread. They start later than the ramp-up defines,
+	 * and fewer threads run concurrently than the thread group defines. A
+	 * warning is logged in this case.
+	 */
+	POOLED;
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ThreadGroupExecution.class);
+	private static final Method newVirtualThreadPerTaskExecutor = getNewVirtualThreadPerTaskExecutor();
+
+	private static Method getNewVirtualThreadPerTaskExecutor() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates an executor for a count of threads
+	 *
+	 * @param threadCount
+	 * @param poolSize
+	 *            max. count of platform threads for {@link #POOLED}
+	 * @return
+	 */
+	public ExecutorService createExecutor(int threadCount, int poolSize) {
+		switch (this) {
+		case VIRTUAL:
+			if (newVirtualThreadPerTaskExecutor != null) {
+				try {
+					return (ExecutorService) newVirtualThreadPerTaskExecutor
+							.invoke(null);
+				} catch (ReflectiveOperationException e) {
+					log.warn("Virtual threads cannot be created", e);
+				}
+			} else {
+				log.warn("Virtual threads are not supported by the Java runtime, using a pool of "
+						+ poolSize + " threads");
+			}
+			return POOLED.createExecutor(threadCount, poolSize);
+		case POOLED:
+			if (limitsConcurrency(threadCount, poolSize)) {
+				log.warn("The "
+						+ threadCount
+						+ " threads of the thread group are executed by a pool of "
+						+ poolSize
+						+ " platform threads: threads wait for a free platform thread, the ramp-up and the count of concurrent threads differ from the definition");
+			}
+			return Executors.newFixedThreadPool(Math.max(1,
+					Math.min(threadCount, poolSize)));
+		default:
+			return Executors.newFixedThreadPool(Math.max(1, threadCount));
+		}
+	}
+
+	/**
+	 * Returns whether less threads are executed concurrently than requested
+	 *
+	 * @param threadCount
+	 * @param poolSize
+	 *            max. count of platform threads for {@link #POOLED}
+	 * @return
+	 */
+	public boolean limitsConcurrency(int threadCount, int poolSize) {
+		switch (this) {
+		case VIRTUAL:
+			return newVirtualThreadPerTaskExecutor == null
+					&& POOLED.limitsConcurrency(threadCount, poolSize);
+		case POOLED:
+			return Math.max(1, poolSize) < threadCount;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the execution mode for a name (case insensitive)
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static ThreadGroupExecution fromName(String name) {
+		return valueOf(name.toUpperCase(Locale.ENGLISH));
+	}
+}
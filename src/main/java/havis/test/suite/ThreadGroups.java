@@ -3,6 +3,8 @@ package havis.test.suite;
 import havis.test.suite.api.Reporter;
 import havis.test.suite.dto.TestAutomatDTO;
 import havis.test.suite.dto.TestCaseDTO;
+import havis.test.suite.dto.TestCasesDTO;
+import havis.test.suite.testcase.EntryType;
 import havis.test.suite.testcase.LoopType;
 import havis.test.suite.testcase.ModuleReportType;
 import havis.test.suite.testcase.ModuleReportsType;
@@ -15,17 +17,9 @@ import havis.test.suite.testcase.TestCaseType;
 import havis.test.suite.testcase.ThreadGroupType;
 import havis.test.suite.testcase.ThreadsType;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
@@ -34,6 +28,9 @@ import org.slf4j.LoggerFactory;
 public class ThreadGroups {
 	private static final Logger log = LoggerFactory
 			.getLogger(ThreadGroups.class);
+	// max. difference between the actual and the planned start of a thread
+	// before a warning is logged (in nanoseconds)
+	private static final long MAX_START_SKEW = 1000000;
 	private final ThreadGroupsInfo threadGroupsInfo;
 	private List<Reporter> reporters;
 
@@ -45,6 +42,27 @@ public class ThreadGroups {
 		this.reporters = reporters;
 	}
 
+	/**
+	 * Sets the path to the threads step (used for streaming reports, see
+	 * {@link ReportRecord})
+	 * 
+	 * @param path
+	 */
+	public void setPath(String path) {
+		threadGroupsInfo.setPath(path);
+	}
+
+	/**
+	 * Sets the execution plans of the step lists of the thread groups. The
+	 * plans are shared by all threads. If the plans are not set then each
+	 * thread compiles its own plan.
+	 * 
+	 * @param plans
+	 */
+	public void setPlans(List<ExecutionPlan> plans) {
+		threadGroupsInfo.setPlans(plans);
+	}
+
 	/**
 	 * 
 	 * @param testAutomatDTO
@@ -60,6 +78,7 @@ public class ThreadGroups {
 		threadGroupsInfo.setTestCaseDTO(testCaseDTO);
 		threadGroupsInfo.setThreadGroups(threadGroups);
 		threadGroupsInfo.setLogBasePath(logBasePath);
+		threadGroupsInfo.setPath("");
 		reporters = new ArrayList<Reporter>();
 	}
 
@@ -70,10 +89,18 @@ public class ThreadGroups {
 	 */
 	public void run() throws Exception {
 		List<ThreadGroupType> threadGroups = threadGroupsInfo.getThreadGroups();
+		ReportStream reportStream = threadGroupsInfo.getTestCaseDTO()
+				.getReportStream();
+		if (reportStream != null) {
+			// identifies the threads of this run in the report stream
+			threadGroupsInfo.setRun(reportStream.nextRun());
+		}
 		ThreadGroupRunner[] threadGroupRunners = new ThreadGroupRunner[threadGroups
 				.size()];
-		ExecutorService pool = Executors
-				.newFixedThreadPool(threadGroups.size());
+		// the thread group runners are waiting for their threads => the
+		// count of platform threads must not be limited
+		ExecutorService pool = createExecutor(threadGroupsInfo,
+				threadGroups.size(), false);
 		List<Future<?>> futures = new ArrayList<Future<?>>(threadGroups.size());
 
 		log.info("Starting " + threadGroups.size() + " thread group"
@@ -88,10 +115,15 @@ public class ThreadGroups {
 			// create thread and running the thread group
 			futures.add(pool.submit(threadGroupRunners[i]));
 		}
+		// wait for all thread groups to be finished before the reports are
+		// moved (the copies of running thread groups share parts of the
+		// original step lists)
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
 		// for each thread group
 		for (int i = 0; i < threadGroups.size(); i++) {
-			// Wait for thread to be finished
-			futures.get(i).get();
 			ThreadGroupType threadGroup = threadGroups.get(i);
 			ThreadGroupRunner threadGroupRunner = threadGroupRunners[i];
 			// if executing of thread group failed
@@ -122,16 +154,25 @@ public class ThreadGroups {
 						}
 					}
 					// move reports from copy of step list to original step list
+					threadGroupsInfo.getTestCaseDTO().getDeltaReport()
+							.moved(stepsRunner.getSteps(),
+									threadGroup.getSteps().getStep());
 					moveReports(stepsRunner.getSteps(), threadGroup.getSteps()
 							.getStep());
+					if (reportStream != null) {
+						reportStream.moved(stepsRunner.getPath());
+					}
+				}
+				if (reportStream != null) {
+					// remove old reports moved from the threads
+					reportStream.trim(threadGroup.getSteps().getStep());
 				}
 				if (firstException != null) {
 					// throw exception from the first step
 					throw firstException;
 				}
 			}
-		} 
-		pool.shutdown();
+		}
 	}
 
 	/**
@@ -141,15 +182,11 @@ public class ThreadGroups {
 	 * @param threadGroupIndex
 	 * @param reporters
 	 * @return informations about the executed threads
-	 * @throws InterruptedException
-	 * @throws ClassNotFoundException
-	 * @throws IOException
-	 * @throws ExecutionException
+	 * @throws Exception
 	 */
 	private static StepsRunner[] execThreadGroup(
 			ThreadGroupsInfo threadGroupsInfo, int threadGroupIndex,
-			List<Reporter> reporters) throws InterruptedException,
-			ClassNotFoundException, IOException, ExecutionException {
+			List<Reporter> reporters) throws Exception {
 		ThreadGroupType threadGroup = threadGroupsInfo.getThreadGroups().get(
 				threadGroupIndex);
 		if (threadGroup.getCount() == 0) {
@@ -158,73 +195,42 @@ public class ThreadGroups {
 		if (threadGroup.getRampUpPeriod() == 0) {
 			threadGroup.setRampUpPeriod((long) 0);
 		}
+		TestCasesDTO base = threadGroupsInfo.getTestCaseDTO().getBase();
+		if (base != null && base.getArrivalRate() > 0) {
+			return execArrivals(threadGroupsInfo, threadGroupIndex, reporters,
+					base);
+		}
 
 		StepsRunner stepsRunners[] = new StepsRunner[(int) threadGroup
 				.getCount()];
-		ExecutorService pool = Executors.newFixedThreadPool((int) threadGroup
-				.getCount());
+		ExecutorService pool = createExecutor(threadGroupsInfo,
+				(int) threadGroup.getCount(), true);
 		List<Future<?>> futures = new ArrayList<Future<?>>(
 				(int) threadGroup.getCount());
-		// calculate the interval in which the threads shall be started
-		int interval = (int) (threadGroup.getCount() <= 1 ? 0 : threadGroup
-				.getRampUpPeriod() / (threadGroup.getCount() - 1));
+		// create the timeline on which the threads shall be started
+		RampUpScheduler scheduler = createScheduler(threadGroupsInfo,
+				threadGroup);
 
 		for (int i = 0; i < threadGroup.getCount(); i++) {
-			// get the position of the current thread group in the test case by
-			// determining the count of thread groups existing before the
-			// current one
-			TestCaseType testCase = threadGroupsInfo.testCaseDTO.getTestCase();
-			Found found = new Found();
-			found.setFound(false);
-			int count = getThreadGroupCount(testCase.getSteps().getStep(),
-					threadGroup, found);
-			// clone the test case containing the current thread group and its
-			// step list
-			TestCaseType testCaseClone = deepClone(testCase);
-			// get the current thread group list from the clone by using the
-			// determined position
-			List<ThreadGroupType> threadGroupsClone = getThreadGroups(
-					testCaseClone.getSteps().getStep(), count);
-			// remove step reports from thread group clone
-			removeReports(threadGroupsClone.get(threadGroupIndex).getSteps()
-					.getStep());
-			// create new steps infos with the cloned test case
-			ThreadGroupsInfo stepsInfo = new ThreadGroupsInfo();
-			stepsInfo.setTestAutomatDTO(threadGroupsInfo.getTestAutomatDTO());
-			TestCaseDTO tcDTO = new TestCaseDTO();
-			tcDTO.setBase(threadGroupsInfo.getTestCaseDTO().getBase());
-			tcDTO.setHome(threadGroupsInfo.getTestCaseDTO().getHome());
-			tcDTO.setId(threadGroupsInfo.getTestCaseDTO().getId());
-			tcDTO.setName(threadGroupsInfo.getTestCaseDTO().getName());
-			tcDTO.setTestCase(testCaseClone);
-			stepsInfo.setTestCaseDTO(tcDTO);
-			stepsInfo.setThreadGroups(threadGroupsClone);
-			stepsInfo.setLogBasePath(threadGroupsInfo.getLogBasePath());
-			// create steps runner for the step list
-			// (the cloned step list with the reports are safed inside the
-			// runner)
-			StepsRunner stepsRunner = new StepsRunner(stepsInfo,
-					threadGroupIndex, i, (int) Thread.currentThread().getId(),
-					reporters);
 			// create task for running the thread
-			stepsRunners[i] = stepsRunner;
+			stepsRunners[i] = createStepsRunner(threadGroupsInfo,
+					threadGroupIndex, i, reporters);
 		}
-		Date start = new Date();
+		scheduler.start();
 		// for each thread
 		for (int i = 0; i < threadGroup.getCount(); i++) {
-			// calculate offset, wait for starting point and execute the task
-			long offset = i * interval;
-			long totalDiff = (new Date()).getTime() - start.getTime();
-			long diff = offset - totalDiff;
-			if (diff > 0) {
-				Thread.sleep(diff);
-			} else if (threadGroup.getRampUpPeriod() > 0 && diff < 0) {
+			// wait for the starting point and execute the task
+			long skew = scheduler.awaitStart(i);
+			if (threadGroup.getRampUpPeriod() > 0
+					&& skew >= MAX_START_SKEW) {
 				log.warn("Could not keep the interval for thread " + i
-						+ " (difference of " + (-diff) + " ms)");
+						+ " (difference of "
+						+ ReportProperties.formatMillis(skew) + " ms)");
 			}
 			log.info("Starting thread " + (i + 1) + "/"
 					+ threadGroup.getCount() + " (rampUpPeriod="
 					+ threadGroup.getRampUpPeriod() + ")");
+			stepsRunners[i].setStart(scheduler.getPlannedOffset(i), skew);
 			futures.add(pool.submit(stepsRunners[i]));
 		}
 		// wait for end of all threads
@@ -236,116 +242,426 @@ public class ThreadGroups {
 	}
 
 	/**
-	 * Executes a list of steps
+	 * Creates an executor for threads of thread groups according to the
+	 * execution mode of the test cases
+	 * 
+	 * @param threadGroupsInfo
+	 * @param threadCount
+	 * @param limited
+	 *            whether the count of platform threads may be limited
+	 * @return
+	 */
+	private static ExecutorService createExecutor(
+			ThreadGroupsInfo threadGroupsInfo, int threadCount, boolean limited) {
+		TestCasesDTO base = threadGroupsInfo.getTestCaseDTO().getBase();
+		if (base == null || base.getThreadGroupExecution() == null) {
+			return ThreadGroupExecution.PLATFORM.createExecutor(threadCount,
+					threadCount);
+		}
+		return base.getThreadGroupExecution().createExecutor(threadCount,
+				limited ? base.getThreadGroupPoolSize() : threadCount);
+	}
+
+	/**
+	 * Creates the runner for a thread of a thread group. The runner gets a copy
+	 * of the step definitions of the thread group
 	 * 
 	 * @param threadGroupsInfo
 	 * @param threadGroupIndex
+	 * @param threadIndex
 	 * @param reporters
 	 * @return
+	 */
+	private static StepsRunner createStepsRunner(
+			ThreadGroupsInfo threadGroupsInfo, int threadGroupIndex,
+			int threadIndex, List<Reporter> reporters) {
+		TestCaseType testCase = threadGroupsInfo.getTestCaseDTO().getTestCase();
+		// copy the test case along the path to the current thread group
+		// and the step definitions of the thread group (without reports)
+		ThreadGroupsCopy copy = new ThreadGroupsCopy();
+		copy.setTestCase(testCase);
+		List<StepType> stepsCopy = copyPath(testCase.getSteps().getStep(),
+				threadGroupsInfo.getThreadGroups(), threadGroupIndex, copy);
+		if (stepsCopy != null) {
+			TestCaseType testCaseCopy = new TestCaseType();
+			testCaseCopy.setReport(testCase.getReport());
+			testCaseCopy.setSteps(DefinitionCopier.createSteps(stepsCopy));
+			copy.setTestCase(testCaseCopy);
+		} else {
+			// the thread group is not part of the test case => copy the
+			// thread group only
+			copy.setThreadGroups(copyThreadGroups(
+					threadGroupsInfo.getThreadGroups(), threadGroupIndex));
+		}
+		// create new steps infos with the copied test case
+		ThreadGroupsInfo stepsInfo = new ThreadGroupsInfo();
+		stepsInfo.setTestAutomatDTO(threadGroupsInfo.getTestAutomatDTO());
+		TestCaseDTO tcDTO = new TestCaseDTO();
+		tcDTO.setBase(threadGroupsInfo.getTestCaseDTO().getBase());
+		tcDTO.setHome(threadGroupsInfo.getTestCaseDTO().getHome());
+		tcDTO.setId(threadGroupsInfo.getTestCaseDTO().getId());
+		tcDTO.setName(threadGroupsInfo.getTestCaseDTO().getName());
+		tcDTO.setResources(threadGroupsInfo.getTestCaseDTO()
+				.getResources());
+		tcDTO.setReportStream(threadGroupsInfo.getTestCaseDTO()
+				.getReportStream());
+		tcDTO.setDeltaReport(threadGroupsInfo.getTestCaseDTO()
+				.getDeltaReport());
+		tcDTO.setClock(threadGroupsInfo.getTestCaseDTO().getClock());
+		tcDTO.setLatencies(threadGroupsInfo.getTestCaseDTO().getLatencies());
+		tcDTO.setOverhead(threadGroupsInfo.getTestCaseDTO().getOverhead());
+		tcDTO.setPropertiesCache(threadGroupsInfo.getTestCaseDTO()
+				.getPropertiesCache());
+		tcDTO.setTestCase(copy.getTestCase());
+		stepsInfo.setTestCaseDTO(tcDTO);
+		stepsInfo.setThreadGroups(copy.getThreadGroups());
+		stepsInfo.setLogBasePath(threadGroupsInfo.getLogBasePath());
+		stepsInfo.setPlans(threadGroupsInfo.getPlans());
+		// create steps runner for the step list
+		// (the copied step list with the reports are safed inside the
+		// runner)
+		StepsRunner stepsRunner = new StepsRunner(stepsInfo,
+				threadGroupIndex, threadIndex, (int) Thread.currentThread().getId(),
+				ReportStream.getThreadPath(threadGroupsInfo.getPath(),
+						threadGroupIndex, threadGroupsInfo.getRun(),
+						threadIndex), reporters);
+		return stepsRunner;
+	}
+
+	/**
+	 * Executes a thread group definition with a constant arrival rate. Each
+	 * arrival executes the step list once. The threads of the thread group are
+	 * created on demand up to the count of the thread group
+	 * 
+	 * @param threadGroupsInfo
+	 * @param threadGroupIndex
+	 * @param reporters
+	 * @param base
+	 * @return informations about the executed threads
 	 * @throws Exception
 	 */
-	private static List<StepType> execSteps(ThreadGroupsInfo threadGroupsInfo,
-			int threadGroupIndex, List<Reporter> reporters) throws Exception {
-		StepsType steps = threadGroupsInfo.getThreadGroups()
-				.get(threadGroupIndex).getSteps();
-		Steps s = new Steps(threadGroupsInfo.getTestAutomatDTO(),
-				threadGroupsInfo.getTestCaseDTO(), steps.getStep(),
-				threadGroupsInfo.getLogBasePath());
-		s.setReporters(reporters);
-		s.run();
+	private static StepsRunner[] execArrivals(
+			final ThreadGroupsInfo threadGroupsInfo,
+			final int threadGroupIndex, final List<Reporter> reporters,
+			TestCasesDTO base) throws Exception {
+		ThreadGroupType threadGroup = threadGroupsInfo.getThreadGroups().get(
+				threadGroupIndex);
+		log.info("Starting arrivals (rate=" + base.getArrivalRate()
+				+ "/s, duration=" + base.getArrivalDuration()
+				+ "ms, maxThreads=" + threadGroup.getCount() + ")");
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(
+				base.getArrivalRate(), base.getArrivalDuration(),
+				(int) threadGroup.getCount(),
+				new ArrivalRateScheduler.WorkerFactory() {
+					@Override
+					public ArrivalRateScheduler.Worker create(int workerIndex) {
+						return createStepsRunner(threadGroupsInfo,
+								threadGroupIndex, workerIndex, reporters);
+					}
+				});
+		ExecutorService pool = createExecutor(threadGroupsInfo,
+				(int) threadGroup.getCount(), true);
+		try {
+			scheduler.run(pool);
+		} finally {
+			pool.shutdown();
+		}
+		log.info("Arrivals finished (arrivals=" + scheduler.getArrivals()
+				+ ", completed=" + scheduler.getCompletedArrivals()
+				+ ", starved=" + scheduler.getStarvedArrivals() + ", failed="
+				+ scheduler.getFailedArrivals() + ", missed=" + scheduler.getMissedArrivals() + ", threads="
+				+ scheduler.getWorkers().size() + ", maxLag="
+				+ ReportProperties.formatMillis(scheduler.getMaxLag()) + "ms)");
+		StepsRunner[] stepsRunners = scheduler.getWorkers().toArray(
+				new StepsRunner[scheduler.getWorkers().size()]);
+		// add the statistics to the last report of the last thread with
+		// module reports (the reports of this thread are moved last and are
+		// kept by the report retention)
+		List<EntryType> arrivals = createArrivals(scheduler);
+		for (int i = stepsRunners.length - 1; i >= 0; i--) {
+			if (addProperties(threadGroupsInfo, stepsRunners[i], arrivals)) {
+				break;
+			}
+		}
+		return stepsRunners;
+	}
 
-		return steps.getStep();
+	/**
+	 * Creates the properties for the statistics of arrivals
+	 * 
+	 * @param scheduler
+	 * @return
+	 */
+	private static List<EntryType> createArrivals(
+			ArrivalRateScheduler scheduler) {
+		List<EntryType> ret = new ArrayList<>();
+		ret.add(ReportProperties.createEntry("arrivals",
+				String.valueOf(scheduler.getArrivals())));
+		ret.add(ReportProperties.createEntry("completedArrivals",
+				String.valueOf(scheduler.getCompletedArrivals())));
+		ret.add(ReportProperties.createEntry("starvedArrivals",
+				String.valueOf(scheduler.getStarvedArrivals())));
+		ret.add(ReportProperties.createEntry("failedArrivals",
+				String.valueOf(scheduler.getFailedArrivals())));
+		ret.add(ReportProperties.createEntry("missedArrivals",
+				String.valueOf(scheduler.getMissedArrivals())));
+		ret.add(ReportProperties.createEntry("maxArrivalLag",
+				ReportProperties.formatMillis(scheduler.getMaxLag())));
+		return ret;
 	}
 
 	/**
-	 * Gets the sequential number of a thread group in a step list. If the
-	 * thread group cannot be found then the count of all thread groups is
-	 * returned
+	 * Creates the timeline for starting the threads of a thread group
 	 * 
-	 * @param steps
+	 * @param threadGroupsInfo
 	 * @param threadGroup
-	 * @param found
-	 *            Wrapper for boolean (instance instead of value)
 	 * @return
 	 */
-	private static int getThreadGroupCount(List<StepType> steps,
-			ThreadGroupType threadGroup, Found found) {
+	private static RampUpScheduler createScheduler(
+			ThreadGroupsInfo threadGroupsInfo, ThreadGroupType threadGroup) {
+		TestCasesDTO base = threadGroupsInfo.getTestCaseDTO().getBase();
+		RampUpProfile profile = RampUpProfile.LINEAR;
+		int steps = 1;
+		if (base != null && base.getRampUpProfile() != null) {
+			profile = base.getRampUpProfile();
+			steps = base.getRampUpSteps();
+		}
+		return new RampUpScheduler(profile, (int) threadGroup.getCount(),
+				threadGroup.getRampUpPeriod(), steps);
+	}
 
-		int count = 0;
-		for (StepType step : steps) {
-			// if loop
-			if (step.getLoop() != null) {
-				LoopType l = step.getLoop();
-				count += getThreadGroupCount(l.getSteps().getStep(),
-						threadGroup, found);
-				if (found.isFound()) {
-					return count;
+	/**
+	 * Creates the properties for the planned start offset and the start skew
+	 * of a thread
+	 * 
+	 * @param plannedOffset
+	 * @param skew
+	 * @return
+	 */
+	private static List<EntryType> createStartSkew(long plannedOffset,
+			long skew) {
+		List<EntryType> ret = new ArrayList<>();
+		ret.add(ReportProperties.createEntry("plannedStartOffset",
+				ReportProperties.formatMillis(plannedOffset)));
+		ret.add(ReportProperties.createEntry("startSkew",
+				ReportProperties.formatMillis(skew)));
+		return ret;
+	}
+
+	/**
+	 * Adds properties to the last module report of the step list of a thread
+	 * and sends them to the report stream. The report has already been
+	 * streamed, so the properties are sent as a record of their own.
+	 * 
+	 * @param threadGroupsInfo
+	 * @param stepsRunner
+	 * @param properties
+	 * @return whether a module report exists
+	 * @throws Exception
+	 */
+	private static boolean addProperties(ThreadGroupsInfo threadGroupsInfo,
+			StepsRunner stepsRunner, List<EntryType> properties)
+			throws Exception {
+		ModuleReportType report = getLastModuleReport(stepsRunner.getSteps());
+		if (report == null) {
+			return false;
+		}
+		ReportProperties.add(report, properties);
+		ReportStream reportStream = threadGroupsInfo.getTestCaseDTO()
+				.getReportStream();
+		if (reportStream != null) {
+			reportStream.properties(stepsRunner.getPath(), properties);
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the last module report of a step list. Embedded loops are
+	 * included. The report is the last report of its step, so it is kept by
+	 * the report retention of a {@link ReportStream}.
+	 * 
+	 * @param steps
+	 * @return null, if no module report exists
+	 */
+	static ModuleReportType getLastModuleReport(List<StepType> steps) {
+		for (int i = steps.size() - 1; i >= 0; i--) {
+			StepType step = steps.get(i);
+			// if module
+			if (step.getModule() != null) {
+				ModuleType m = step.getModule();
+				if (m.getReports() != null
+						&& m.getReports().getReport().size() > 0) {
+					List<ModuleReportType> reports = m.getReports()
+							.getReport();
+					return reports.get(reports.size() - 1);
 				}
-			} else if (step.getThreads() != null) { // if threads
-				ThreadsType t = step.getThreads();
-				// for each thread group
-				for (ThreadGroupType tg : t.getThreadGroup()) {
-					count++;
-					if (tg == threadGroup) {
-						found.setFound(true);
-						return count;
-					}
-					// get count of containing thread groups (recursive call)
-					count += getThreadGroupCount(tg.getSteps().getStep(),
-							threadGroup, found);
-					if (found.isFound()) {
-						return count;
-					}
+			} else if (step.getLoop() != null) { // if loop
+				// recursive call
+				ModuleReportType report = getLastModuleReport(step.getLoop()
+						.getSteps().getStep());
+				if (report != null) {
+					return report;
 				}
 			}
 		}
-		found.setFound(false);
-		return count;
+		return null;
 	}
 
 	/**
-	 * Gets the thread group list of a thread group in a step list. The thread
-	 * group is determined by the sequential number. If the thread group cannot
-	 * be found then null is returned
+	 * Executes a list of steps
+	 * 
+	 * @param threadGroupsInfo
+	 * @param threadGroupIndex
+	 * @param path
+	 *            path to the step list of the thread
+	 * @param reporters
+	 * @throws Exception
+	 */
+	private static void execSteps(ThreadGroupsInfo threadGroupsInfo,
+			int threadGroupIndex, String path, List<Reporter> reporters)
+			throws Exception {
+		StepsType steps = threadGroupsInfo.getThreadGroups()
+				.get(threadGroupIndex).getSteps();
+		Steps s = new Steps(threadGroupsInfo.getTestAutomatDTO(),
+				threadGroupsInfo.getTestCaseDTO(), steps.getStep(),
+				threadGroupsInfo.getLogBasePath());
+		s.setReporters(reporters);
+		s.setPath(path);
+		if (threadGroupsInfo.getPlans() != null) {
+			s.setPlan(threadGroupsInfo.getPlans().get(threadGroupIndex));
+		}
+		String threadGroup = threadGroupsInfo.getLogBasePath() + "["
+				+ threadGroupIndex + "]";
+		TestautomatMetrics.getInstance().threadStarted(threadGroup);
+		try {
+			s.run();
+		} finally {
+			TestautomatMetrics.getInstance().threadFinished(threadGroup);
+		}
+	}
+
+	/**
+	 * Copies the steps along the path to a thread group list. Steps which are
+	 * not part of the path are shared with the original. The thread group
+	 * with the given index gets a copy of its step definitions without
+	 * reports. If the thread group list cannot be found then null is returned
 	 * 
 	 * @param steps
-	 * @param threadGroupCount
+	 * @param threadGroups
+	 * @param threadGroupIndex
+	 * @param copy
+	 *            receives the copied thread group list
 	 * @return
 	 */
-	private static List<ThreadGroupType> getThreadGroups(List<StepType> steps,
-			int threadGroupCount) {
-
-		for (StepType step : steps) {
+	static List<StepType> copyPath(List<StepType> steps,
+			List<ThreadGroupType> threadGroups, int threadGroupIndex,
+			ThreadGroupsCopy copy) {
+		for (int i = 0; i < steps.size(); i++) {
+			StepType step = steps.get(i);
+			StepType stepCopy = null;
 			// if loop
 			if (step.getLoop() != null) {
 				LoopType l = step.getLoop();
 				// recursive call
-				List<ThreadGroupType> threadGroups = getThreadGroups(l
-						.getSteps().getStep(), threadGroupCount);
-				if (threadGroups != null) {
-					return threadGroups;
+				List<StepType> loopSteps = copyPath(l.getSteps().getStep(),
+						threadGroups, threadGroupIndex, copy);
+				if (loopSteps != null) {
+					LoopType loopCopy = new LoopType();
+					loopCopy.setCount(l.getCount());
+					loopCopy.setSteps(DefinitionCopier.createSteps(loopSteps));
+					stepCopy = copyStep(step);
+					stepCopy.setLoop(loopCopy);
 				}
 			} else if (step.getThreads() != null) { // if threads
 				ThreadsType t = step.getThreads();
-				// for each thread group
-				for (int i = 0; i < t.getThreadGroup().size(); i++) {
-					ThreadGroupType threadGroup = t.getThreadGroup().get(i);
-					threadGroupCount--;
-					if (threadGroupCount == 0) {
-						return t.getThreadGroup();
+				List<ThreadGroupType> threadGroupsCopy = null;
+				if (t.getThreadGroup() == threadGroups) {
+					threadGroupsCopy = copyThreadGroups(threadGroups,
+							threadGroupIndex);
+					copy.setThreadGroups(threadGroupsCopy);
+				} else {
+					// for each thread group
+					for (int j = 0; j < t.getThreadGroup().size(); j++) {
+						ThreadGroupType threadGroup = t.getThreadGroup().get(j);
+						// recursive call
+						List<StepType> threadGroupSteps = copyPath(threadGroup
+								.getSteps().getStep(), threadGroups,
+								threadGroupIndex, copy);
+						if (threadGroupSteps != null) {
+							ThreadGroupType threadGroupCopy = new ThreadGroupType();
+							threadGroupCopy.setCount(threadGroup.getCount());
+							threadGroupCopy.setRampUpPeriod(threadGroup
+									.getRampUpPeriod());
+							threadGroupCopy.setSteps(DefinitionCopier
+									.createSteps(threadGroupSteps));
+							threadGroupsCopy = new ArrayList<ThreadGroupType>(
+									t.getThreadGroup());
+							threadGroupsCopy.set(j, threadGroupCopy);
+							break;
+						}
 					}
-					// recursive call
-					List<ThreadGroupType> threadGroups = getThreadGroups(
-							threadGroup.getSteps().getStep(), threadGroupCount);
-					if (threadGroups != null) {
-						return threadGroups;
+				}
+				if (threadGroupsCopy != null) {
+					ThreadsType threadsCopy = new ThreadsType();
+					threadsCopy.getThreadGroup().clear();
+					threadsCopy.getThreadGroup().addAll(threadGroupsCopy);
+					// use the list of the container
+					if (copy.getThreadGroups() == threadGroupsCopy) {
+						copy.setThreadGroups(threadsCopy.getThreadGroup());
 					}
+					stepCopy = copyStep(step);
+					stepCopy.setThreads(threadsCopy);
 				}
 			}
+			if (stepCopy != null) {
+				List<StepType> ret = new ArrayList<StepType>(steps);
+				ret.set(i, stepCopy);
+				return ret;
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * Copies a thread group list. The thread group with the given index gets a
+	 * copy of its step definitions without reports, all other thread groups
+	 * are shared with the original
+	 * 
+	 * @param threadGroups
+	 * @param threadGroupIndex
+	 * @return
+	 */
+	private static List<ThreadGroupType> copyThreadGroups(
+			List<ThreadGroupType> threadGroups, int threadGroupIndex) {
+		List<ThreadGroupType> ret = new ArrayList<ThreadGroupType>(
+				threadGroups);
+		ret.set(threadGroupIndex, DefinitionCopier
+				.copyThreadGroup(threadGroups.get(threadGroupIndex)));
+		return ret;
+	}
+
+	/**
+	 * Creates a shallow copy of a step. The copy gets its own report list
+	 * with the current reports of the original
+	 * 
+	 * @param step
+	 * @return
+	 */
+	private static StepType copyStep(StepType step) {
+		StepType ret = new StepType();
+		ret.setName(step.getName());
+		ret.setComment(step.getComment());
+		ret.setThrowExceptions(step.isThrowExceptions());
+		ret.setThrowVerificationErrors(step.isThrowVerificationErrors());
+		if (step.getReports() != null) {
+			StepReportsType reports = new StepReportsType();
+			reports.getReport().clear();
+			reports.getReport().addAll(step.getReports().getReport());
+			ret.setReports(reports);
+		}
+		return ret;
+	}
+
 	/**
 	 * Moves the reports from a step list to another step list. Reports in
 	 * embedded step lists are also moved
@@ -356,7 +672,7 @@ public class ThreadGroups {
 	 *            destination step list with the same structure as the source
 	 *            step list
 	 */
-	private static void moveReports(List<StepType> sourceSteps,
+	static void moveReports(List<StepType> sourceSteps,
 			List<StepType> destSteps) {
 		int passNoDiff = Steps.getMaxPassNo(destSteps) + 1;
 		// for each source step
@@ -423,66 +739,24 @@ public class ThreadGroups {
 		}
 	}
 
-	/**
-	 * Removes the existing reports from a step list. Reports in embedded step
-	 * lists are also removed
-	 * 
-	 * @param steps
-	 */
-	private static void removeReports(List<StepType> steps) {
-		for (StepType step : steps) {
-			step.setReports(null);
-			if (step.getModule() != null) {
-				ModuleType m = step.getModule();
-				// remove reports
-				m.setReports(null);
-			} else if (step.getLoop() != null) { // if loop
-				LoopType l = step.getLoop();
-				// recursive call
-				removeReports(l.getSteps().getStep());
-			} else if (step.getThreads() != null) { // if threads
-				ThreadsType t = step.getThreads();
-				// for each thread group
-				for (ThreadGroupType threadGroup : t.getThreadGroup()) {
-					// recursive call
-					removeReports(threadGroup.getSteps().getStep());
-				}
-			}
-		}
-	}
+	static class ThreadGroupsCopy {
+		private TestCaseType testCase;
+		private List<ThreadGroupType> threadGroups;
 
-	/**
-	 * Creates a deep clone of an object (realized with binary serializer)
-	 * 
-	 * @param a
-	 * @return
-	 * @throws IOException
-	 * @throws ClassNotFoundException
-	 */
-	@SuppressWarnings("unchecked")
-	private static <T> T deepClone(T a) throws IOException,
-			ClassNotFoundException {
-		ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		ObjectOutputStream out = new ObjectOutputStream(bos);
-		out.writeObject(a);
-		out.flush();
-		out.close();
-		// Make an input stream from the byte array and read
-		// a copy of the object back in.
-		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(
-				bos.toByteArray()));
-		return (T) in.readObject();
-	}
+		public TestCaseType getTestCase() {
+			return testCase;
+		}
 
-	private static class Found {
-		boolean found;
+		public void setTestCase(TestCaseType testCase) {
+			this.testCase = testCase;
+		}
 
-		public boolean isFound() {
-			return found;
+		public List<ThreadGroupType> getThreadGroups() {
+			return threadGroups;
 		}
 
-		public void setFound(boolean found) {
-			this.found = found;
+		public void setThreadGroups(List<ThreadGroupType> threadGroups) {
+			this.threadGroups = threadGroups;
 		}
 	}
 
@@ -525,35 +799,64 @@ public class ThreadGroups {
 		}
 	}
 
-	private static class StepsRunner implements Runnable {
-		private List<StepType> steps;
+	private static class StepsRunner implements Runnable,
+			ArrivalRateScheduler.Worker {
+		private final List<StepType> steps;
 		private Exception exception;
 		private final ThreadGroupsInfo threadGroupsInfo;
 		private final int threadGroupIndex;
 		private final int threadIndex;
 		private final int parentThreadId;
+		private final String path;
 		private final List<Reporter> reporters;
+		private long plannedOffset;
+		private long skew;
 
 		public List<StepType> getSteps() {
 			return steps;
 		}
 
+		/**
+		 * Sets the planned start offset and the skew between the actual and
+		 * the planned start (in nanoseconds)
+		 * 
+		 * @param plannedOffset
+		 * @param skew
+		 */
+		public void setStart(long plannedOffset, long skew) {
+			this.plannedOffset = plannedOffset;
+			this.skew = skew;
+		}
+
 		public Exception getException() {
 			return exception;
 		}
 
+		public ThreadGroupsInfo getThreadGroupsInfo() {
+			return threadGroupsInfo;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
 		private void setException(Exception exception) {
 			this.exception = exception;
 		}
 
 		public StepsRunner(ThreadGroupsInfo threadGroupsInfo,
 				int threadGroupIndex, int threadIndex, int parentThreadId,
-				List<Reporter> reporters) {
+				String path, List<Reporter> reporters) {
 			this.threadGroupsInfo = threadGroupsInfo;
 			this.threadGroupIndex = threadGroupIndex;
 			this.threadIndex = threadIndex;
 			this.parentThreadId = parentThreadId;
+			this.path = path;
 			this.reporters = reporters;
+			// the copied step list of the thread receives the reports even if
+			// the execution fails
+			steps = threadGroupsInfo.getThreadGroups().get(threadGroupIndex)
+					.getSteps().getStep();
 		}
 
 		public void run() {
@@ -563,9 +866,30 @@ public class ThreadGroups {
 				log.info("Thread " + (threadIndex + 1) + "/"
 						+ threadGroup.getCount() + "started (parentThreadId="
 						+ parentThreadId + ")");
-				steps = execSteps(threadGroupsInfo, threadGroupIndex, reporters);
+				execSteps(threadGroupsInfo, threadGroupIndex, path, reporters);
+			} catch (Exception e) {
+				setException(e);
+			}
+			try {
+				addProperties(threadGroupsInfo, this,
+						createStartSkew(plannedOffset, skew));
+			} catch (Exception e) {
+				if (exception == null) {
+					setException(e);
+				} else {
+					log.warn("Could not add the start skew", e);
+				}
+			}
+		}
+
+		@Override
+		public boolean execute() {
+			try {
+				execSteps(threadGroupsInfo, threadGroupIndex, path, reporters);
+				return true;
 			} catch (Exception e) {
 				setException(e);
+				return false;
 			}
 		}
 	}
@@ -575,6 +899,9 @@ public class ThreadGroups {
 		private TestCaseDTO testCaseDTO;
 		private List<ThreadGroupType> threadGroups;
 		private String logBasePath;
+		private String path;
+		private long run;
+		private List<ExecutionPlan> plans;
 
 		public TestAutomatDTO getTestAutomatDTO() {
 			return testAutomatDTO;
@@ -607,6 +934,35 @@ public class ThreadGroups {
 		public void setLogBasePath(String logBasePath) {
 			this.logBasePath = logBasePath;
 		}
+
+		/**
+		 * Gets the path to the threads step
+		 * 
+		 * @return
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		public void setPath(String path) {
+			this.path = path;
+		}
+
+		public long getRun() {
+			return run;
+		}
+
+		public void setRun(long run) {
+			this.run = run;
+		}
+
+		public List<ExecutionPlan> getPlans() {
+			return plans;
+		}
+
+		public void setPlans(List<ExecutionPlan> plans) {
+			this.plans = plans;
+		}
 	}
 
 }
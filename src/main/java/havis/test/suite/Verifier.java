@@ -2,9 +2,7 @@ package havis.test.suite;
 
 import havis.test.suite.api.NDIContext;
 import havis.test.suite.common.Diff;
-import havis.test.suite.common.IO;
 import havis.test.suite.common.messaging.XMLMessage;
-import havis.test.suite.common.messaging.XQuery;
 import havis.test.suite.testcase.EntryType;
 import havis.test.suite.testcase.ReportVerificationType;
 import havis.test.suite.testcase.VerificationType;
@@ -13,10 +11,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.springframework.context.ApplicationContext;
-import org.stringtemplate.v4.ST;
 
 public class Verifier {
 
@@ -31,7 +27,8 @@ public class Verifier {
 		}
 	}
 
-	private final ApplicationContext context;
+	private final ResourceCache resources;
+	private final XQueryCache queries = XQueryCache.getInstance();
 
 	/**
 	 * Initializes a verifier
@@ -40,7 +37,17 @@ public class Verifier {
 	 * @param baseDir
 	 */
 	public Verifier(ApplicationContext context, String baseDir) {
-		this.context = context;
+		this(new ResourceCache(context), baseDir);
+	}
+
+	/**
+	 * Initializes a verifier which uses the resources of a test case
+	 * 
+	 * @param resources
+	 * @param baseDir
+	 */
+	public Verifier(ResourceCache resources, String baseDir) {
+		this.resources = resources;
 		this.baseDir = baseDir;
 	}
 
@@ -53,8 +60,7 @@ public class Verifier {
 	 * @throws IOException
 	 */
 	private String loadFile(String path) throws IOException {
-		IO io = new IO(context);
-		return io.loadResource(baseDir + "/" + path);
+		return resources.loadFile(baseDir + "/" + path);
 	}
 
 	/**
@@ -65,14 +71,10 @@ public class Verifier {
 	 * @param globalContext
 	 * @return
 	 */
-	private static String applyTemplate(String content,
-			List<EntryType> parameters, NDIContext globalContext) {
-		ST template = new ST(content, '$', '$');
-		for (Entry<String, Object> parameter : new XMLTypeConverter().convert(
-				parameters, globalContext).entrySet()) {
-			template.add(parameter.getKey(), parameter.getValue());
-		}
-		return template.render();
+	private String applyTemplate(String content, List<EntryType> parameters,
+			NDIContext globalContext) {
+		return resources.render(content,
+				new XMLTypeConverter().convert(parameters, globalContext));
 	}
 
 	/**
@@ -156,11 +158,11 @@ public class Verifier {
 			}
 
 			// filter the actual result
-			XQuery xq = new XQuery(actualFilter);
-			String filteredActualResult = xq.execute(actualResult, uri);
+			String filteredActualResult = queries.execute(actualFilter,
+					actualResult, uri);
 			// filter the expected result
-			xq = new XQuery(expectedFilter);
-			String filteredExpectedResult = xq.execute(expectedResult, uri);
+			String filteredExpectedResult = queries.execute(expectedFilter,
+					expectedResult, uri);
 			// normalize filtered results
 			String normalizedActualResult = new XMLMessage(filteredActualResult)
 					.normalize();
@@ -10,15 +10,45 @@ import havis.test.suite.testcase.ReportVerificationType;
 import havis.test.suite.testcase.VerificationType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class XMLTypeConverter {
 
+	/**
+	 * Marks a cached definition which references the global context
+	 */
+	private static final Object DYNAMIC = new Object();
+
 	public Map<String, Object> convert(List<EntryType> entries,
 			NDIContext globalContext) {
-		return convert(entries, globalContext, null);
+		return convert(entries, globalContext, (String) null);
+	}
+
+	/**
+	 * Converts entries like {@link #convert(List, NDIContext)}. Dictionaries
+	 * and lists which do not reference the global context are only converted
+	 * once and taken from the cache afterwards. The cached maps and lists are
+	 * unmodifiable; if no entry references the global context then the
+	 * returned map itself is unmodifiable.
+	 * 
+	 * @param entries
+	 * @param globalContext
+	 * @param cache
+	 *            if null then the entries are converted without cache
+	 * @return
+	 */
+	public Map<String, Object> convert(List<EntryType> entries,
+			NDIContext globalContext, PropertiesCache cache) {
+		if (cache == null) {
+			return convert(entries, globalContext);
+		}
+		if (entries == null) {
+			return new HashMap<String, Object>();
+		}
+		return convert(entries, globalContext, null, cache);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -150,6 +180,129 @@ public class XMLTypeConverter {
 		return ret;
 	}
 
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> convert(List<EntryType> entries,
+			NDIContext globalContext, String community, PropertiesCache cache) {
+		Object cached = cache.get(entries);
+		if (cached instanceof Map) {
+			return (Map<String, Object>) cached;
+		}
+		HashMap<String, Object> ret = new HashMap<String, Object>();
+		for (EntryType entry : entries) {
+			String entryCommunity = community;
+
+			if (entry.getGlobalContextCommunity() != null) {
+				entryCommunity = entry.getGlobalContextCommunity();
+			}
+
+			Object value;
+
+			if (entry.getValue() != null) {
+				value = getValue(entry.getValue(), globalContext,
+						entryCommunity);
+			} else if (entry.getDictionary() != null) {
+				value = convert(entry.getDictionary().getEntry(),
+						globalContext, entryCommunity, cache);
+			} else if (entry.getList() != null) {
+				value = convert(entry.getList(), globalContext,
+						entryCommunity, cache);
+			} else {
+				value = new ArrayList<Object>();
+			}
+
+			ret.put(entry.getName(), value);
+		}
+		if (cached == null) {
+			if (community == null && isStatic(entries)) {
+				Map<String, Object> value = Collections.unmodifiableMap(ret);
+				cache.put(entries, value);
+				return value;
+			}
+			cache.put(entries, DYNAMIC);
+		}
+		return ret;
+	}
+
+	private List<Object> convert(ListType entries, NDIContext globalContext,
+			String community, PropertiesCache cache) {
+		Object cached = cache.get(entries);
+		if (cached instanceof List) {
+			@SuppressWarnings("unchecked")
+			List<Object> ret = (List<Object>) cached;
+			return ret;
+		}
+		List<Object> ret = new ArrayList<Object>();
+		if (entries.getValue() != null) {
+			for (String entry : entries.getValue()) {
+				ret.add(getValue(entry, globalContext, community));
+			}
+		} else if (entries.getDictionary() != null) {
+			for (DictionaryType entry : entries.getDictionary()) {
+				ret.add(convert(entry.getEntry(), globalContext, community,
+						cache));
+			}
+		} else {
+			for (ListType entry : entries.getList()) {
+				ret.add(convert(entry, globalContext, community, cache));
+			}
+		}
+		if (cached == null) {
+			if (community == null && isStatic(entries)) {
+				List<Object> value = Collections.unmodifiableList(ret);
+				cache.put(entries, value);
+				return value;
+			}
+			cache.put(entries, DYNAMIC);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns whether entries do not reference the global context (incl.
+	 * embedded dictionaries and lists)
+	 * 
+	 * @param entries
+	 * @return
+	 */
+	private static boolean isStatic(List<EntryType> entries) {
+		for (EntryType entry : entries) {
+			if (entry.getGlobalContextCommunity() != null) {
+				return false;
+			}
+			if (entry.getValue() == null) {
+				if (entry.getDictionary() != null) {
+					if (!isStatic(entry.getDictionary().getEntry())) {
+						return false;
+					}
+				} else if (entry.getList() != null
+						&& !isStatic(entry.getList())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isStatic(ListType entries) {
+		if (entries.getValue() != null) {
+			return true;
+		}
+		if (entries.getDictionary() != null) {
+			for (DictionaryType entry : entries.getDictionary()) {
+				if (!isStatic(entry.getEntry())) {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (ListType entry : entries.getList()) {
+			if (!isStatic(entry)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private static Object getValue(String value, NDIProvider globalContext,
 			String community) {
 		return community == null ? value : globalContext.getValue(community,
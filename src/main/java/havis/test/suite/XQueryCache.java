@@ -0,0 +1,158 @@
+package havis.test.suite;
+
+import havis.test.suite.common.messaging.XQuery;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of compiled XQuery expressions. The expressions are keyed by
+ * their text and evicted in LRU order. One instance is shared by all verifiers
+ * of all threads. The thread safety of a compiled expression is not
+ * guaranteed, so each query has a small pool of compiled expressions. An
+ * expression is used by one thread at a time and the pool grows up to the
+ * count of threads which execute the query concurrently.
+ */
+public class XQueryCache {
+
+	private static final int DEFAULT_CAPACITY = 256;
+	private static final XQueryCache instance = new XQueryCache(
+			DEFAULT_CAPACITY);
+
+	private final int capacity;
+	// idle compiled expressions per query
+	private final Map<String, Queue<XQuery>> queries;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Returns the cache which is shared by all verifiers
+	 *
+	 * @return
+	 */
+	public static XQueryCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 *
+	 * @param capacity
+	 *            max. count of cached queries (the pool of a query is not
+	 *            bounded, it holds one compiled expression per thread which
+	 *            executes the query concurrently)
+	 */
+	public XQueryCache(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be greater than 0");
+		}
+		this.capacity = capacity;
+		queries = new LinkedHashMap<String, Queue<XQuery>>(16, 0.75f, true /* accessOrder */) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, Queue<XQuery>> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Takes a compiled expression for a query from the pool. The query is
+	 * compiled if no idle expression exists. The expression must be returned
+	 * with {@link #release(String, XQuery)} after its use.
+	 *
+	 * @param query
+	 * @return
+	 * @throws Exception
+	 */
+	public XQuery borrow(String query) throws Exception {
+		Queue<XQuery> pool;
+		synchronized (queries) {
+			pool = queries.get(query);
+			if (pool == null) {
+				pool = new ConcurrentLinkedQueue<XQuery>();
+				queries.put(query, pool);
+			}
+		}
+		XQuery xq = pool.poll();
+		if (xq != null) {
+			hits.incrementAndGet();
+			return xq;
+		}
+		misses.incrementAndGet();
+		// compile outside of the lock
+		return new XQuery(query);
+	}
+
+	/**
+	 * Returns a compiled expression to the pool of its query. The expression
+	 * is dropped if the query has been evicted in the meantime.
+	 *
+	 * @param query
+	 * @param xq
+	 */
+	public void release(String query, XQuery xq) {
+		Queue<XQuery> pool;
+		synchronized (queries) {
+			pool = queries.get(query);
+		}
+		if (pool != null) {
+			pool.offer(xq);
+		}
+	}
+
+	/**
+	 * Executes a query with a cached expression. Concurrent executions of the
+	 * same query use different compiled expressions.
+	 *
+	 * @param query
+	 * @param xml
+	 * @param baseURI
+	 * @return
+	 * @throws Exception
+	 */
+	public String execute(String query, String xml, URI baseURI)
+			throws Exception {
+		XQuery xq = borrow(query);
+		try {
+			return xq.execute(xml, baseURI);
+		} finally {
+			release(query, xq);
+		}
+	}
+
+	/**
+	 * Removes all compiled expressions and resets the counters
+	 */
+	public void clear() {
+		synchronized (queries) {
+			queries.clear();
+		}
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getSize() {
+		synchronized (queries) {
+			return queries.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+}
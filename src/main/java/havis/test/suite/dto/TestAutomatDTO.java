@@ -4,6 +4,8 @@ import java.util.Map;
 
 import org.springframework.context.ApplicationContext;
 
+import havis.test.suite.StepIdGenerator;
+import havis.test.suite.StepPool;
 import havis.test.suite.api.NDIContext;
 import havis.test.suite.api.UI;
 
@@ -14,6 +16,10 @@ public class TestAutomatDTO {
 	// Mapping of the objectId to its declaration file (full path).
 	private Map<String, String> objectIdFiles;
 	private UI ui;
+	// Pool of step module instances (null if the instances are not pooled).
+	private StepPool stepPool;
+	// Generates the ids of test cases and step executions.
+	private StepIdGenerator stepIds = StepIdGenerator.RANDOM;
 
 	public NDIContext getGlobalContext() {
 		return globalContext;
@@ -47,4 +53,20 @@ public class TestAutomatDTO {
 		this.ui = ui;
 	}
 
+	public StepPool getStepPool() {
+		return stepPool;
+	}
+
+	public void setStepPool(StepPool stepPool) {
+		this.stepPool = stepPool;
+	}
+
+	public StepIdGenerator getStepIds() {
+		return stepIds;
+	}
+
+	public void setStepIds(StepIdGenerator stepIds) {
+		this.stepIds = stepIds;
+	}
+
 }
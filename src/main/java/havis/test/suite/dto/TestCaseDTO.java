@@ -1,5 +1,12 @@
 package havis.test.suite.dto;
 
+import havis.test.suite.DeltaReport;
+import havis.test.suite.EngineOverhead;
+import havis.test.suite.LatencyRecorder;
+import havis.test.suite.PropertiesCache;
+import havis.test.suite.ReportStream;
+import havis.test.suite.ResourceCache;
+import havis.test.suite.TestCaseClock;
 import havis.test.suite.testcase.TestCaseType;
 
 import java.util.Map;
@@ -11,6 +18,24 @@ public class TestCaseDTO {
 	private String name;
 	private String home;
 	private Map<String, Object> parameters;
+	// Resources which are referenced by the test case.
+	private ResourceCache resources;
+	// Receives the reports while the test case is executed (null if all
+	// reports are kept in the test case).
+	private ReportStream reportStream;
+	// Remembers the reports which have been sent as delta reports.
+	private DeltaReport deltaReport = new DeltaReport();
+	// Measures the start and end times of the test case and its steps.
+	private TestCaseClock clock = new TestCaseClock();
+	// Records the latencies of the step modules (null if the latencies are
+	// not recorded).
+	private LatencyRecorder latencies;
+	// Sums up the phase durations of the step modules (null if the phases
+	// are not measured).
+	private EngineOverhead overhead;
+	// Converted step properties (null if the step properties are converted
+	// for each execution).
+	private PropertiesCache propertiesCache;
 
 	public Map<String, Object> getParameters() {
 		return parameters;
@@ -62,4 +87,60 @@ public class TestCaseDTO {
 		this.testCase = testCase;
 	}
 
+	public ResourceCache getResources() {
+		return resources;
+	}
+
+	public void setResources(ResourceCache resources) {
+		this.resources = resources;
+	}
+
+	public ReportStream getReportStream() {
+		return reportStream;
+	}
+
+	public void setReportStream(ReportStream reportStream) {
+		this.reportStream = reportStream;
+	}
+
+	public DeltaReport getDeltaReport() {
+		return deltaReport;
+	}
+
+	public void setDeltaReport(DeltaReport deltaReport) {
+		this.deltaReport = deltaReport;
+	}
+
+	public TestCaseClock getClock() {
+		return clock;
+	}
+
+	public void setClock(TestCaseClock clock) {
+		this.clock = clock;
+	}
+
+	public LatencyRecorder getLatencies() {
+		return latencies;
+	}
+
+	public void setLatencies(LatencyRecorder latencies) {
+		this.latencies = latencies;
+	}
+
+	public EngineOverhead getOverhead() {
+		return overhead;
+	}
+
+	public void setOverhead(EngineOverhead overhead) {
+		this.overhead = overhead;
+	}
+
+	public PropertiesCache getPropertiesCache() {
+		return propertiesCache;
+	}
+
+	public void setPropertiesCache(PropertiesCache propertiesCache) {
+		this.propertiesCache = propertiesCache;
+	}
+
 }
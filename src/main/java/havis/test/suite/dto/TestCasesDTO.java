@@ -1,5 +1,10 @@
 package havis.test.suite.dto;
 
+import havis.test.suite.RampUpProfile;
+import havis.test.suite.ReportValidation;
+import havis.test.suite.SchemaValidator;
+import havis.test.suite.TestCaseDefinitionCache;
+import havis.test.suite.ThreadGroupExecution;
 import havis.test.suite.common.messaging.XSD;
 
 import java.util.Map;
@@ -12,9 +17,50 @@ public class TestCasesDTO {
 	private String descriptorFileName;
 	//The XSD file for the test cases.
 	private XSD xsd;
+	//The compiled XSD for the test cases. If set then it is used instead of
+	//the XSD file.
+	private SchemaValidator schema;
+	//Decides which final reports are validated against the XSD.
+	private ReportValidation reportValidation = new ReportValidation();
 	//A list of key/value pairs which can be used in a test case
 	//definition/template.
 	private Map<String, Object> parameters;
+	//The execution mode of the threads of thread groups.
+	private ThreadGroupExecution threadGroupExecution = ThreadGroupExecution.PLATFORM;
+	//The max. count of platform threads per thread group if the threads
+	//are executed by a pool.
+	private int threadGroupPoolSize = 256;
+	//The profile for starting the threads of thread groups within the
+	//ramp-up period.
+	private RampUpProfile rampUpProfile = RampUpProfile.LINEAR;
+	//The count of batches for the stepped ramp-up profile.
+	private int rampUpSteps = 4;
+	//The count of executions of the step list of a thread group per second.
+	//If 0 then each thread executes the step list once (closed model).
+	private double arrivalRate;
+	//The period in milliseconds in which executions are started with the
+	//arrival rate.
+	private long arrivalDuration = 60000;
+	//The count of reports which are kept per step while executing a test
+	//case. If greater than 0 then all reports are streamed to a file and
+	//to the reporters which are report sinks. If 0 then all reports are
+	//kept.
+	private int reportRetention;
+	//The directory for the files of streamed reports.
+	private String reportStreamDir;
+	//The parsed definitions of test cases (used for repeated imports).
+	private TestCaseDefinitionCache definitions = new TestCaseDefinitionCache();
+	//Decides whether the latencies of the step modules are recorded and
+	//added to the test case reports.
+	private boolean latencyHistograms;
+	//Decides whether the durations of the execution phases of the step
+	//modules are added to the module reports and the overhead of the test
+	//automat is added to the test case reports.
+	private boolean engineOverhead;
+	//Decides whether step properties which do not reference the global
+	//context are converted once per test case. The step modules get
+	//unmodifiable properties then.
+	private boolean cachedStepProperties;
 
 	public XSD getXsd() {
 		return xsd;
@@ -24,6 +70,22 @@ public class TestCasesDTO {
 		this.xsd = xsd;
 	}
 
+	public SchemaValidator getSchema() {
+		return schema;
+	}
+
+	public void setSchema(SchemaValidator schema) {
+		this.schema = schema;
+	}
+
+	public ReportValidation getReportValidation() {
+		return reportValidation;
+	}
+
+	public void setReportValidation(ReportValidation reportValidation) {
+		this.reportValidation = reportValidation;
+	}
+
 	public String getHome() {
 		return home;
 	}
@@ -48,4 +110,101 @@ public class TestCasesDTO {
 		this.parameters = parameters;
 	}
 
+	public ThreadGroupExecution getThreadGroupExecution() {
+		return threadGroupExecution;
+	}
+
+	public void setThreadGroupExecution(
+			ThreadGroupExecution threadGroupExecution) {
+		this.threadGroupExecution = threadGroupExecution;
+	}
+
+	public int getThreadGroupPoolSize() {
+		return threadGroupPoolSize;
+	}
+
+	public void setThreadGroupPoolSize(int threadGroupPoolSize) {
+		this.threadGroupPoolSize = threadGroupPoolSize;
+	}
+
+	public RampUpProfile getRampUpProfile() {
+		return rampUpProfile;
+	}
+
+	public void setRampUpProfile(RampUpProfile rampUpProfile) {
+		this.rampUpProfile = rampUpProfile;
+	}
+
+	public int getRampUpSteps() {
+		return rampUpSteps;
+	}
+
+	public void setRampUpSteps(int rampUpSteps) {
+		this.rampUpSteps = rampUpSteps;
+	}
+
+	public double getArrivalRate() {
+		return arrivalRate;
+	}
+
+	public void setArrivalRate(double arrivalRate) {
+		this.arrivalRate = arrivalRate;
+	}
+
+	public long getArrivalDuration() {
+		return arrivalDuration;
+	}
+
+	public void setArrivalDuration(long arrivalDuration) {
+		this.arrivalDuration = arrivalDuration;
+	}
+
+	public int getReportRetention() {
+		return reportRetention;
+	}
+
+	public void setReportRetention(int reportRetention) {
+		this.reportRetention = reportRetention;
+	}
+
+	public String getReportStreamDir() {
+		return reportStreamDir;
+	}
+
+	public void setReportStreamDir(String reportStreamDir) {
+		this.reportStreamDir = reportStreamDir;
+	}
+
+	public TestCaseDefinitionCache getDefinitions() {
+		return definitions;
+	}
+
+	public void setDefinitions(TestCaseDefinitionCache definitions) {
+		this.definitions = definitions;
+	}
+
+	public boolean isLatencyHistograms() {
+		return latencyHistograms;
+	}
+
+	public void setLatencyHistograms(boolean latencyHistograms) {
+		this.latencyHistograms = latencyHistograms;
+	}
+
+	public boolean isEngineOverhead() {
+		return engineOverhead;
+	}
+
+	public void setEngineOverhead(boolean engineOverhead) {
+		this.engineOverhead = engineOverhead;
+	}
+
+	public boolean isCachedStepProperties() {
+		return cachedStepProperties;
+	}
+
+	public void setCachedStepProperties(boolean cachedStepProperties) {
+		this.cachedStepProperties = cachedStepProperties;
+	}
+
 }
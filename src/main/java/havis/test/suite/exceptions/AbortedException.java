@@ -0,0 +1,13 @@
+package havis.test.suite.exceptions;
+
+/**
+ * Thrown when the execution has been aborted via JMX
+ */
+public class AbortedException extends Exception {
+	private static final long serialVersionUID = 3346158202315486930L;
+
+	public AbortedException(String message) {
+		super(message);
+	}
+
+}
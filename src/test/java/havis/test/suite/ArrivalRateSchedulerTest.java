@@ -0,0 +1,239 @@
+package havis.test.suite;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ArrivalRateSchedulerTest {
+
+	/**
+	 * Ticker with a virtual time. The time is advanced to the next arrival
+	 * after {@link #beforeArrival(int)} has returned.
+	 */
+	private static class VirtualTicker implements ArrivalRateScheduler.Ticker {
+		private volatile long time = 1000;
+		private int arrivalIndex;
+		ArrivalRateScheduler scheduler;
+
+		@Override
+		public long nanoTime() {
+			return time;
+		}
+
+		@Override
+		public void sleepUntil(long time) throws InterruptedException {
+			if (time > this.time) {
+				beforeArrival(++arrivalIndex);
+				this.time = time;
+			}
+		}
+
+		/**
+		 * Waits until the workers are ready for the next arrival
+		 *
+		 * @param arrivalIndex
+		 * @throws InterruptedException
+		 */
+		void beforeArrival(int arrivalIndex) throws InterruptedException {
+		}
+
+		void await(int idleWorkers, int activeWorkers)
+				throws InterruptedException {
+			while (scheduler.getIdleWorkers() != idleWorkers
+					|| scheduler.getActiveWorkers() != activeWorkers) {
+				Thread.sleep(1);
+			}
+		}
+	}
+
+	private static ArrivalRateScheduler.WorkerFactory createFactory(
+			final ArrivalRateScheduler.Worker worker) {
+		return new ArrivalRateScheduler.WorkerFactory() {
+			@Override
+			public ArrivalRateScheduler.Worker create(int workerIndex) {
+				return worker;
+			}
+		};
+	}
+
+	private static void run(ArrivalRateScheduler scheduler,
+			ExecutorService pool) throws Exception {
+		try {
+			scheduler.run(pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void run() throws Exception {
+		VirtualTicker ticker = new VirtualTicker() {
+			@Override
+			void beforeArrival(int arrivalIndex) throws InterruptedException {
+				// the worker has finished the previous arrival
+				await(1, 1);
+			}
+		};
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(100, 200,
+				4, createFactory(new ArrivalRateScheduler.Worker() {
+					@Override
+					public boolean execute() {
+						return true;
+					}
+				}), ticker);
+		ticker.scheduler = scheduler;
+		run(scheduler, Executors.newCachedThreadPool());
+		// 100 arrivals per second within 200 ms
+		Assert.assertEquals(scheduler.getArrivals(), 20);
+		Assert.assertEquals(scheduler.getMissedArrivals(), 0);
+		Assert.assertEquals(scheduler.getCompletedArrivals(), 20);
+		Assert.assertEquals(scheduler.getStarvedArrivals(), 0);
+		Assert.assertEquals(scheduler.getFailedArrivals(), 0);
+		// the idle worker executes all arrivals
+		Assert.assertEquals(scheduler.getWorkers().size(), 1);
+		Assert.assertEquals(scheduler.getMaxLag(), 0);
+		Assert.assertEquals(scheduler.getActiveWorkers(), 0);
+	}
+
+	@Test
+	public void missedArrivals() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		VirtualTicker ticker = new VirtualTicker() {
+			@Override
+			void beforeArrival(int arrivalIndex) throws InterruptedException {
+				if (arrivalIndex == 1) {
+					started.await();
+				} else if (arrivalIndex == 19) {
+					// the worker is ready for the last arrival
+					release.countDown();
+					await(1, 1);
+				}
+			}
+		};
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(100, 200,
+				1, createFactory(new ArrivalRateScheduler.Worker() {
+					@Override
+					public boolean execute() {
+						started.countDown();
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							return false;
+						}
+						return true;
+					}
+				}), ticker);
+		ticker.scheduler = scheduler;
+		run(scheduler, Executors.newCachedThreadPool());
+		// a single worker cannot keep the rate
+		Assert.assertEquals(scheduler.getArrivals(), 20);
+		Assert.assertEquals(scheduler.getWorkers().size(), 1);
+		Assert.assertEquals(scheduler.getMissedArrivals(), 18);
+		Assert.assertEquals(scheduler.getCompletedArrivals(), 2);
+	}
+
+	@Test
+	public void failedArrivals() throws Exception {
+		VirtualTicker ticker = new VirtualTicker() {
+			@Override
+			void beforeArrival(int arrivalIndex) throws InterruptedException {
+				// the failed worker has finished
+				await(0, 0);
+			}
+		};
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(100, 200,
+				1, createFactory(new ArrivalRateScheduler.Worker() {
+					@Override
+					public boolean execute() {
+						return false;
+					}
+				}), ticker);
+		ticker.scheduler = scheduler;
+		run(scheduler, Executors.newCachedThreadPool());
+		// each failed worker frees its place for a new worker
+		Assert.assertEquals(scheduler.getArrivals(), 20);
+		Assert.assertEquals(scheduler.getWorkers().size(), 20);
+		Assert.assertEquals(scheduler.getFailedArrivals(), 20);
+		Assert.assertEquals(scheduler.getMissedArrivals(), 0);
+		Assert.assertEquals(scheduler.getCompletedArrivals(), 0);
+	}
+
+	@Test
+	public void starvedArrivals() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		VirtualTicker ticker = new VirtualTicker() {
+			@Override
+			void beforeArrival(int arrivalIndex) throws InterruptedException {
+				if (arrivalIndex == 1) {
+					// the first worker occupies the only thread of the pool
+					started.await();
+				} else {
+					release.countDown();
+					// the first worker is idle, the second worker waits for
+					// the thread
+					await(1, 2);
+				}
+			}
+		};
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(100, 200,
+				2, new ArrivalRateScheduler.WorkerFactory() {
+					@Override
+					public ArrivalRateScheduler.Worker create(int workerIndex) {
+						if (workerIndex > 0) {
+							return new ArrivalRateScheduler.Worker() {
+								@Override
+								public boolean execute() {
+									return true;
+								}
+							};
+						}
+						return new ArrivalRateScheduler.Worker() {
+							@Override
+							public boolean execute() {
+								started.countDown();
+								try {
+									release.await();
+								} catch (InterruptedException e) {
+									return false;
+								}
+								return true;
+							}
+						};
+					}
+				}, ticker);
+		ticker.scheduler = scheduler;
+		run(scheduler, Executors.newFixedThreadPool(1));
+		Assert.assertEquals(scheduler.getArrivals(), 20);
+		Assert.assertEquals(scheduler.getWorkers().size(), 2);
+		// the second worker gets the thread after the end of the duration
+		Assert.assertEquals(scheduler.getStarvedArrivals(), 1);
+		Assert.assertEquals(scheduler.getCompletedArrivals(), 19);
+		Assert.assertEquals(scheduler.getMissedArrivals(), 0);
+	}
+
+	@Test
+	public void systemTicker() throws Exception {
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(1000, 10,
+				1, createFactory(new ArrivalRateScheduler.Worker() {
+					@Override
+					public boolean execute() {
+						return true;
+					}
+				}));
+		run(scheduler, Executors.newCachedThreadPool());
+		Assert.assertEquals(scheduler.getArrivals(), 10);
+		Assert.assertEquals(scheduler.getCompletedArrivals()
+				+ scheduler.getStarvedArrivals()
+				+ scheduler.getMissedArrivals(), 10);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidRate() {
+		new ArrivalRateScheduler(0, 1000, 1, null);
+	}
+}
@@ -0,0 +1,186 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AsyncReporterTest {
+
+	@Test
+	public void spillToDisk() throws Exception {
+		BlockingReporter reporter = new BlockingReporter();
+		AsyncReporter asyncReporter = new AsyncReporter(reporter, "r", 1, 10,
+				ReportOverflowPolicy.SPILL_TO_DISK);
+		asyncReporter.start(null, null, null);
+		try {
+			for (int i = 0; i < 20; i++) {
+				asyncReporter.report(String.valueOf(i));
+			}
+			reporter.release();
+			asyncReporter.flush();
+			// all reports are sent in the order of the queuing
+			Assert.assertEquals(reporter.getReports().size(), 20);
+			for (int i = 0; i < 20; i++) {
+				Assert.assertEquals(reporter.getReports().get(i),
+						String.valueOf(i));
+			}
+		} finally {
+			asyncReporter.stop();
+		}
+		Assert.assertTrue(reporter.isStopped());
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class, timeOut = 10000)
+	public void workerDied() throws Exception {
+		BlockingReporter reporter = new BlockingReporter() {
+			@Override
+			public void report(String report) throws Exception {
+				// the thread for sending the reports dies
+				throw new Error(report);
+			}
+		};
+		AsyncReporter asyncReporter = new AsyncReporter(reporter, "r", 1, 1,
+				ReportOverflowPolicy.BLOCK);
+		asyncReporter.start(null, null, null);
+		try {
+			// the queue is full after the thread has died
+			for (int i = 0; i < 3; i++) {
+				asyncReporter.report(String.valueOf(i));
+			}
+		} finally {
+			asyncReporter.stop();
+		}
+	}
+
+	@Test
+	public void dropIntermediate() throws Exception {
+		BlockingReporter reporter = new BlockingReporter();
+		AsyncReporter asyncReporter = new AsyncReporter(reporter, "r", 2, 1,
+				ReportOverflowPolicy.DROP_INTERMEDIATE);
+		asyncReporter.start(null, null, null);
+		try {
+			Object testCase = new Object();
+			for (int i = 0; i < 10; i++) {
+				asyncReporter.report(testCase, "i" + i, true, false);
+			}
+			reporter.release();
+			for (int i = 0; i < 5; i++) {
+				asyncReporter.report(testCase, "d" + i, true, true);
+			}
+			asyncReporter.report(testCase, "final", false, false);
+			asyncReporter.flush();
+			List<String> reports = reporter.getReports();
+			// full intermediate reports have been dropped
+			Assert.assertTrue(reports.size() < 16);
+			// delta reports are never dropped
+			Assert.assertEquals(reports.subList(reports.size() - 6,
+					reports.size()), Arrays.asList("d0", "d1", "d2", "d3",
+					"d4", "final"));
+		} finally {
+			asyncReporter.stop();
+		}
+	}
+
+	@Test
+	public void skipIntermediate() throws Exception {
+		BlockingReporter reporter = new BlockingReporter();
+		AsyncReporter asyncReporter = new AsyncReporter(reporter, "r", 10, 10,
+				ReportOverflowPolicy.BLOCK);
+		asyncReporter.start(null, null, null);
+		try {
+			Object testCase1 = new Object();
+			Object testCase2 = new Object();
+			// the first report blocks the reporter
+			asyncReporter.report("first");
+			reporter.awaitReporting();
+			asyncReporter.report(testCase1, "i1", true, false);
+			asyncReporter.report(testCase2, "d2", true, true);
+			asyncReporter.report(testCase1, "i2", true, false);
+			asyncReporter.report(testCase2, "d3", true, true);
+			asyncReporter.report(testCase1, "final", false, false);
+			reporter.release();
+			asyncReporter.flush();
+			// older full intermediate reports are skipped, delta reports are
+			// always sent
+			Assert.assertEquals(reporter.getReports(),
+					Arrays.asList("first", "d2", "d3", "final"));
+		} finally {
+			asyncReporter.stop();
+		}
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void exception() throws Exception {
+		BlockingReporter reporter = new BlockingReporter();
+		reporter.release();
+		AsyncReporter asyncReporter = new AsyncReporter(reporter, "r", 10, 10,
+				ReportOverflowPolicy.BLOCK);
+		asyncReporter.start(null, null, null);
+		try {
+			asyncReporter.report("fail");
+			// the exception of the reporter is thrown
+			asyncReporter.cleanup();
+		} finally {
+			asyncReporter.stop();
+		}
+	}
+
+	private static class BlockingReporter implements
+			havis.test.suite.api.Reporter {
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private final CountDownLatch reporting = new CountDownLatch(1);
+		private final List<String> reports = new ArrayList<>();
+		private volatile boolean stopped;
+
+		void release() {
+			latch.countDown();
+		}
+
+		/**
+		 * Waits until the first report is being sent
+		 */
+		void awaitReporting() throws InterruptedException {
+			reporting.await();
+		}
+
+		synchronized List<String> getReports() {
+			return new ArrayList<>(reports);
+		}
+
+		boolean isStopped() {
+			return stopped;
+		}
+
+		@Override
+		public void start(NDIContext context, String moduleHome,
+				String outputDir) throws Exception {
+		}
+
+		@Override
+		public void stop() throws Exception {
+			stopped = true;
+		}
+
+		@Override
+		public void cleanup() throws Exception {
+		}
+
+		@Override
+		public void report(String report) throws Exception {
+			reporting.countDown();
+			latch.await();
+			if (report.equals("fail")) {
+				throw new IllegalStateException(report);
+			}
+			synchronized (this) {
+				reports.add(report);
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.LoopType;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.ObjectType;
+import havis.test.suite.testcase.StepReportType;
+import havis.test.suite.testcase.StepReportsType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseType;
+import havis.test.suite.testcase.ThreadGroupType;
+import havis.test.suite.testcase.ThreadsType;
+
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DefinitionCopierTest {
+
+	@Test
+	public void copyTestCase() {
+		TestCaseType testCase = createTestCase();
+		TestCaseType copy = DefinitionCopier.copyTestCase(testCase);
+		Assert.assertNull(copy.getReport());
+		Assert.assertEquals(copy.getSteps().getStep().size(), 2);
+
+		// the module definition is shared, the reports are not copied
+		StepType module = testCase.getSteps().getStep().get(0);
+		StepType moduleCopy = copy.getSteps().getStep().get(0);
+		Assert.assertNotSame(moduleCopy, module);
+		Assert.assertEquals(moduleCopy.getName(), "module");
+		Assert.assertNotSame(moduleCopy.getModule(), module.getModule());
+		Assert.assertSame(moduleCopy.getModule().getObject(), module
+				.getModule().getObject());
+		Assert.assertNull(moduleCopy.getReports());
+		Assert.assertNull(moduleCopy.getModule().getReports());
+
+		// the embedded step lists are copied
+		LoopType loop = testCase.getSteps().getStep().get(1).getLoop();
+		LoopType loopCopy = copy.getSteps().getStep().get(1).getLoop();
+		Assert.assertEquals(loopCopy.getCount(), 3);
+		ThreadGroupType threadGroup = loop.getSteps().getStep().get(0)
+				.getThreads().getThreadGroup().get(0);
+		ThreadGroupType threadGroupCopy = loopCopy.getSteps().getStep()
+				.get(0).getThreads().getThreadGroup().get(0);
+		Assert.assertNotSame(threadGroupCopy, threadGroup);
+		Assert.assertEquals(threadGroupCopy.getCount(), 2);
+		Assert.assertEquals(threadGroupCopy.getRampUpPeriod(), 100);
+		StepType threadStepCopy = threadGroupCopy.getSteps().getStep().get(0);
+		Assert.assertNotSame(threadStepCopy, threadGroup.getSteps().getStep()
+				.get(0));
+		Assert.assertNull(threadStepCopy.getModule().getReports());
+	}
+
+	/**
+	 * Creates a test case with a module and a loop with a thread group. All
+	 * steps and modules have reports
+	 */
+	static TestCaseType createTestCase() {
+		StepType threadStep = createModuleStep("threadModule");
+		ThreadGroupType threadGroup = new ThreadGroupType();
+		threadGroup.setCount(2);
+		threadGroup.setRampUpPeriod(100);
+		threadGroup.setSteps(DefinitionCopier.createSteps(Arrays
+				.asList(threadStep)));
+		ThreadsType threads = new ThreadsType();
+		threads.getThreadGroup().clear();
+		threads.getThreadGroup().add(threadGroup);
+		StepType threadsStep = createStep("threads");
+		threadsStep.setThreads(threads);
+
+		LoopType loop = new LoopType();
+		loop.setCount(3);
+		loop.setSteps(DefinitionCopier.createSteps(Arrays.asList(threadsStep)));
+		StepType loopStep = createStep("loop");
+		loopStep.setLoop(loop);
+
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays.asList(
+				createModuleStep("module"), loopStep)));
+		return testCase;
+	}
+
+	private static StepType createModuleStep(String name) {
+		ObjectType object = new ObjectType();
+		object.setObjectId("step");
+		ModuleType module = new ModuleType();
+		module.setObject(object);
+		module.setReports(new ModuleReportsType());
+		StepType step = createStep(name);
+		step.setModule(module);
+		return step;
+	}
+
+	private static StepType createStep(String name) {
+		StepType step = new StepType();
+		step.setName(name);
+		StepReportsType reports = new StepReportsType();
+		reports.getReport().clear();
+		reports.getReport().add(new StepReportType());
+		step.setReports(reports);
+		return step;
+	}
+}
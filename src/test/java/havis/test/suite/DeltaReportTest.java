@@ -0,0 +1,150 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseReportType;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DeltaReportTest {
+
+	@Test
+	public void create() {
+		StepType step = new StepType();
+		step.setName("s0");
+		step.setModule(new ModuleType());
+		step.getModule().setReports(new ModuleReportsType());
+		List<ModuleReportType> reports = step.getModule().getReports()
+				.getReport();
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays.asList(step)));
+		TestCaseReportType report = new TestCaseReportType();
+		report.setName("t");
+		testCase.setReport(report);
+
+		DeltaReport deltaReport = new DeltaReport();
+		reports.add(createModuleReport(0));
+		reports.add(createModuleReport(1));
+		// first delta report contains all reports
+		Assert.assertEquals(getModuleReports(deltaReport.create(testCase))
+				.size(), 2);
+		// no new reports
+		TestCaseType delta = deltaReport.create(testCase);
+		Assert.assertNull(delta.getSteps().getStep().get(0).getModule()
+				.getReports());
+		Assert.assertEquals(delta.getReport().getName(), "t");
+		Assert.assertEquals(delta.getReport().getParameters().getParameter()
+				.get(0).getName(), ReportProperties.PREFIX + "reportType");
+		// the original report is not changed
+		Assert.assertNull(report.getParameters());
+
+		reports.add(createModuleReport(2));
+		List<ModuleReportType> newReports = getModuleReports(deltaReport
+				.create(testCase));
+		Assert.assertEquals(newReports.size(), 1);
+		Assert.assertEquals(newReports.get(0).getPassNo(), 2);
+
+		// removed reports (report streaming) are not sent again
+		reports.remove(0);
+		reports.add(createModuleReport(3));
+		newReports = getModuleReports(deltaReport.create(testCase));
+		Assert.assertEquals(newReports.size(), 1);
+		Assert.assertEquals(newReports.get(0).getPassNo(), 3);
+	}
+
+	@Test
+	public void moved() {
+		TestCaseType testCase = createTestCase();
+		TestCaseType threadCopy = DefinitionCopier.copyTestCase(testCase);
+		threadCopy.getSteps().getStep().get(0).getModule()
+				.setReports(new ModuleReportsType());
+		List<ModuleReportType> threadReports = getModuleReports(threadCopy);
+
+		DeltaReport deltaReport = new DeltaReport();
+		threadReports.add(createModuleReport(0));
+		Assert.assertEquals(getModuleReports(deltaReport.create(threadCopy))
+				.size(), 1);
+		threadReports.add(createModuleReport(1));
+
+		// the thread has finished => the reports are moved and renumbered
+		deltaReport.moved(threadCopy.getSteps().getStep(), testCase
+				.getSteps().getStep());
+		ThreadGroups.moveReports(threadCopy.getSteps().getStep(), testCase
+				.getSteps().getStep());
+		// only the report which has not been sent by the thread is new
+		List<ModuleReportType> newReports = getModuleReports(deltaReport
+				.create(testCase));
+		Assert.assertEquals(newReports.size(), 1);
+		Assert.assertSame(newReports.get(0), getModuleReports(testCase)
+				.get(1));
+		Assert.assertNull(deltaReport.create(testCase).getSteps().getStep()
+				.get(0).getModule().getReports());
+	}
+
+	@Test
+	public void movedAfterNewReports() {
+		TestCaseType testCase = createTestCase();
+		DeltaReport deltaReport = new DeltaReport();
+
+		// the report of the first thread has not been sent
+		TestCaseType thread0 = DefinitionCopier.copyTestCase(testCase);
+		thread0.getSteps().getStep().get(0).getModule()
+				.setReports(new ModuleReportsType());
+		getModuleReports(thread0).add(createModuleReport(0));
+		deltaReport.moved(thread0.getSteps().getStep(), testCase.getSteps()
+				.getStep());
+		ThreadGroups.moveReports(thread0.getSteps().getStep(), testCase
+				.getSteps().getStep());
+
+		// the first report of the second thread has been sent
+		TestCaseType thread1 = DefinitionCopier.copyTestCase(testCase);
+		thread1.getSteps().getStep().get(0).getModule()
+				.setReports(new ModuleReportsType());
+		getModuleReports(thread1).add(createModuleReport(0));
+		Assert.assertEquals(getModuleReports(deltaReport.create(thread1))
+				.size(), 1);
+		getModuleReports(thread1).add(createModuleReport(1));
+		deltaReport.moved(thread1.getSteps().getStep(), testCase.getSteps()
+				.getStep());
+		ThreadGroups.moveReports(thread1.getSteps().getStep(), testCase
+				.getSteps().getStep());
+
+		// the unsent reports of both threads are new
+		List<ModuleReportType> reports = getModuleReports(testCase);
+		Assert.assertEquals(reports.size(), 3);
+		List<ModuleReportType> newReports = getModuleReports(deltaReport
+				.create(testCase));
+		Assert.assertEquals(newReports.size(), 2);
+		Assert.assertSame(newReports.get(0), reports.get(0));
+		Assert.assertSame(newReports.get(1), reports.get(2));
+		Assert.assertNull(deltaReport.create(testCase).getSteps().getStep()
+				.get(0).getModule().getReports());
+	}
+
+	private static TestCaseType createTestCase() {
+		StepType step = new StepType();
+		step.setName("s0");
+		step.setModule(new ModuleType());
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays.asList(step)));
+		return testCase;
+	}
+
+	private static List<ModuleReportType> getModuleReports(TestCaseType testCase) {
+		return testCase.getSteps().getStep().get(0).getModule().getReports()
+				.getReport();
+	}
+
+	private static ModuleReportType createModuleReport(int passNo) {
+		ModuleReportType report = new ModuleReportType();
+		report.setPassNo(passNo);
+		return report;
+	}
+}
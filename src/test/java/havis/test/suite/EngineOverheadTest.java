@@ -0,0 +1,91 @@
+package havis.test.suite;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class EngineOverheadTest {
+
+	@Test
+	public void phaseTimes() {
+		TestCaseClock clock = new TestCaseClock();
+		PhaseTimes phases = new PhaseTimes(clock);
+		long time = clock.nanoTime();
+		phases.end(EnginePhase.LOOKUP, time + 1000);
+		phases.end(EnginePhase.CONVERT, time + 1500);
+		phases.end(EnginePhase.PREPARE, time + 3000);
+		phases.end(EnginePhase.EXECUTE, time + 1003000);
+		// the verification is skipped
+		phases.end(EnginePhase.FINISH, time + 1004000);
+		phases.end(EnginePhase.FINISH, time + 1005000);
+		Assert.assertEquals(phases.get(EnginePhase.CONVERT), 500);
+		Assert.assertEquals(phases.get(EnginePhase.PREPARE), 1500);
+		Assert.assertEquals(phases.get(EnginePhase.EXECUTE), 1000000);
+		Assert.assertEquals(phases.get(EnginePhase.VERIFY), 0);
+		Assert.assertEquals(phases.get(EnginePhase.FINISH), 2000);
+		Assert.assertEquals(phases.get(EnginePhase.REPORT), 0);
+		Assert.assertNull(phases.getFailed());
+		Assert.assertTrue(phases.format().matches(
+				"lookup=\\d+\\.\\d{6};convert=0\\.000500;prepare=0\\.001500;"
+						+ "execute=1\\.000000;verify=0\\.000000;"
+						+ "finish=0\\.002000;report=0\\.000000"),
+				phases.format());
+	}
+
+	@Test
+	public void fail() {
+		TestCaseClock clock = new TestCaseClock();
+		PhaseTimes phases = new PhaseTimes(clock);
+		long time = clock.nanoTime();
+		phases.end(EnginePhase.LOOKUP, time + 1000);
+		phases.end(EnginePhase.CONVERT, time + 2000);
+		// the preparation fails
+		phases.fail();
+		Assert.assertEquals(phases.getFailed(), EnginePhase.PREPARE);
+		Assert.assertTrue(phases.get(EnginePhase.PREPARE) > 0);
+		Assert.assertEquals(phases.get(EnginePhase.EXECUTE), 0);
+		phases.end(EnginePhase.REPORT);
+		Assert.assertTrue(phases.format().endsWith(";failed=prepare"),
+				phases.format());
+
+		// the lookup fails
+		phases = new PhaseTimes(clock);
+		phases.fail();
+		Assert.assertEquals(phases.getFailed(), EnginePhase.LOOKUP);
+
+		EngineOverhead overhead = new EngineOverhead();
+		overhead.add(phases);
+		overhead.add(new PhaseTimes(clock));
+		Assert.assertEquals(overhead.getCount(), 2);
+		Assert.assertEquals(overhead.getFailures(), 1);
+	}
+
+	@Test
+	public void add() {
+		TestCaseClock clock = new TestCaseClock();
+		EngineOverhead overhead = new EngineOverhead();
+		Assert.assertEquals(overhead.getOverheadShare(), 0.0);
+		for (int i = 0; i < 2; i++) {
+			PhaseTimes phases = new PhaseTimes(clock);
+			long time = clock.nanoTime();
+			phases.end(EnginePhase.LOOKUP, time);
+			phases.end(EnginePhase.CONVERT, time + 1000);
+			phases.end(EnginePhase.PREPARE, time + 2000);
+			phases.end(EnginePhase.EXECUTE, time + 5000);
+			phases.end(EnginePhase.VERIFY, time + 5500);
+			phases.end(EnginePhase.FINISH, time + 6000);
+			overhead.add(phases);
+		}
+		Assert.assertEquals(overhead.getCount(), 2);
+		Assert.assertEquals(overhead.getFailures(), 0);
+		Assert.assertEquals(overhead.getTotal(EnginePhase.PREPARE), 2000);
+		Assert.assertEquals(overhead.getTotal(EnginePhase.EXECUTE), 6000);
+		// only the execution is spent by the step module
+		Assert.assertEquals(overhead.getModuleTime(), 6000);
+		// preparation and finishing by the UI are part of the overhead
+		Assert.assertEquals(overhead.getUiTime(), 3000);
+		long lookup = overhead.getTotal(EnginePhase.LOOKUP);
+		Assert.assertEquals(overhead.getOverhead(), lookup + 6000);
+		Assert.assertEquals(overhead.getOverheadShare(),
+				(lookup + 6000.0) / (lookup + 12000.0));
+	}
+}
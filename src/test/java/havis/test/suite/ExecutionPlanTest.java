@@ -0,0 +1,69 @@
+package havis.test.suite;
+
+import havis.test.suite.common.messaging.XMLMessage;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ExecutionPlanTest {
+
+	private static final String TEST_CASE = "<testCase xmlns=\"http://www.HARTING.com/RFID/TestAutomat\"><steps>"
+			+ "<step name=\"m\"><module><object objectId=\"o1\" /></module></step>"
+			+ "<step name=\"u\"><module><object objectId=\"unknown\" /></module></step>"
+			+ "<step name=\"l\"><loop count=\"2\"><steps>"
+			+ "<step name=\"lm\"><module><object objectId=\"o1\" /></module></step>"
+			+ "</steps></loop></step>"
+			+ "<step name=\"t\"><threads>"
+			+ "<threadGroup count=\"2\"><steps><step name=\"t0\"><module><object objectId=\"o1\" /></module></step></steps></threadGroup>"
+			+ "<threadGroup count=\"1\"><steps><step name=\"t1\"><import><testCaseURI>x</testCaseURI></import></step></steps></threadGroup>"
+			+ "</threads></step>" + "</steps></testCase>";
+
+	@Test
+	public void compile() throws Exception {
+		TestCaseType testCase = (TestCaseType) new XMLMessage(TEST_CASE,
+				TestCaseType.class).getDeserializedObject();
+		List<StepType> steps = testCase.getSteps().getStep();
+		Map<String, String> objectIdFiles = new HashMap<>();
+		String home = "modules" + File.separator + "o1";
+		objectIdFiles.put("o1", home + File.separator + "beans.xml");
+
+		ExecutionPlan plan = ExecutionPlan.compile(steps, "tc", objectIdFiles);
+		Assert.assertEquals(plan.size(), 4);
+		Assert.assertTrue(plan.matches(steps));
+		Assert.assertTrue(plan.matches(DefinitionCopier.copySteps(steps)));
+
+		Assert.assertEquals(plan.get(0).getKind(), ExecutionPlan.Kind.MODULE);
+		Assert.assertEquals(plan.get(0).getLogPath(), "tc->m");
+		Assert.assertEquals(plan.get(0).getModuleHome(), home);
+		// the unknown objectId is reported when the module is executed
+		Assert.assertEquals(plan.get(1).getKind(), ExecutionPlan.Kind.MODULE);
+		Assert.assertNull(plan.get(1).getModuleHome());
+
+		Assert.assertEquals(plan.get(2).getKind(), ExecutionPlan.Kind.LOOP);
+		ExecutionPlan loopPlan = plan.get(2).getLoopPlan();
+		Assert.assertEquals(loopPlan.size(), 1);
+		Assert.assertEquals(loopPlan.get(0).getLogPath(), "tc->l->lm");
+		Assert.assertEquals(loopPlan.get(0).getModuleHome(), home);
+
+		Assert.assertEquals(plan.get(3).getKind(), ExecutionPlan.Kind.THREADS);
+		List<ExecutionPlan> threadGroupPlans = plan.get(3)
+				.getThreadGroupPlans();
+		Assert.assertEquals(threadGroupPlans.size(), 2);
+		Assert.assertEquals(threadGroupPlans.get(0).get(0).getLogPath(),
+				"tc->t->t0");
+		Assert.assertEquals(threadGroupPlans.get(1).get(0).getKind(),
+				ExecutionPlan.Kind.IMPORT);
+		try {
+			threadGroupPlans.add(loopPlan);
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+}
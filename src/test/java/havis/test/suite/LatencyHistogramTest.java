@@ -0,0 +1,76 @@
+package havis.test.suite;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void getPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(histogram.getPercentile(50), 0);
+		// 1 - 1000 us
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 2000000L, i * 2000000L + i * 1000L);
+		}
+		Assert.assertEquals(histogram.getCount(), 1000);
+		Assert.assertEquals(histogram.getMax(), 1000000);
+		assertPercentile(histogram.getPercentile(50), 500000);
+		assertPercentile(histogram.getPercentile(95), 950000);
+		assertPercentile(histogram.getPercentile(99), 990000);
+		Assert.assertEquals(histogram.getPercentile(100), 1000000);
+		// 1000 executions within 2 s
+		Assert.assertEquals(histogram.getThroughput(), 500, 1);
+	}
+
+	@Test
+	public void getIndex() {
+		for (long value : new long[] { 0, 1, 127, 128, 129, 1000, 123456789,
+				Long.MAX_VALUE }) {
+			int index = LatencyHistogram.getIndex(value);
+			Assert.assertTrue(LatencyHistogram.getUpperLimit(index) >= value);
+			if (index > 0) {
+				Assert.assertTrue(LatencyHistogram.getUpperLimit(index - 1) < value);
+			}
+		}
+	}
+
+	@Test
+	public void recordConcurrently() throws Exception {
+		final LatencyRecorder recorder = new LatencyRecorder();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final int thread = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						recorder.record(LatencyRecorder.getStepPath("1/0#0."
+								+ thread + "/2"), "step", j, j + 100);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(recorder.getHistograms().size(), 1);
+		Assert.assertEquals(recorder.getHistograms().get("1/0/2 step")
+				.getCount(), 40000);
+		Assert.assertEquals(recorder.createEntries().get(0).getName(),
+				"testautomat.latency.step@1/0/2");
+	}
+
+	@Test
+	public void stepPath() {
+		Assert.assertEquals(LatencyRecorder.getStepPath("1/0#3.12/2#0.1/0"),
+				"1/0/2/0");
+		Assert.assertEquals(LatencyRecorder.getStepPath("1/2"), "1/2");
+	}
+
+	private static void assertPercentile(long actual, long expected) {
+		Assert.assertTrue(Math.abs(actual - expected) <= expected / 64 + 1000,
+				actual + " != " + expected);
+	}
+}
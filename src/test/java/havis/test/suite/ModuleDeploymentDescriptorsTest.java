@@ -0,0 +1,93 @@
+package havis.test.suite;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.context.support.GenericApplicationContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ModuleDeploymentDescriptorsTest {
+
+	private static final String HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<beans xmlns=\"http://www.springframework.org/schema/beans\""
+			+ " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+			+ " xsi:schemaLocation=\"http://www.springframework.org/schema/beans"
+			+ " http://www.springframework.org/schema/beans/spring-beans.xsd\">";
+
+	@Test
+	public void loadModuleBeanDefinitions() throws Exception {
+		List<File> files = new ArrayList<>();
+		try {
+			files.add(write(HEAD
+					+ "<bean class=\"java.util.ArrayList\" />"
+					+ "<bean id=\"step1\" class=\"havis.test.suite.Step\" />"
+					+ "<bean id=\"list\" class=\"java.util.ArrayList\" />"
+					+ "</beans>"));
+			files.add(write(HEAD
+					+ "<bean class=\"java.util.ArrayList\" />"
+					+ "<bean class=\"java.util.ArrayList\" />"
+					+ "<bean id=\"step2\" class=\"havis.test.suite.Step\" />"
+					+ "</beans>"));
+			List<String> locations = new ArrayList<>();
+			for (File file : files) {
+				locations.add("file:" + file.getAbsolutePath());
+			}
+			GenericApplicationContext context = new GenericApplicationContext();
+			List<List<String>> names = Testautomat.loadModuleBeanDefinitions(
+					context, locations);
+
+			// the anonymous objects of both modules are kept and all objects
+			// are registered in the order of their declaration
+			Assert.assertEquals(names.size(), 2);
+			Assert.assertEquals(names.get(0), Arrays.asList(
+					"java.util.ArrayList#0", "step1", "list"));
+			Assert.assertEquals(names.get(1), Arrays.asList(
+					"java.util.ArrayList#1", "java.util.ArrayList#2", "step2"));
+			Assert.assertEquals(Arrays.asList(context.getBeanDefinitionNames()),
+					Arrays.asList("java.util.ArrayList#0", "step1", "list",
+							"java.util.ArrayList#1", "java.util.ArrayList#2",
+							"step2"));
+			List<String> anonymous = new ArrayList<>();
+			for (String name : context.getBeanDefinitionNames()) {
+				if (name.startsWith("java.util.ArrayList#")) {
+					anonymous.add(name);
+				}
+			}
+			Assert.assertEquals(anonymous.size(), 3);
+			Assert.assertTrue(names.get(0).contains("java.util.ArrayList#0"));
+			Assert.assertFalse(names.get(1).contains("java.util.ArrayList#0"));
+			Assert.assertEquals(context.getBeanDefinitionCount(), 6);
+			Assert.assertEquals(
+					Arrays.asList(context.getAliases("java.util.ArrayList#0")),
+					Arrays.asList("java.util.ArrayList"));
+
+			// only steps are created lazily
+			Assert.assertTrue(context.getBeanDefinition("step1").isLazyInit());
+			Assert.assertTrue(context.getBeanDefinition("step2").isLazyInit());
+			Assert.assertFalse(context.getBeanDefinition("list").isLazyInit());
+			for (String name : anonymous) {
+				Assert.assertFalse(context.getBeanDefinition(name).isLazyInit());
+			}
+
+			context.refresh();
+			Assert.assertNotSame(context.getBean("java.util.ArrayList#0"),
+					context.getBean(anonymous.get(anonymous.size() - 1)));
+			context.close();
+		} finally {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	private File write(String content) throws Exception {
+		File file = File.createTempFile("beans", ".xml");
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
@@ -0,0 +1,63 @@
+package havis.test.suite;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class RampUpProfileTest {
+
+	@Test
+	public void linear() {
+		// 1000 ms for 4 threads => intervals of 333.333333 ms
+		long period = 1000000000L;
+		Assert.assertEquals(RampUpProfile.LINEAR.getOffset(0, 4, period, 0), 0);
+		Assert.assertEquals(RampUpProfile.LINEAR.getOffset(1, 4, period, 0),
+				333333333);
+		Assert.assertEquals(RampUpProfile.LINEAR.getOffset(2, 4, period, 0),
+				666666666);
+		Assert.assertEquals(RampUpProfile.LINEAR.getOffset(3, 4, period, 0),
+				period);
+		// single thread or no ramp-up period
+		Assert.assertEquals(RampUpProfile.LINEAR.getOffset(0, 1, period, 0), 0);
+		Assert.assertEquals(RampUpProfile.LINEAR.getOffset(3, 4, 0, 0), 0);
+	}
+
+	@Test
+	public void stepped() {
+		// 6 threads in 3 batches
+		long period = 1000;
+		long[] expected = new long[] { 0, 0, 500, 500, 1000, 1000 };
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(
+					RampUpProfile.STEPPED.getOffset(i, 6, period, 3),
+					expected[i]);
+		}
+		// a single batch starts all threads at once
+		Assert.assertEquals(RampUpProfile.STEPPED.getOffset(5, 6, period, 1),
+				0);
+	}
+
+	@Test
+	public void exponential() {
+		long period = 1000000;
+		Assert.assertEquals(
+				RampUpProfile.EXPONENTIAL.getOffset(0, 100, period, 0), 0);
+		Assert.assertEquals(
+				RampUpProfile.EXPONENTIAL.getOffset(99, 100, period, 0), period);
+		// half of the ramp-up period starts sqrt(100) threads
+		Assert.assertEquals(
+				RampUpProfile.EXPONENTIAL.getOffset(9, 100, period, 0),
+				period / 2);
+		long previous = 0;
+		for (int i = 1; i < 100; i++) {
+			long offset = RampUpProfile.EXPONENTIAL.getOffset(i, 100, period, 0);
+			Assert.assertTrue(offset > previous);
+			previous = offset;
+		}
+	}
+
+	@Test
+	public void fromName() {
+		Assert.assertEquals(RampUpProfile.fromName("stepped"),
+				RampUpProfile.STEPPED);
+	}
+}
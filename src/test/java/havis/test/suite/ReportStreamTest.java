@@ -0,0 +1,217 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.EntryType;
+import havis.test.suite.testcase.LoopType;
+import havis.test.suite.testcase.ModuleReportType;
+import havis.test.suite.testcase.ModuleReportsType;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.PropertiesType;
+import havis.test.suite.testcase.StepReportType;
+import havis.test.suite.testcase.StepReportsType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseReportType;
+import havis.test.suite.testcase.TestCaseType;
+import havis.test.suite.testcase.ThreadGroupType;
+import havis.test.suite.testcase.ThreadsType;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ReportStreamTest {
+
+	@Test
+	public void streamAndReplay() throws Exception {
+		// step 0: module, step 1: loop with module
+		StepType module = createModuleStep("s0");
+		StepType loopModule = createModuleStep("s1.0");
+		StepType loop = new StepType();
+		loop.setName("s1");
+		LoopType l = new LoopType();
+		l.setCount(5);
+		l.setSteps(DefinitionCopier.createSteps(Arrays.asList(loopModule)));
+		loop.setLoop(l);
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays.asList(module,
+				loop)));
+
+		File file = File.createTempFile("ReportStreamTest", ".reports");
+		file.deleteOnExit();
+		FileReportSink fileSink = new FileReportSink(file);
+		final List<ReportRecord> records = new ArrayList<>();
+		ReportStream stream = new ReportStream("id", 2, Arrays.asList(
+				fileSink, new ReportSink() {
+					@Override
+					public void report(ReportRecord record) {
+						records.add(record);
+					}
+				}));
+		stream.start(testCase);
+		addReports(module, 0);
+		stream.add(ReportStream.getPath("", 0), module);
+		for (int i = 0; i < l.getCount(); i++) {
+			addReports(loopModule, i);
+			stream.add(ReportStream.getPath("1", 0), loopModule);
+		}
+		addReports(loop, 0);
+		stream.add(ReportStream.getPath("", 1), loop);
+		TestCaseReportType report = new TestCaseReportType();
+		report.setName("t");
+		stream.finish(report);
+		fileSink.close();
+
+		// only the last reports are kept
+		Assert.assertEquals(loopModule.getReports().getReport().size(), 2);
+		Assert.assertEquals(loopModule.getModule().getReports().getReport()
+				.size(), 2);
+		Assert.assertEquals(loopModule.getModule().getReports().getReport()
+				.get(0).getPassNo(), 3);
+		// definition, 2 reports per executed step, test case report
+		Assert.assertEquals(records.size(), 1 + 2 * (1 + 5 + 1) + 1);
+
+		// all reports are restored
+		TestCaseType replayed = FileReportSink.replay(file).getTestCase();
+		Assert.assertEquals(replayed.getReport().getName(), "t");
+		StepType replayedModule = replayed.getSteps().getStep().get(0);
+		Assert.assertEquals(replayedModule.getReports().getReport().size(), 1);
+		Assert.assertEquals(replayedModule.getModule().getReports()
+				.getReport().size(), 1);
+		StepType replayedLoopModule = replayed.getSteps().getStep().get(1)
+				.getLoop().getSteps().getStep().get(0);
+		Assert.assertEquals(replayedLoopModule.getReports().getReport()
+				.size(), 5);
+		List<ModuleReportType> moduleReports = replayedLoopModule.getModule()
+				.getReports().getReport();
+		Assert.assertEquals(moduleReports.size(), 5);
+		for (int i = 0; i < moduleReports.size(); i++) {
+			Assert.assertEquals(moduleReports.get(i).getPassNo(), i);
+		}
+		// the definition is not changed
+		Assert.assertNull(testCase.getReport());
+	}
+
+	@Test
+	public void replayThreads() {
+		// step 0: threads with 1 thread group containing a module
+		StepType module = createModuleStep("s0.0");
+		ThreadGroupType threadGroup = new ThreadGroupType();
+		threadGroup.setCount(2);
+		threadGroup.setSteps(DefinitionCopier.createSteps(Arrays
+				.asList(module)));
+		ThreadsType threads = new ThreadsType();
+		threads.getThreadGroup().add(threadGroup);
+		StepType threadsStep = new StepType();
+		threadsStep.setName("s0");
+		threadsStep.setThreads(threads);
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays
+				.asList(threadsStep)));
+
+		ReportReplay replay = new ReportReplay();
+		replay.add(new ReportRecord("id", null, testCase));
+		String thread0 = ReportStream.getThreadPath("0", 0, 0, 0);
+		String thread1 = ReportStream.getThreadPath("0", 0, 0, 1);
+		// the reports of the threads are interleaved
+		replay.add(new ReportRecord("id", ReportStream.getPath(thread1, 0),
+				createModuleReport(0)));
+		replay.add(new ReportRecord("id", ReportStream.getPath(thread0, 0),
+				createModuleReport(0)));
+		replay.add(new ReportRecord("id", ReportStream.getPath(thread0, 0),
+				createModuleReport(1)));
+		// properties of a thread are added to its last module report
+		PropertiesType properties = new PropertiesType();
+		properties.getProperty().add(
+				ReportProperties.createEntry("startSkew", "1"));
+		replay.add(new ReportRecord("id", thread0, properties));
+		// the reports are moved in the order of the threads
+		replay.add(new ReportRecord("id", thread0, null));
+		replay.add(new ReportRecord("id", thread1, null));
+
+		List<ModuleReportType> reports = replay.getTestCase().getSteps()
+				.getStep().get(0).getThreads().getThreadGroup().get(0)
+				.getSteps().getStep().get(0).getModule().getReports()
+				.getReport();
+		Assert.assertEquals(reports.size(), 3);
+		for (int i = 0; i < reports.size(); i++) {
+			Assert.assertEquals(reports.get(i).getPassNo(), i);
+		}
+		Assert.assertNull(reports.get(0).getSourceProperties());
+		Assert.assertEquals(reports.get(1).getSourceProperties().getProperty()
+				.size(), 1);
+		Assert.assertNull(reports.get(2).getSourceProperties());
+	}
+
+	@Test
+	public void snapshots() throws Exception {
+		StepType module = createModuleStep("s0");
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays.asList(module)));
+		final List<ReportRecord> records = new ArrayList<>();
+		ReportStream stream = new ReportStream("id", 1,
+				Arrays.<ReportSink> asList(new ReportSink() {
+					@Override
+					public void report(ReportRecord record) {
+						records.add(record);
+					}
+				}));
+		stream.start(testCase);
+		addReports(module, 0);
+		stream.add(ReportStream.getPath("", 0), module);
+		ModuleReportType report = module.getModule().getReports()
+				.getReport().get(0);
+		// the report is changed after it has been sent
+		report.setPassNo(3);
+		ReportProperties.add(report, "startSkew", "1");
+		stream.properties(ReportStream.getPath("", 0),
+				Arrays.asList(ReportProperties.createEntry("startSkew", "1")));
+
+		Assert.assertEquals(records.size(), 4);
+		ModuleReportType sent = (ModuleReportType) records.get(1).getReport();
+		Assert.assertNotSame(sent, report);
+		Assert.assertEquals(sent.getPassNo(), 0);
+		Assert.assertNull(sent.getSourceProperties());
+		EntryType property = ((PropertiesType) records.get(3).getReport())
+				.getProperty().get(0);
+		Assert.assertEquals(property.getName(), ReportProperties.PREFIX
+				+ "startSkew");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidRetention() {
+		new ReportStream("id", 0, new ArrayList<ReportSink>());
+	}
+
+	private static StepType createModuleStep(String name) {
+		StepType step = new StepType();
+		step.setName(name);
+		step.setModule(new ModuleType());
+		return step;
+	}
+
+	private static ModuleReportType createModuleReport(int passNo) {
+		ModuleReportType report = new ModuleReportType();
+		report.setPassNo(passNo);
+		return report;
+	}
+
+	private static void addReports(StepType step, int passNo) {
+		if (step.getReports() == null) {
+			step.setReports(new StepReportsType());
+		}
+		StepReportType stepReport = new StepReportType();
+		stepReport.setPassNo(passNo);
+		stepReport.setStepId("id" + passNo);
+		step.getReports().getReport().add(stepReport);
+		if (step.getModule() != null) {
+			if (step.getModule().getReports() == null) {
+				step.getModule().setReports(new ModuleReportsType());
+			}
+			step.getModule().getReports().getReport()
+					.add(createModuleReport(passNo));
+		}
+	}
+}
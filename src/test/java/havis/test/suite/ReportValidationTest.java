@@ -0,0 +1,31 @@
+package havis.test.suite;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ReportValidationTest {
+
+	@Test
+	public void next() {
+		ReportValidation always = new ReportValidation();
+		ReportValidation never = new ReportValidation(
+				ReportValidation.Policy.NEVER, 1);
+		ReportValidation first = new ReportValidation(
+				ReportValidation.Policy.FIRST, 2);
+		ReportValidation sampled = new ReportValidation(
+				ReportValidation.Policy.fromName("sampled"), 3);
+		boolean[] expectedFirst = { true, true, false, false, false, false };
+		boolean[] expectedSampled = { true, false, false, true, false, false };
+		for (int i = 0; i < 6; i++) {
+			Assert.assertTrue(always.next());
+			Assert.assertFalse(never.next());
+			Assert.assertEquals(first.next(), expectedFirst[i]);
+			Assert.assertEquals(sampled.next(), expectedSampled[i]);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidCount() {
+		new ReportValidation(ReportValidation.Policy.SAMPLED, 0);
+	}
+}
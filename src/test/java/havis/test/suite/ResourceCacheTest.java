@@ -0,0 +1,78 @@
+package havis.test.suite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ResourceCacheTest {
+
+	@Test
+	public void render() throws Exception {
+		ResourceCache cache = new ResourceCache(null);
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("a", "1");
+		Assert.assertEquals(cache.render("a=$a$", parameters), "a=1");
+		Assert.assertEquals(cache.render("a=$a$", parameters), "a=1");
+		// the parameters are changed in place
+		parameters.put("a", "2");
+		Assert.assertEquals(cache.render("a=$a$", parameters), "a=2");
+		parameters.remove("a");
+		Assert.assertEquals(cache.render("a=$a$", parameters), "a=");
+	}
+
+	@Test
+	public void renderMutableValue() throws Exception {
+		ResourceCache cache = new ResourceCache(null);
+		List<String> values = new ArrayList<>();
+		values.add("1");
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("a", values);
+		Assert.assertEquals(cache.render("a=$a$", parameters), "a=1");
+		// the value is changed in place
+		values.add("2");
+		Assert.assertEquals(cache.render("a=$a$", parameters), "a=12");
+		// an equal parameter map does not return the stale rendering
+		Map<String, Object> copy = new HashMap<>(parameters);
+		values.clear();
+		Assert.assertEquals(cache.render("a=$a$", copy), "a=");
+	}
+
+	@Test
+	public void renderConcurrently() throws Exception {
+		final ResourceCache cache = new ResourceCache(null);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				final String value = Integer.toString(i);
+				futures[i] = executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						Map<String, Object> parameters = new HashMap<>();
+						parameters.put("a", value);
+						for (int j = 0; j < 1000; j++) {
+							Assert.assertEquals(
+									cache.render("a=$a$", parameters), "a="
+											+ value);
+						}
+						return null;
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
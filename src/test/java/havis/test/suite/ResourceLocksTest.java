@@ -0,0 +1,65 @@
+package havis.test.suite;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ResourceLocksTest {
+
+	@Test
+	public void lock() throws Exception {
+		final ResourceLocks locks = new ResourceLocks();
+		// no resources
+		List<Lock> acquired = locks.lock(Collections.<String> emptyList());
+		Assert.assertEquals(acquired.size(), 0);
+		locks.unlock(acquired);
+
+		// duplicate resources are locked once
+		acquired = locks.lock(Arrays.asList("reader:2", "reader:1", "reader:2"));
+		Assert.assertEquals(acquired.size(), 2);
+
+		// a thread using another resource is not blocked
+		final CountDownLatch otherLocked = new CountDownLatch(1);
+		Thread other = new Thread() {
+			@Override
+			public void run() {
+				try {
+					locks.unlock(locks.lock(Arrays.asList("reader:3")));
+					otherLocked.countDown();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		other.start();
+		Assert.assertTrue(otherLocked.await(3, TimeUnit.SECONDS));
+
+		// a thread using a common resource is blocked until the release
+		final AtomicBoolean commonLocked = new AtomicBoolean();
+		final CountDownLatch commonReleased = new CountDownLatch(1);
+		Thread common = new Thread() {
+			@Override
+			public void run() {
+				try {
+					List<Lock> l = locks.lock(Arrays.asList("reader:1"));
+					commonLocked.set(true);
+					locks.unlock(l);
+					commonReleased.countDown();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		common.start();
+		Thread.sleep(100);
+		Assert.assertFalse(commonLocked.get());
+		locks.unlock(acquired);
+		Assert.assertTrue(commonReleased.await(3, TimeUnit.SECONDS));
+		Assert.assertTrue(commonLocked.get());
+	}
+}
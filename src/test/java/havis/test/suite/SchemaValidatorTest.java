@@ -0,0 +1,29 @@
+package havis.test.suite;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.xml.sax.SAXException;
+
+public class SchemaValidatorTest {
+
+	private static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+			+ "<xs:element name=\"a\" type=\"xs:int\"/>" + "</xs:schema>";
+
+	@Test
+	public void validate() throws Exception {
+		SchemaValidator validator = SchemaValidator.compile(
+				new ByteArrayInputStream(XSD.getBytes(StandardCharsets.UTF_8)),
+				"urn:test");
+		validator.validate("<a>1</a>");
+		try {
+			validator.validate("<a>x</a>");
+			Assert.fail();
+		} catch (SAXException e) {
+		}
+		// the validator can be reused after an error
+		validator.validate("<a>2</a>");
+	}
+}
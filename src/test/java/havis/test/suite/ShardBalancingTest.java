@@ -0,0 +1,74 @@
+package havis.test.suite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ShardBalancingTest {
+
+	private final List<String> paths = Arrays.asList("a", "b", "c", "d", "e");
+
+	@Test
+	public void hash() {
+		List<List<String>> shards = ShardBalancing.HASH.split(paths, 2,
+				Collections.<String, Long> emptyMap());
+		Assert.assertEquals(shards.size(), 2);
+		assertComplete(shards);
+		// the assignment does not depend on the other test cases
+		Assert.assertEquals(
+				ShardBalancing.HASH.split(Arrays.asList("c"), 2,
+						Collections.<String, Long> emptyMap()).get(
+						shards.get(0).contains("c") ? 0 : 1),
+				Arrays.asList("c"));
+	}
+
+	@Test
+	public void roundRobin() {
+		List<List<String>> shards = ShardBalancing.fromName("round-robin")
+				.split(paths, 2, Collections.<String, Long> emptyMap());
+		Assert.assertEquals(shards.get(0), Arrays.asList("a", "c", "e"));
+		Assert.assertEquals(shards.get(1), Arrays.asList("b", "d"));
+		// more shards than test cases
+		shards = ShardBalancing.ROUND_ROBIN.split(Arrays.asList("a"), 3,
+				Collections.<String, Long> emptyMap());
+		Assert.assertEquals(shards.get(0), Arrays.asList("a"));
+		Assert.assertTrue(shards.get(1).isEmpty());
+		Assert.assertTrue(shards.get(2).isEmpty());
+	}
+
+	@Test
+	public void duration() {
+		Map<String, Long> durations = new HashMap<>();
+		durations.put("a", 100L);
+		durations.put("b", 10L);
+		durations.put("c", 30L);
+		durations.put("d", 50L);
+		// "e" has the average duration 47
+		List<List<String>> shards = ShardBalancing.DURATION.split(paths, 2,
+				durations);
+		assertComplete(shards);
+		Assert.assertEquals(shards.get(0), Arrays.asList("a", "b"));
+		Assert.assertEquals(shards.get(1), Arrays.asList("c", "d", "e"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidShardCount() {
+		ShardBalancing.HASH.split(paths, 0,
+				Collections.<String, Long> emptyMap());
+	}
+
+	private void assertComplete(List<List<String>> shards) {
+		List<String> all = new ArrayList<>();
+		for (List<String> shard : shards) {
+			all.addAll(shard);
+		}
+		Collections.sort(all);
+		Assert.assertEquals(all, paths);
+	}
+}
@@ -0,0 +1,40 @@
+package havis.test.suite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ShardReporterTest {
+
+	@Test
+	public void read() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ShardReporter reporter = new ShardReporter(out);
+		reporter.report("<report>\u00e4</report>");
+		reporter.duration("suite/a", 42);
+		reporter.report("<report/>");
+		reporter.stop();
+
+		final List<String> received = new ArrayList<>();
+		ShardReporter.read(new ByteArrayInputStream(out.toByteArray()),
+				new ShardReporter.Listener() {
+
+					@Override
+					public void report(String report) {
+						received.add(report);
+					}
+
+					@Override
+					public void duration(String testCasePath, long duration) {
+						received.add(testCasePath + "=" + duration);
+					}
+				});
+		Assert.assertEquals(received, Arrays.asList("<report>\u00e4</report>",
+				"suite/a=42", "<report/>"));
+	}
+}
@@ -0,0 +1,56 @@
+package havis.test.suite;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StartupIndexTest {
+
+	@Test
+	public void saveLoad() throws Exception {
+		File file = File.createTempFile("startupIndex", ".bin");
+		try {
+			// invalid content
+			Files.write(file.toPath(), "x".getBytes(StandardCharsets.UTF_8));
+			StartupIndex index = StartupIndex.load(file);
+			Assert.assertNull(index.getObjectIdFiles());
+
+			Map<String, String> objectIdFiles = new HashMap<>();
+			objectIdFiles.put("step", "/modules/step");
+			index.setObjectIdFiles(objectIdFiles);
+			index.save(file);
+
+			index = StartupIndex.load(file);
+			Assert.assertEquals(index.getObjectIdFiles(), objectIdFiles);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void getFingerprint() throws Exception {
+		File file = File.createTempFile("beans", ".xml");
+		try {
+			Files.write(file.toPath(), "abc".getBytes(StandardCharsets.UTF_8));
+			file.setLastModified(1000);
+			String fingerprint = StartupIndex.getFingerprint(file, true);
+			Assert.assertEquals(fingerprint,
+					StartupIndex.getFingerprint(file, true));
+			// same size and modification time but other content
+			Files.write(file.toPath(), "abd".getBytes(StandardCharsets.UTF_8));
+			file.setLastModified(1000);
+			Assert.assertNotEquals(fingerprint,
+					StartupIndex.getFingerprint(file, true));
+			Assert.assertEquals(StartupIndex.getFingerprint(file, false),
+					"1000:3");
+		} finally {
+			file.delete();
+		}
+		Assert.assertEquals(StartupIndex.getFingerprint(file, true), "-");
+	}
+}
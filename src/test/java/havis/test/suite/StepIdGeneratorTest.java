@@ -0,0 +1,60 @@
+package havis.test.suite;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StepIdGeneratorTest {
+
+	@Test
+	public void random() {
+		String id = StepIdGenerator.RANDOM.next();
+		Assert.assertTrue(id.matches("[0-9a-f]{32}"), id);
+		Assert.assertNotEquals(StepIdGenerator.RANDOM.next(), id);
+	}
+
+	@Test
+	public void sequential() throws Exception {
+		String first = StepIdGenerator.SEQUENTIAL.next();
+		Assert.assertTrue(first.matches("[0-9a-f]{32}"), first);
+		// monotonic within a thread, the prefix of the process is kept
+		String previous = first;
+		for (int i = 0; i < 3000; i++) {
+			String id = StepIdGenerator.SEQUENTIAL.next();
+			Assert.assertEquals(id.substring(0, 16), first.substring(0, 16));
+			Assert.assertTrue(id.compareTo(previous) > 0, id);
+			previous = id;
+		}
+
+		// unique across threads
+		final Set<String> ids = Collections
+				.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 5000; j++) {
+						ids.add(StepIdGenerator.SEQUENTIAL.next());
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(ids.size(), 20000);
+	}
+
+	@Test
+	public void fromName() {
+		Assert.assertEquals(StepIdGenerator.fromName("sequential"),
+				StepIdGenerator.SEQUENTIAL);
+		Assert.assertEquals(StepIdGenerator.fromName("Random"),
+				StepIdGenerator.RANDOM);
+	}
+}
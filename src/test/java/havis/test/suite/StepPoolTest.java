@@ -0,0 +1,96 @@
+package havis.test.suite;
+
+import havis.test.suite.api.NDIContext;
+import havis.test.suite.api.dto.TestCaseInfo;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StepPoolTest {
+
+	public static class PooledStep implements ResettableStep {
+		int resets;
+		boolean failReset;
+
+		@Override
+		public Map<String, Object> prepare(NDIContext context,
+				String moduleHome, TestCaseInfo testCaseInfo, String stepId,
+				Map<String, Object> stepProperties) {
+			return null;
+		}
+
+		@Override
+		public String run() {
+			return null;
+		}
+
+		@Override
+		public void finish() {
+		}
+
+		@Override
+		public void reset() throws Exception {
+			if (failReset) {
+				throw new Exception("reset failed");
+			}
+			resets++;
+		}
+	}
+
+	@Test
+	public void borrowRelease() throws Exception {
+		final GenericApplicationContext context = new GenericApplicationContext();
+		RootBeanDefinition prototype = new RootBeanDefinition(PooledStep.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		context.registerBeanDefinition("prototype", prototype);
+		context.registerBeanDefinition("singleton", new RootBeanDefinition(
+				PooledStep.class));
+		context.refresh();
+
+		final StepPool pool = new StepPool(1);
+		// a released prototype instance is reset and reused
+		PooledStep step1 = (PooledStep) pool.borrow(context, "prototype");
+		pool.release(context, "prototype", step1);
+		Assert.assertEquals(step1.resets, 1);
+		Assert.assertSame(pool.borrow(context, "prototype"), step1);
+		PooledStep step2 = (PooledStep) pool.borrow(context, "prototype");
+		Assert.assertNotSame(step2, step1);
+		// the pool is bounded
+		pool.release(context, "prototype", step1);
+		pool.release(context, "prototype", step2);
+		Assert.assertSame(pool.borrow(context, "prototype"), step1);
+		Assert.assertNotSame(pool.borrow(context, "prototype"), step2);
+		Assert.assertEquals(pool.getReused(), 2);
+		Assert.assertEquals(pool.getCreated(), 3);
+
+		// an instance is not reused after a failed reset
+		step2.failReset = true;
+		pool.release(context, "prototype", step2);
+		Assert.assertNotSame(pool.borrow(context, "prototype"), step2);
+
+		// singletons are not reset
+		PooledStep singleton = (PooledStep) pool.borrow(context, "singleton");
+		pool.release(context, "singleton", singleton);
+		Assert.assertEquals(singleton.resets, 0);
+
+		// the instances are not shared between threads
+		pool.release(context, "prototype", step1);
+		final AtomicReference<Object> other = new AtomicReference<>();
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				other.set(pool.borrow(context, "prototype"));
+			}
+		};
+		thread.start();
+		thread.join();
+		Assert.assertNotSame(other.get(), step1);
+		context.close();
+	}
+}
@@ -0,0 +1,34 @@
+package havis.test.suite;
+
+import java.math.BigDecimal;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestCaseClockTest {
+
+	@Test
+	public void toCalendar() {
+		long before = System.currentTimeMillis();
+		TestCaseClock clock = new TestCaseClock();
+		long start = clock.nanoTime();
+		XMLGregorianCalendar startTime = clock.toCalendar(start);
+		long after = System.currentTimeMillis();
+		long millis = startTime.toGregorianCalendar().getTimeInMillis();
+		Assert.assertTrue(millis >= before && millis <= after);
+		Assert.assertEquals(startTime.getFractionalSecond().scale(), 6);
+
+		// durations below a millisecond
+		XMLGregorianCalendar endTime = clock.toCalendar(start + 250000);
+		BigDecimal duration = endTime.getFractionalSecond().subtract(
+				startTime.getFractionalSecond());
+		if (duration.signum() < 0) {
+			duration = duration.add(BigDecimal.ONE);
+		}
+		Assert.assertEquals(duration.compareTo(new BigDecimal("0.000250")), 0);
+		Assert.assertTrue(endTime.toXMLFormat().matches(
+				".*T\\d\\d:\\d\\d:\\d\\d\\.\\d{6}.*"));
+	}
+}
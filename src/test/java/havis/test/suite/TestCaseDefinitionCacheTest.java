@@ -0,0 +1,68 @@
+package havis.test.suite;
+
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestCaseDefinitionCacheTest {
+
+	@Test
+	public void getAndPut() {
+		TestCaseDefinitionCache cache = new TestCaseDefinitionCache(2);
+		TestCaseType definition = createDefinition();
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("a", "1");
+		parameters.put("testCaseId", "id1");
+
+		Assert.assertNull(cache.get("x/testCase.xml", parameters));
+		Assert.assertTrue(cache.put("x/testCase.xml", parameters,
+				"<testCase/>", definition));
+		// the test case id is not part of the key
+		parameters.put("testCaseId", "id2");
+		TestCaseType copy = cache.get("x/testCase.xml", parameters);
+		Assert.assertNotNull(copy);
+		Assert.assertNotSame(copy, definition);
+		Assert.assertNotSame(copy.getSteps().getStep().get(0), definition
+				.getSteps().getStep().get(0));
+		Assert.assertEquals(copy.getSteps().getStep().get(0).getName(), "s0");
+		Assert.assertEquals(cache.getHits(), 1);
+		Assert.assertEquals(cache.getMisses(), 1);
+
+		// other parameters
+		parameters.put("a", "2");
+		Assert.assertNull(cache.get("x/testCase.xml", parameters));
+		// other file
+		parameters.put("a", "1");
+		Assert.assertNull(cache.get("y/testCase.xml", parameters));
+
+		// a template which references the test case id is not cached
+		Assert.assertFalse(cache.put("y/testCase.xml", parameters,
+				"<testCase>$testCaseId$</testCase>", definition));
+		Assert.assertEquals(cache.getSize(), 1);
+
+		cache.clear();
+		Assert.assertEquals(cache.getSize(), 0);
+		Assert.assertEquals(cache.getHits(), 0);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidCapacity() {
+		new TestCaseDefinitionCache(0);
+	}
+
+	private static TestCaseType createDefinition() {
+		StepType step = new StepType();
+		step.setName("s0");
+		step.setModule(new ModuleType());
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays.asList(step)));
+		return testCase;
+	}
+}
@@ -0,0 +1,72 @@
+package havis.test.suite;
+
+import havis.test.suite.exceptions.AbortedException;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestautomatMetricsTest {
+
+	@Test
+	public void register() throws Exception {
+		TestautomatMetrics metrics = TestautomatMetrics.getInstance();
+		metrics.register();
+		try {
+			metrics.threadStarted("tc->threads[0]");
+			metrics.threadStarted("tc->threads[0]");
+			metrics.threadFinished("tc->threads[0]");
+			metrics.stepExecuted();
+			metrics.verificationFailed();
+			Assert.assertEquals(metrics.getActiveThreads().get("tc->threads[0]"),
+					Integer.valueOf(1));
+
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName("havis.test.suite:type=Testautomat");
+			Assert.assertEquals(server.getAttribute(name, "ExecutedSteps"), 1L);
+			Assert.assertEquals(
+					server.getAttribute(name, "VerificationFailures"), 1L);
+			Assert.assertTrue((Long) server.getAttribute(name, "HeapUsed") > 0);
+
+			// abort via JMX
+			metrics.checkAborted();
+			server.invoke(name, "abort", null, null);
+			Assert.assertTrue(metrics.isAborted());
+			try {
+				metrics.checkAborted();
+				Assert.fail();
+			} catch (AbortedException e) {
+			}
+		} finally {
+			metrics.unregister();
+			metrics.reset();
+		}
+		Assert.assertFalse(metrics.isAborted());
+		Assert.assertFalse(ManagementFactory.getPlatformMBeanServer()
+				.isRegistered(
+						new ObjectName("havis.test.suite:type=Testautomat")));
+	}
+
+	@Test
+	public void disabled() throws Exception {
+		TestautomatMetrics metrics = TestautomatMetrics.getInstance();
+		Assert.assertFalse(metrics.isEnabled());
+		// nothing is collected without JMX
+		metrics.threadStarted("tc->threads[0]");
+		metrics.stepExecuted();
+		metrics.verificationFailed();
+		Assert.assertTrue(metrics.getActiveThreads().isEmpty());
+		Assert.assertEquals(metrics.getExecutedSteps(), 0);
+		Assert.assertEquals(metrics.getVerificationFailures(), 0);
+		metrics.abort();
+		try {
+			metrics.checkAborted();
+		} finally {
+			metrics.reset();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package havis.test.suite;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ThreadGroupExecutionTest {
+
+	@Test
+	public void fromName() {
+		Assert.assertEquals(ThreadGroupExecution.fromName("pooled"),
+				ThreadGroupExecution.POOLED);
+		Assert.assertEquals(ThreadGroupExecution.fromName("Virtual"),
+				ThreadGroupExecution.VIRTUAL);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void fromNameInvalid() {
+		ThreadGroupExecution.fromName("x");
+	}
+
+	@Test
+	public void createExecutor() throws Exception {
+		// a platform thread for each thread
+		ExecutorService executor = ThreadGroupExecution.PLATFORM
+				.createExecutor(4, 2);
+		Assert.assertEquals(
+				((ThreadPoolExecutor) executor).getMaximumPoolSize(), 4);
+		executor.shutdown();
+		// the pool is limited
+		executor = ThreadGroupExecution.POOLED.createExecutor(4, 2);
+		Assert.assertEquals(
+				((ThreadPoolExecutor) executor).getMaximumPoolSize(), 2);
+		executor.shutdown();
+		executor = ThreadGroupExecution.POOLED.createExecutor(2, 4);
+		Assert.assertEquals(
+				((ThreadPoolExecutor) executor).getMaximumPoolSize(), 2);
+		executor.shutdown();
+		// virtual threads or a limited pool if they are not supported
+		executor = ThreadGroupExecution.VIRTUAL.createExecutor(4, 2);
+		Assert.assertEquals(run(executor, 4), ThreadGroupExecution.VIRTUAL
+				.limitsConcurrency(4, 2) ? 2 : 4);
+	}
+
+	@Test
+	public void limitsConcurrency() throws Exception {
+		Assert.assertFalse(ThreadGroupExecution.PLATFORM.limitsConcurrency(4,
+				2));
+		Assert.assertTrue(ThreadGroupExecution.POOLED.limitsConcurrency(4, 2));
+		Assert.assertFalse(ThreadGroupExecution.POOLED
+				.limitsConcurrency(2, 2));
+		Assert.assertTrue(ThreadGroupExecution.POOLED.limitsConcurrency(2, 0));
+		// only 2 of 4 threads run concurrently
+		Assert.assertEquals(
+				run(ThreadGroupExecution.POOLED.createExecutor(4, 2), 4), 2);
+	}
+
+	/**
+	 * Executes tasks which wait for each other and returns the max. count of
+	 * tasks which have run concurrently
+	 */
+	private static int run(ExecutorService executor, int taskCount)
+			throws Exception {
+		final CountDownLatch started = new CountDownLatch(taskCount);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		try {
+			Future<?>[] futures = new Future<?>[taskCount];
+			for (int i = 0; i < taskCount; i++) {
+				futures[i] = executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						int count = running.incrementAndGet();
+						int max;
+						while ((max = maxRunning.get()) < count
+								&& !maxRunning.compareAndSet(max, count)) {
+						}
+						started.countDown();
+						started.await(100, TimeUnit.MILLISECONDS);
+						running.decrementAndGet();
+						return null;
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return maxRunning.get();
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
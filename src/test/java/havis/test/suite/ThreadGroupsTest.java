@@ -0,0 +1,141 @@
+package havis.test.suite;
+
+import havis.test.suite.dto.TestAutomatDTO;
+import havis.test.suite.dto.TestCaseDTO;
+import havis.test.suite.dto.TestCasesDTO;
+import havis.test.suite.exceptions.ReportedException;
+import havis.test.suite.testcase.ModuleType;
+import havis.test.suite.testcase.ObjectType;
+import havis.test.suite.testcase.StepReportType;
+import havis.test.suite.testcase.StepType;
+import havis.test.suite.testcase.TestCaseType;
+import havis.test.suite.testcase.ThreadGroupType;
+import havis.test.suite.testcase.ThreadsType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ThreadGroupsTest {
+
+	@Test
+	public void copyPath() {
+		TestCaseType testCase = DefinitionCopierTest.createTestCase();
+		StepType module = testCase.getSteps().getStep().get(0);
+		StepType loop = testCase.getSteps().getStep().get(1);
+		StepType threads = loop.getLoop().getSteps().getStep().get(0);
+		List<ThreadGroupType> threadGroups = threads.getThreads()
+				.getThreadGroup();
+
+		ThreadGroups.ThreadGroupsCopy copy = new ThreadGroups.ThreadGroupsCopy();
+		List<StepType> steps = ThreadGroups.copyPath(testCase.getSteps()
+				.getStep(), threadGroups, 0, copy);
+		Assert.assertEquals(steps.size(), 2);
+		// steps which are not part of the path are shared
+		Assert.assertSame(steps.get(0), module);
+
+		// the steps along the path get their own report lists
+		StepType loopCopy = steps.get(1);
+		Assert.assertNotSame(loopCopy, loop);
+		Assert.assertNotSame(loopCopy.getReports(), loop.getReports());
+		Assert.assertNotSame(loopCopy.getReports().getReport(), loop
+				.getReports().getReport());
+		Assert.assertEquals(loopCopy.getReports().getReport(), loop
+				.getReports().getReport());
+		StepType threadsCopy = loopCopy.getLoop().getSteps().getStep().get(0);
+		Assert.assertNotSame(threadsCopy.getReports().getReport(), threads
+				.getReports().getReport());
+		loopCopy.getReports().getReport().add(new StepReportType());
+		Assert.assertEquals(loop.getReports().getReport().size(), 1);
+
+		// the thread group gets a copy of its steps without reports
+		Assert.assertSame(copy.getThreadGroups(), threadsCopy.getThreads()
+				.getThreadGroup());
+		ThreadGroupType threadGroupCopy = copy.getThreadGroups().get(0);
+		Assert.assertNotSame(threadGroupCopy, threadGroups.get(0));
+		Assert.assertNull(threadGroupCopy.getSteps().getStep().get(0)
+				.getModule().getReports());
+
+		// the thread group is not part of the steps
+		Assert.assertNull(ThreadGroups.copyPath(loop.getLoop().getSteps()
+				.getStep().get(0).getThreads().getThreadGroup().get(0)
+				.getSteps().getStep(), threadGroups, 0,
+				new ThreadGroups.ThreadGroupsCopy()));
+	}
+
+	@Test
+	public void failedThreads() throws Exception {
+		assertFailedThreads(new TestCasesDTO(), 2);
+	}
+
+	@Test
+	public void failedArrivals() throws Exception {
+		TestCasesDTO base = new TestCasesDTO();
+		base.setArrivalRate(10);
+		base.setArrivalDuration(200);
+		// each of the 2 arrivals gets a new thread because a failed thread
+		// is finished
+		assertFailedThreads(base, 2);
+	}
+
+	/**
+	 * Runs a thread group whose steps fail and checks that the exception of
+	 * the steps is thrown and the reports of all threads are moved
+	 */
+	private static void assertFailedThreads(TestCasesDTO base, int reports)
+			throws Exception {
+		GenericApplicationContext objContext = new GenericApplicationContext();
+		objContext.registerBeanDefinition("failing", BeanDefinitionBuilder
+				.genericBeanDefinition(Step.class)
+				.addPropertyValue("throwRunException", true)
+				.getBeanDefinition());
+		objContext.refresh();
+		TestAutomatDTO testAutomatDTO = new TestAutomatDTO();
+		testAutomatDTO.setObjContext(objContext);
+		testAutomatDTO.setObjectIdFiles(Collections.singletonMap("failing",
+				"/modules/failing/beans.xml"));
+		testAutomatDTO.setUi(new UI());
+
+		ObjectType object = new ObjectType();
+		object.setObjectId("failing");
+		ModuleType module = new ModuleType();
+		module.setObject(object);
+		StepType step = new StepType();
+		step.setName("failing");
+		step.setThrowExceptions(true);
+		step.setModule(module);
+		ThreadGroupType threadGroup = new ThreadGroupType();
+		threadGroup.setCount(2);
+		threadGroup.setSteps(DefinitionCopier.createSteps(Arrays.asList(step)));
+		ThreadsType threads = new ThreadsType();
+		threads.getThreadGroup().clear();
+		threads.getThreadGroup().add(threadGroup);
+		StepType threadsStep = new StepType();
+		threadsStep.setName("threads");
+		threadsStep.setThreads(threads);
+		TestCaseType testCase = new TestCaseType();
+		testCase.setSteps(DefinitionCopier.createSteps(Arrays
+				.asList(threadsStep)));
+
+		TestCaseDTO testCaseDTO = new TestCaseDTO();
+		testCaseDTO.setBase(base);
+		testCaseDTO.setName("tc");
+		testCaseDTO.setTestCase(testCase);
+		try {
+			new ThreadGroups(testAutomatDTO, testCaseDTO,
+					threads.getThreadGroup(), "tc").run();
+			Assert.fail();
+		} catch (ReportedException e) {
+			// the exception of the failed steps is thrown
+		}
+		// the reports of the failed threads have been moved
+		Assert.assertEquals(module.getReports().getReport().size(), reports);
+		Assert.assertEquals(step.getReports().getReport().size(), reports);
+		objContext.close();
+	}
+}
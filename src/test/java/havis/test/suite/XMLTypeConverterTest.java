@@ -293,4 +293,65 @@ public class XMLTypeConverterTest {
 
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void cachedEntries() {
+		XMLTypeConverter c = new XMLTypeConverter();
+		PropertiesCache cache = new PropertiesCache();
+		NDIContext context = new SynchronizedNDIContext();
+		context.setProvider(new MapNDIProvider());
+		context.setValue("ccc", "/x", "1");
+
+		// key -> (key -> string)
+		EntryType e11 = new EntryType();
+		e11.setName("a1");
+		e11.setValue("v");
+		DictionaryType d1 = new DictionaryType();
+		d1.getEntry().add(e11);
+		EntryType e1 = new EntryType();
+		e1.setName("a");
+		e1.setDictionary(d1);
+		List<EntryType> staticEntries = new ArrayList<EntryType>();
+		staticEntries.add(e1);
+
+		// the static properties are converted once
+		Map<String, Object> e = c.convert(staticEntries, context, cache);
+		Assert.assertEquals(((Map<String, Object>) e.get("a")).get("a1"), "v");
+		Assert.assertSame(c.convert(staticEntries, context, cache), e);
+		try {
+			e.put("b", "x");
+			Assert.fail();
+		} catch (UnsupportedOperationException ex) {
+		}
+
+		// key -> global context value
+		EntryType e2 = new EntryType();
+		e2.setName("b");
+		e2.setValue("/x");
+		e2.setGlobalContextCommunity("ccc");
+		List<EntryType> dynamicEntries = new ArrayList<EntryType>();
+		dynamicEntries.add(e1);
+		dynamicEntries.add(e2);
+
+		// only the static sub tree is taken from the cache
+		e = c.convert(dynamicEntries, context, cache);
+		Assert.assertEquals(e.get("b"), "1");
+		context.setValue("ccc", "/x", "2");
+		Map<String, Object> e3 = c.convert(dynamicEntries, context, cache);
+		Assert.assertNotSame(e3, e);
+		Assert.assertEquals(e3.get("b"), "2");
+		Assert.assertSame(e3.get("a"), e.get("a"));
+
+		// an equal definition is another entry (keyed by identity)
+		int size = cache.getSize();
+		Map<String, Object> e4 = c.convert(
+				new ArrayList<EntryType>(staticEntries), context, cache);
+		Assert.assertNotSame(e4, c.convert(staticEntries, context, cache));
+		Assert.assertEquals(cache.getSize(), size + 1);
+
+		// without cache
+		Assert.assertNotSame(c.convert(staticEntries, context, null),
+				c.convert(staticEntries, context, null));
+	}
+
 }
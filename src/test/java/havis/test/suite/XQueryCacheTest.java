@@ -0,0 +1,64 @@
+package havis.test.suite;
+
+import havis.test.suite.common.messaging.XQuery;
+
+import java.net.URI;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class XQueryCacheTest {
+
+	@Test
+	public void borrow() throws Exception {
+		XQueryCache cache = new XQueryCache(2);
+		// first access compiles the query
+		XQuery xq1 = cache.borrow("root()");
+		Assert.assertEquals(cache.getMisses(), 1);
+		Assert.assertEquals(cache.getHits(), 0);
+		// a concurrent access gets its own compiled query
+		XQuery xq2 = cache.borrow("root()");
+		Assert.assertNotSame(xq2, xq1);
+		Assert.assertEquals(cache.getMisses(), 2);
+		cache.release("root()", xq1);
+		cache.release("root()", xq2);
+		// next access returns a compiled query
+		XQuery xq = cache.borrow("root()");
+		Assert.assertTrue(xq == xq1 || xq == xq2);
+		Assert.assertEquals(cache.getMisses(), 2);
+		Assert.assertEquals(cache.getHits(), 1);
+		cache.release("root()", xq);
+
+		// fill the cache: "root()" has been used last => "//a" is evicted
+		XQuery xq3 = cache.borrow("//a");
+		cache.release("//a", xq3);
+		cache.release("root()", cache.borrow("root()"));
+		cache.release("//b", cache.borrow("//b"));
+		Assert.assertEquals(cache.getSize(), 2);
+		xq = cache.borrow("root()");
+		Assert.assertTrue(xq == xq1 || xq == xq2);
+		Assert.assertNotSame(cache.borrow("//a"), xq3);
+		Assert.assertEquals(cache.getMisses(), 5);
+
+		cache.clear();
+		Assert.assertEquals(cache.getSize(), 0);
+		Assert.assertEquals(cache.getHits(), 0);
+		Assert.assertEquals(cache.getMisses(), 0);
+	}
+
+	@Test
+	public void execute() throws Exception {
+		XQueryCache cache = new XQueryCache(1);
+		URI uri = new URI("http://www.HARTING.com");
+		String result = cache.execute("//b", "<a><b>x</b></a>", uri);
+		Assert.assertEquals(result,
+				new XQuery("//b").execute("<a><b>x</b></a>", uri));
+		cache.execute("//b", "<a><b>y</b></a>", uri);
+		Assert.assertEquals(cache.getHits(), 1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidCapacity() {
+		new XQueryCache(0);
+	}
+}